@@ -0,0 +1,118 @@
+import bench.CsvGenerator;
+import bench.LibraryDriver;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * title: LibraryBenchDriver.java
+ * abstract: This class LibraryBenchDriver implements bench.LibraryDriver for the JMH benchmarks.  It is in the
+ * default package like Library so it can use the library classes.  The generated books and readers are kept in
+ * arrays so a benchmark only passes indexes.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+public class LibraryBenchDriver implements LibraryDriver {
+    private Library library = new Library("Bench");
+    private Book[] books = new Book[0];
+    private Reader[] readers = new Reader[0];
+
+    public LibraryBenchDriver() {
+        // Benchmarks measure the library, not its messages.
+        LibraryLog.setSink(EventSink.SILENT);
+    }
+
+    @Override
+    public String init(String filename, boolean parallel) {
+        library = new Library("Bench");
+        return library.init(filename, parallel).name();
+    }
+
+    @Override
+    public void fill(int bookCount, int copies, int readerCount, int subjects, boolean addShelves) {
+        library = new Library("Bench");
+
+        if(addShelves) {
+            for(int i = 0; i < subjects; i++) {
+                Shelf shelf = new Shelf();
+                shelf.setShelfNumber(i + 1);
+                shelf.setSubject(CsvGenerator.subject(i));
+                library.addShelf(shelf);
+            }
+        }
+
+        books = new Book[bookCount];
+        for(int i = 0; i < bookCount; i++) {
+            books[i] = new Book(CsvGenerator.isbn(i), CsvGenerator.title(i), CsvGenerator.subject(i % subjects),
+                    CsvGenerator.pageCount(i), CsvGenerator.author(i), LocalDate.of(2020, 1, 1));
+            for(int copy = 0; copy < copies; copy++) {
+                library.addBook(books[i]);
+            }
+        }
+
+        readers = new Reader[readerCount];
+        for(int i = 0; i < readerCount; i++) {
+            readers[i] = new Reader(i + 1, CsvGenerator.name(i), CsvGenerator.phone(i));
+            library.addReader(readers[i]);
+        }
+    }
+
+    @Override
+    public String load(String filename, int bookCount, int readerCount) {
+        library = new Library("Bench", true);
+        Code returnedCode = library.init(filename, true);
+
+        books = new Book[bookCount];
+        for(int i = 0; i < bookCount; i++) {
+            List<Book> isbnBooks = library.getBooksByISBN(CsvGenerator.isbn(i));
+            books[i] = isbnBooks.isEmpty() ? null : isbnBooks.get(0);
+        }
+        readers = new Reader[readerCount];
+        for(int i = 0; i < readerCount; i++) {
+            readers[i] = library.getReaderByCard(i + 1);
+        }
+        return returnedCode.name();
+    }
+
+    @Override
+    public int[] getLoans(int reader) {
+        List<Book> loans = readers[reader].getBooks();
+        int[] loanBooks = new int[loans.size()];
+        for(int i = 0; i < loanBooks.length; i++) {
+            String isbn = loans.get(i).getIsbn();
+            loanBooks[i] = Integer.parseInt(isbn.substring(isbn.indexOf('-') + 1));
+        }
+        return loanBooks;
+    }
+
+    @Override
+    public int checkOutBook(int reader, int book) {
+        return library.checkOutBook(readers[reader], books[book]).ordinal();
+    }
+
+    @Override
+    public int returnBook(int reader, int book) {
+        return library.returnBook(readers[reader], books[book]).ordinal();
+    }
+
+    @Override
+    public Object getBookByISBN(String isbn) {
+        return library.getBookByISBN(isbn);
+    }
+
+    @Override
+    public Object getReaderByCard(int cardNumber) {
+        return library.getReaderByCard(cardNumber);
+    }
+
+    @Override
+    public Object getShelf(int shelfNumber) {
+        return library.getShelf(shelfNumber);
+    }
+
+    @Override
+    public int addShelf(String subject) {
+        return library.addShelf(subject).ordinal();
+    }
+}
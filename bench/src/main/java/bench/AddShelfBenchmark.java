@@ -0,0 +1,56 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * title: AddShelfBenchmark.java
+ * abstract: This class AddShelfBenchmark measures addShelf(String) on a library that already holds catalogSize
+ * books and no shelves.  addShelf() puts every book with the shelf's subject on the new shelf, so it looks at the
+ * whole books map.  One call adds a shelf for each of the SUBJECTS subjects to a newly filled library, and the
+ * time is reported per shelf.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class AddShelfBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private LibraryDriver driver;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        driver = LibraryDriver.create();
+        driver.fill(catalogSize, 1, 1, CsvGenerator.SUBJECTS, false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CsvGenerator.SUBJECTS)
+    public int addShelves() {
+        int codes = 0;
+        for(int i = 0; i < CsvGenerator.SUBJECTS; i++) {
+            codes += driver.addShelf(CsvGenerator.subject(i));
+        }
+        return codes;
+    }
+}
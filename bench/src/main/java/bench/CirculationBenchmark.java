@@ -0,0 +1,54 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * title: CirculationBenchmark.java
+ * abstract: This class CirculationBenchmark measures checkOutBook() followed by returnBook(Reader, Book), so the
+ * library is the same after every call.  The reader and book change on every call to avoid measuring one
+ * cached entry.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CirculationBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private LibraryDriver driver;
+    private int readerCount;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        readerCount = Math.max(catalogSize / 10, 1);
+        driver = LibraryDriver.create();
+        driver.fill(catalogSize, 2, readerCount, CsvGenerator.SUBJECTS, true);
+    }
+
+    @Benchmark
+    public int checkOutAndReturn() {
+        int i = next++;
+        int reader = Math.floorMod(i, readerCount);
+        int book = Math.floorMod(i * 31, catalogSize);
+        return driver.checkOutBook(reader, book) + driver.returnBook(reader, book);
+    }
+}
@@ -0,0 +1,290 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * title: CirculationSimulator.java
+ * abstract: This class CirculationSimulator loads a library written by LibraryGenerator and has several threads
+ * (terminals) call checkOutBook(), returnBook(), and getBookByISBN() on it at once, in a mix like a busy branch.
+ * Books are picked with the generator's Zipf skew, so popular titles run out of copies and fail like they would at
+ * the desk.  Each call is timed, and the report has the throughput and the latency percentiles of each kind of
+ * call.  Unlike the JMH benchmarks it measures the library under contention, with realistic failures.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * Run it with:
+ *      java -cp target/benchmarks.jar bench.CirculationSimulator [name=value ...]
+ * where the names are threads, operations (per thread), warmup (per thread), checkOut and return (percent of the
+ * calls, the rest are lookups), file (a library file to reuse or write), and the LibraryGenerator settings.
+ *
+ * NOTE: Each terminal has its own readers (reader i belongs to terminal i % threads) and only returns books its
+ *       readers checked out, so it knows their loans without asking the library.  The seed fixes the calls each
+ *       terminal makes, but not how the terminals interleave, so two runs fail a few different checkouts.
+ */
+
+public final class CirculationSimulator {
+    private static final int CHECK_OUT = 0;
+    private static final int RETURN = 1;
+    private static final int LOOKUP = 2;
+    private static final String[] OPERATION_NAMES = {"checkOutBook", "returnBook", "getBookByISBN"};
+    private static final double[] PERCENTILES = {0.50, 0.90, 0.99, 0.999};
+
+    private final LibraryGenerator generator = new LibraryGenerator();
+    private int threads = Math.max(Runtime.getRuntime().availableProcessors(), 1);
+    private int operations = 200000;
+    private int warmup = 50000;
+    private int checkOutPercent = 40;
+    private int returnPercent = 40;
+    private Path file;
+
+    /**
+     * This class Terminal is one thread of calls.  It keeps the loans of its readers in two arrays, so a return
+     * picks one at random and removes it by moving the last loan into its place.
+     */
+    private final class Terminal implements Runnable {
+        private final LibraryDriver driver;
+        private final double[] popularity;
+        private final SplittableRandom random;
+        private final int[] readers;
+        private final int[] loanReaders;
+        private final int[] loanBooks;
+        private int loanCount;
+        private final long[][] latencies = new long[OPERATION_NAMES.length][];
+        private final int[] counts = new int[OPERATION_NAMES.length];
+        private final int[] failures = new int[OPERATION_NAMES.length];
+        private final CountDownLatch start;
+
+        Terminal(int number, LibraryDriver driver, double[] popularity, SplittableRandom random,
+                 CountDownLatch start) {
+            this.driver = driver;
+            this.popularity = popularity;
+            this.random = random;
+            this.start = start;
+            readers = new int[(generator.getReaders() - number + threads - 1) / threads];
+            loanReaders = new int[readers.length * LibraryGenerator.LENDING_LIMIT];
+            loanBooks = new int[loanReaders.length];
+            for(int i = 0; i < readers.length; i++) {
+                readers[i] = number + i * threads;
+                for(int book : driver.getLoans(readers[i])) {
+                    loanReaders[loanCount] = readers[i];
+                    loanBooks[loanCount++] = book;
+                }
+            }
+            for(int operation = 0; operation < latencies.length; operation++) {
+                latencies[operation] = new long[operations];
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for(int i = 0; i < warmup; i++) {
+                call(false);
+            }
+            for(int i = 0; i < operations; i++) {
+                call(true);
+            }
+        }
+
+        /**
+         * This method call() makes one call picked by the mix.  A return with no loans to return is made a
+         * checkout instead.
+         * @param record True to count and time the call
+         */
+        private void call(boolean record) {
+            int percent = random.nextInt(100);
+            int operation = percent < checkOutPercent ? CHECK_OUT
+                    : percent < checkOutPercent + returnPercent ? RETURN : LOOKUP;
+            if(operation == RETURN && loanCount == 0) {
+                operation = CHECK_OUT;
+            }
+
+            boolean failed;
+            long start;
+            long end;
+            if(operation == CHECK_OUT) {
+                int reader = readers[random.nextInt(readers.length)];
+                int book = LibraryGenerator.pick(popularity, random);
+                start = System.nanoTime();
+                int code = driver.checkOutBook(reader, book);
+                end = System.nanoTime();
+                failed = code != 0;
+                if(!failed) {
+                    loanReaders[loanCount] = reader;
+                    loanBooks[loanCount++] = book;
+                }
+            } else if(operation == RETURN) {
+                int loan = random.nextInt(loanCount);
+                int reader = loanReaders[loan];
+                int book = loanBooks[loan];
+                loanCount--;
+                loanReaders[loan] = loanReaders[loanCount];
+                loanBooks[loan] = loanBooks[loanCount];
+                start = System.nanoTime();
+                int code = driver.returnBook(reader, book);
+                end = System.nanoTime();
+                failed = code != 0;
+            } else {
+                String isbn = CsvGenerator.isbn(LibraryGenerator.pick(popularity, random));
+                start = System.nanoTime();
+                Object book = driver.getBookByISBN(isbn);
+                end = System.nanoTime();
+                failed = book == null;
+            }
+
+            if(record) {
+                latencies[operation][counts[operation]++] = end - start;
+                if(failed) {
+                    failures[operation]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method set() sets one setting by name, as given on the command line (ex. "threads=8").  Settings it
+     * does not know are passed to the LibraryGenerator.
+     * @param setting the name and value separated by '='
+     */
+    public void set(String setting) {
+        int equals = setting.indexOf('=');
+        String value = equals < 0 ? "" : setting.substring(equals + 1);
+        switch(equals < 0 ? setting : setting.substring(0, equals)) {
+            case "threads":
+                threads = Integer.parseInt(value);
+                break;
+            case "operations":
+                operations = Integer.parseInt(value);
+                break;
+            case "warmup":
+                warmup = Integer.parseInt(value);
+                break;
+            case "checkOut":
+                checkOutPercent = Integer.parseInt(value);
+                break;
+            case "return":
+                returnPercent = Integer.parseInt(value);
+                break;
+            case "file":
+                file = Paths.get(value);
+                break;
+            default:
+                generator.set(setting);
+        }
+    }
+
+    /**
+     * This method run() writes the library file if needed, loads it, runs the terminals, and prints the report.
+     * @throws IOException if the library file cannot be written
+     * @throws InterruptedException if the simulator is interrupted while waiting for the terminals
+     */
+    public void run() throws IOException, InterruptedException {
+        if(threads < 1 || threads > generator.getReaders()) {
+            throw new IllegalArgumentException("threads must be from 1 to the number of readers: " + threads);
+        }
+        if(checkOutPercent < 0 || returnPercent < 0 || checkOutPercent + returnPercent > 100) {
+            throw new IllegalArgumentException("checkOut and return must be percents that add up to at most 100");
+        }
+        Path libraryFile = file;
+        if(libraryFile == null) {
+            libraryFile = Files.createTempFile("library-simulator-", ".csv");
+            libraryFile.toFile().deleteOnExit();
+        }
+        if(file == null || !Files.exists(file)) {
+            generator.write(libraryFile);
+        }
+
+        LibraryDriver driver = LibraryDriver.create();
+        long loadStart = System.nanoTime();
+        String loaded = driver.load(libraryFile.toString(), generator.getTitles(), generator.getReaders());
+        System.out.printf("Loaded %s in %.2f s: %s%n", libraryFile, (System.nanoTime() - loadStart) / 1e9, loaded);
+
+        double[] popularity = LibraryGenerator.popularity(generator.getTitles(), generator.getSkew());
+        SplittableRandom seeds = new SplittableRandom(generator.getSeed());
+        CountDownLatch start = new CountDownLatch(1);
+        Terminal[] terminals = new Terminal[threads];
+        Thread[] terminalThreads = new Thread[threads];
+        for(int i = 0; i < threads; i++) {
+            terminals[i] = new Terminal(i, driver, popularity, seeds.split(), start);
+            terminalThreads[i] = new Thread(terminals[i], "terminal-" + i);
+            terminalThreads[i].start();
+        }
+
+        long runStart = System.nanoTime();
+        start.countDown();
+        for(Thread terminalThread : terminalThreads) {
+            terminalThread.join();
+        }
+        report(terminals, System.nanoTime() - runStart);
+    }
+
+    private void report(Terminal[] terminals, long elapsed) {
+        double seconds = elapsed / 1e9;
+        long total = (long) threads * operations;
+        System.out.printf("%d threads, %d calls in %.2f s (with %d warmup calls each): %.0f calls/s%n", threads,
+                total, seconds, warmup, total / seconds);
+        System.out.printf("%-14s %10s %9s %9s %9s %9s %9s %9s%n", "call", "count", "failed", "p50 us", "p90 us",
+                "p99 us", "p99.9 us", "max us");
+        for(int operation = 0; operation < OPERATION_NAMES.length; operation++) {
+            int count = 0;
+            int failed = 0;
+            for(Terminal terminal : terminals) {
+                count += terminal.counts[operation];
+                failed += terminal.failures[operation];
+            }
+            long[] latencies = new long[count];
+            int size = 0;
+            for(Terminal terminal : terminals) {
+                System.arraycopy(terminal.latencies[operation], 0, latencies, size, terminal.counts[operation]);
+                size += terminal.counts[operation];
+            }
+            Arrays.sort(latencies);
+
+            StringBuilder line = new StringBuilder(String.format("%-14s %10d %9d", OPERATION_NAMES[operation],
+                    count, failed));
+            for(double percentile : PERCENTILES) {
+                line.append(String.format(" %9.1f", percentile(latencies, percentile) / 1e3));
+            }
+            line.append(String.format(" %9.1f", count == 0 ? 0 : latencies[count - 1] / 1e3));
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * This method percentile() returns the smallest latency that at least the given share of the calls were at
+     * or under (nearest rank).
+     * @param sorted the latencies in order
+     * @param percentile the share, from 0 to 1 (ex. 0.99)
+     * @return the latency, or 0 if there are none
+     */
+    static long percentile(long[] sorted, double percentile) {
+        if(sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * This main() method runs the simulator.
+     *      java bench.CirculationSimulator [name=value ...]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        CirculationSimulator simulator = new CirculationSimulator();
+        for(String setting : args) {
+            simulator.set(setting);
+        }
+        simulator.run();
+    }
+}
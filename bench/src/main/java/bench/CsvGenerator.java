@@ -0,0 +1,106 @@
+package bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * title: CsvGenerator.java
+ * abstract: This class CsvGenerator writes library .csv files of a given number of lines for the init()
+ * benchmarks, in the same format as Library00.csv.  Each book appears BOOK_REPEAT times in a random order, there
+ * are SUBJECTS shelves, and one line in READER_RATIO is a reader with one book checked out.  The same size
+ * always gives the same file, so a file that already exists is reused.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+public final class CsvGenerator {
+    public static final int SUBJECTS = 100;       // Number of subjects (and shelves)
+    public static final int BOOK_REPEAT = 10;     // Lines per different book
+    public static final int READER_RATIO = 100;   // One reader for this many lines
+
+    private CsvGenerator() {
+    }
+
+    public static String isbn(int book) {
+        return "978-" + book;
+    }
+
+    public static String title(int book) {
+        return "Title " + book;
+    }
+
+    public static String subject(int subject) {
+        return "subject-" + subject;
+    }
+
+    public static int pageCount(int book) {
+        return 50 + book % 950;
+    }
+
+    public static String author(int book) {
+        return "Author " + book % 1000;
+    }
+
+    public static String name(int reader) {
+        return "Reader " + reader;
+    }
+
+    public static String phone(int reader) {
+        return "831-555-" + (1000 + reader % 9000);
+    }
+
+    /**
+     * This method file() returns a generated .csv file with about lines lines, writing it if it does not exist.
+     * The file is put in the directory named by the library.bench.dir system property, or the temp directory.
+     * @param lines the number of lines in the file
+     * @return the path of the file
+     */
+    public static Path file(int lines) {
+        Path directory = Paths.get(System.getProperty("library.bench.dir", System.getProperty("java.io.tmpdir")));
+        Path file = directory.resolve("library-bench-" + lines + ".csv");
+        if(Files.exists(file)) {
+            return file;
+        }
+
+        try {
+            Path partial = Files.createTempFile(directory, "library-bench-", ".part");
+            write(partial, lines);
+            return Files.move(partial, file);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(Path file, int lines) throws IOException {
+        int readerCount = Math.max(lines / READER_RATIO, 1);
+        int bookLines = Math.max(lines - readerCount - SUBJECTS - 3, 1);
+        int bookCount = Math.max(bookLines / BOOK_REPEAT, 1);
+        SplittableRandom random = new SplittableRandom(lines);
+
+        try(BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(bookLines + "\n");
+            for(int i = 0; i < bookLines; i++) {
+                int book = random.nextInt(bookCount);
+                out.write(isbn(book) + "," + title(book) + "," + subject(book % SUBJECTS) + "," + pageCount(book)
+                        + "," + author(book) + ",0000\n");
+            }
+
+            out.write(SUBJECTS + "\n");
+            for(int i = 0; i < SUBJECTS; i++) {
+                out.write((i + 1) + "," + subject(i) + "\n");
+            }
+
+            out.write(readerCount + "\n");
+            for(int i = 0; i < readerCount; i++) {
+                out.write((i + 1) + "," + name(i) + "," + phone(i) + ",1," + isbn(random.nextInt(bookCount))
+                        + ",2020-01-01\n");
+            }
+        }
+    }
+}
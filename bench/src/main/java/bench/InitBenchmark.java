@@ -0,0 +1,51 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * title: InitBenchmark.java
+ * abstract: This class InitBenchmark measures Library.init() loading a generated .csv file, with the books
+ * section parsed in order or in parallel.  Each call loads the whole file into a new Library.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class InitBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    public int lines;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private String filename;
+    private LibraryDriver driver;
+
+    @Setup
+    public void setUp() {
+        filename = CsvGenerator.file(lines).toString();
+        driver = LibraryDriver.create();
+    }
+
+    @Benchmark
+    public String init() {
+        return driver.init(filename, parallel);
+    }
+}
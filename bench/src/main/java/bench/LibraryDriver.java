@@ -0,0 +1,92 @@
+package bench;
+
+/**
+ * title: LibraryDriver.java
+ * abstract: This interface LibraryDriver is how the benchmarks call the Library.  Library and the other project
+ * classes are in the default package, which code in a package can not import, and JMH only runs benchmarks that
+ * are in a package.  LibraryBenchDriver (default package) implements this interface and is loaded by name, so the
+ * benchmarks call the library through one interface call the JIT can inline.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+public interface LibraryDriver {
+
+    /**
+     * This method create() loads the LibraryBenchDriver class.
+     * @return a new driver with an empty library
+     */
+    static LibraryDriver create() {
+        try {
+            return (LibraryDriver) Class.forName("LibraryBenchDriver").getDeclaredConstructor().newInstance();
+        } catch(ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not load LibraryBenchDriver", e);
+        }
+    }
+
+    /**
+     * This method init() creates a new library and loads it from a .csv file with Library.init().
+     * @param filename the .csv file
+     * @param parallel True to parse the books section in parallel
+     * @return the name of the Code returned by init()
+     */
+    String init(String filename, boolean parallel);
+
+    /**
+     * This method fill() creates a new library with generated books, readers, and shelves.  Book i has ISBN
+     * CsvGenerator.isbn(i) and subject CsvGenerator.subject(i % subjects).  Reader i has card number i + 1.
+     * @param books the number of different books
+     * @param copies the number of copies of each book
+     * @param readers the number of readers
+     * @param subjects the number of subjects
+     * @param addShelves True to add a shelf (numbered 1 to subjects) for each subject
+     */
+    void fill(int books, int copies, int readers, int subjects, boolean addShelves);
+
+    /**
+     * This method load() creates a new library that several threads can use at once, loads it from a .csv file
+     * (ex. one written by LibraryGenerator), and finds the books and readers the other calls use by index.
+     * Book i is the book with ISBN CsvGenerator.isbn(i) and reader i is the reader with card number i + 1.
+     * @param filename the .csv file
+     * @param books the number of different books in the file
+     * @param readers the number of readers in the file
+     * @return the name of the Code returned by init()
+     */
+    String load(String filename, int books, int readers);
+
+    /**
+     * This method getLoans() returns the books a reader has checked out.
+     * @param reader the index of the reader
+     * @return the index of each book
+     */
+    int[] getLoans(int reader);
+
+    /**
+     * This method checkOutBook() calls Library.checkOutBook() for a generated reader and book.
+     * @param reader the index of the reader
+     * @param book the index of the book
+     * @return the ordinal of the Code returned
+     */
+    int checkOutBook(int reader, int book);
+
+    /**
+     * This method returnBook() calls Library.returnBook(Reader, Book) for a generated reader and book.
+     * @param reader the index of the reader
+     * @param book the index of the book
+     * @return the ordinal of the Code returned
+     */
+    int returnBook(int reader, int book);
+
+    Object getBookByISBN(String isbn);
+
+    Object getReaderByCard(int cardNumber);
+
+    Object getShelf(int shelfNumber);
+
+    /**
+     * This method addShelf() calls Library.addShelf(String), which puts every book with that subject on the shelf.
+     * @param subject the subject of the new shelf
+     * @return the ordinal of the Code returned
+     */
+    int addShelf(String subject);
+}
@@ -0,0 +1,342 @@
+package bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * title: LibraryGenerator.java
+ * abstract: This class LibraryGenerator writes a synthetic library .csv file, in the same format as Library00.csv,
+ * with as many titles, copies, shelves, readers, and loans as a scaling test needs.  Titles are ranked by how
+ * popular they are: title 0 is the most popular, and title i has 1 + (maxCopies - 1) / (i + 1)^skew copies, so a
+ * few titles have many copies and most have one (a Zipf skew).  Loans are picked with the same skew.  The same
+ * settings and seed always give the same file.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * Title i has ISBN CsvGenerator.isbn(i) and reader i has card number i + 1, so CirculationSimulator can find them.
+ * Run it with:
+ *      java -cp target/benchmarks.jar bench.LibraryGenerator [file] [name=value ...]
+ * where the names are titles, maxCopies, skew, subjects, shelves, readers, loanRate, maxLoans, and seed.
+ */
+
+public final class LibraryGenerator {
+    public static final int LENDING_LIMIT = 5;      // Same as Library.LENDING_LIMIT
+    public static final LocalDate START_DATE = LocalDate.of(2026, 10, 17);  // Due dates are around this day
+
+    private static final String[] WORDS = {
+            "Ancient", "Art", "Beyond", "Blue", "Book", "City", "Cold", "Dark", "Data", "Deep", "Dream", "Earth",
+            "Empire", "Field", "Fire", "Garden", "Ghost", "Glass", "Gold", "Guide", "Heart", "Hidden", "History",
+            "House", "Island", "Journey", "Last", "Light", "Lost", "Machine", "Map", "Memory", "Midnight", "Moon",
+            "Mountain", "Night", "North", "Ocean", "Practical", "Principles", "Quiet", "River", "Road", "Salt",
+            "Science", "Secret", "Shadow", "Silent", "Silver", "Sky", "Song", "Star", "Stone", "Storm", "Summer",
+            "Systems", "Theory", "Time", "Tower", "Water", "Wild", "Wind", "Winter", "World"};
+
+    private int titles = 10000;
+    private int maxCopies = 20;
+    private double skew = 1.0;
+    private int subjects = CsvGenerator.SUBJECTS;
+    private int shelves = CsvGenerator.SUBJECTS;
+    private int readers = 1000;
+    private double loanRate = 0.5;
+    private int maxLoans = 3;
+    private long seed = 1;
+
+    public void setTitles(int titles) {
+        this.titles = positive("titles", titles);
+    }
+
+    public void setMaxCopies(int maxCopies) {
+        this.maxCopies = positive("maxCopies", maxCopies);
+    }
+
+    /**
+     * This method setSkew() sets how uneven the copies and loans are.  0 gives every title maxCopies copies and
+     * the same chance of a loan.  1 is a classic Zipf distribution.
+     * @param skew the Zipf exponent (0 or more)
+     */
+    public void setSkew(double skew) {
+        if(skew < 0) {
+            throw new IllegalArgumentException("skew must not be negative: " + skew);
+        }
+        this.skew = skew;
+    }
+
+    public void setSubjects(int subjects) {
+        this.subjects = positive("subjects", subjects);
+    }
+
+    /**
+     * This method setShelves() sets how many subjects have a shelf (subjects 0 to shelves - 1).  Books of the
+     * other subjects stay in the stacks and can not be checked out.
+     * @param shelves the number of shelves (0 or more)
+     */
+    public void setShelves(int shelves) {
+        if(shelves < 0) {
+            throw new IllegalArgumentException("shelves must not be negative: " + shelves);
+        }
+        this.shelves = shelves;
+    }
+
+    public void setReaders(int readers) {
+        this.readers = positive("readers", readers);
+    }
+
+    /**
+     * This method setLoanRate() sets the share of readers that already have books checked out.
+     * @param loanRate the share, from 0 to 1
+     */
+    public void setLoanRate(double loanRate) {
+        if(loanRate < 0 || loanRate > 1) {
+            throw new IllegalArgumentException("loanRate must be from 0 to 1: " + loanRate);
+        }
+        this.loanRate = loanRate;
+    }
+
+    /**
+     * This method setMaxLoans() sets the most books a reader with loans has checked out.  Each of them has from 1
+     * to maxLoans books.
+     * @param maxLoans the most loans, from 1 to LENDING_LIMIT
+     */
+    public void setMaxLoans(int maxLoans) {
+        if(maxLoans < 1 || maxLoans > LENDING_LIMIT) {
+            throw new IllegalArgumentException("maxLoans must be from 1 to " + LENDING_LIMIT + ": " + maxLoans);
+        }
+        this.maxLoans = maxLoans;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getTitles() {
+        return titles;
+    }
+
+    public int getReaders() {
+        return readers;
+    }
+
+    public double getSkew() {
+        return skew;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * This method set() sets one setting by name, as given on the command line (ex. "titles=100000").
+     * @param setting the name and value separated by '='
+     */
+    public void set(String setting) {
+        int equals = setting.indexOf('=');
+        if(equals < 0) {
+            throw new IllegalArgumentException("Expected name=value: " + setting);
+        }
+        String value = setting.substring(equals + 1);
+        switch(setting.substring(0, equals)) {
+            case "titles":
+                setTitles(Integer.parseInt(value));
+                break;
+            case "maxCopies":
+                setMaxCopies(Integer.parseInt(value));
+                break;
+            case "skew":
+                setSkew(Double.parseDouble(value));
+                break;
+            case "subjects":
+                setSubjects(Integer.parseInt(value));
+                break;
+            case "shelves":
+                setShelves(Integer.parseInt(value));
+                break;
+            case "readers":
+                setReaders(Integer.parseInt(value));
+                break;
+            case "loanRate":
+                setLoanRate(Double.parseDouble(value));
+                break;
+            case "maxLoans":
+                setMaxLoans(Integer.parseInt(value));
+                break;
+            case "seed":
+                setSeed(Long.parseLong(value));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown setting: " + setting);
+        }
+    }
+
+    /**
+     * This method copies() returns the number of copies of a title.
+     * @param title the title's popularity rank (0 is the most popular)
+     * @return the number of copies, from 1 to maxCopies
+     */
+    public int copies(int title) {
+        return 1 + (int) ((maxCopies - 1) / Math.pow(title + 1, skew));
+    }
+
+    public static String subject(int title, int subjects) {
+        return CsvGenerator.subject(title % subjects);
+    }
+
+    /**
+     * This method title() makes a title of two to four words for a title number.  Titles share words, so a word
+     * search finds many books, and may repeat.
+     */
+    public static String title(int title) {
+        SplittableRandom random = new SplittableRandom(title);
+        StringBuilder text = new StringBuilder();
+        int wordCount = 2 + random.nextInt(3);
+        for(int i = 0; i < wordCount; i++) {
+            if(i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * This method popularity() returns the running total of the share 1 / (i + 1)^skew of each title, scaled so
+     * the last total is 1.
+     */
+    static double[] popularity(int titles, double skew) {
+        double[] totals = new double[titles];
+        double total = 0;
+        for(int i = 0; i < titles; i++) {
+            total += 1 / Math.pow(i + 1, skew);
+            totals[i] = total;
+        }
+        for(int i = 0; i < titles; i++) {
+            totals[i] /= total;
+        }
+        return totals;
+    }
+
+    /**
+     * This method pick() picks a title with the Zipf skew, so title 0 is picked most often.
+     * @param popularity the running totals from popularity()
+     * @param random the random numbers to use
+     * @return the title's popularity rank
+     */
+    static int pick(double[] popularity, SplittableRandom random) {
+        int index = Arrays.binarySearch(popularity, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, popularity.length - 1);
+    }
+
+    /**
+     * This method write() writes the library file.  The copies are written in a shuffled order, the way a real
+     * catalog export lists them.  Loans only use titles that have a shelf and a copy left on it.
+     * @param file the file to write
+     * @return the number of loans written
+     * @throws IOException if the file cannot be written
+     */
+    public int write(Path file) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] popularity = popularity(titles, skew);
+        int[] shelved = new int[titles];    // Copies of each title left on its shelf
+        long copyCount = 0;
+        for(int i = 0; i < titles; i++) {
+            shelved[i] = copies(i);
+            copyCount += shelved[i];
+        }
+        if(copyCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many copies: " + copyCount);
+        }
+        int[] copyLines = new int[(int) copyCount];
+        for(int i = 0, line = 0; i < titles; i++) {
+            for(int copy = 0; copy < shelved[i]; copy++) {
+                copyLines[line++] = i;
+            }
+        }
+        for(int i = copyLines.length - 1; i > 0; i--) {
+            int swap = random.nextInt(i + 1);
+            int title = copyLines[swap];
+            copyLines[swap] = copyLines[i];
+            copyLines[i] = title;
+        }
+
+        int loanCount = 0;
+        try(BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(copyLines.length + "\n");
+            for(int title : copyLines) {
+                out.write(CsvGenerator.isbn(title) + "," + title(title) + "," + subject(title, subjects) + ","
+                        + CsvGenerator.pageCount(title) + "," + CsvGenerator.author(title) + ",0000\n");
+            }
+
+            out.write(shelves + "\n");
+            for(int i = 0; i < shelves; i++) {
+                out.write((i + 1) + "," + CsvGenerator.subject(i) + "\n");
+            }
+
+            out.write(readers + "\n");
+            int[] loans = new int[maxLoans];
+            for(int i = 0; i < readers; i++) {
+                int wanted = random.nextDouble() < loanRate ? 1 + random.nextInt(maxLoans) : 0;
+                int loanTotal = 0;
+                for(int attempt = 0; loanTotal < wanted && attempt < wanted * 4; attempt++) {
+                    int title = pick(popularity, random);
+                    if(title % subjects < shelves && shelved[title] > 0 && !contains(loans, loanTotal, title)) {
+                        shelved[title]--;
+                        loans[loanTotal++] = title;
+                    }
+                }
+
+                out.write((i + 1) + "," + CsvGenerator.name(i) + "," + CsvGenerator.phone(i));
+                if(loanTotal > 0) {
+                    out.write("," + loanTotal);
+                    for(int loan = 0; loan < loanTotal; loan++) {
+                        out.write("," + CsvGenerator.isbn(loans[loan]) + ","
+                                + START_DATE.plusDays(random.nextInt(-14, 22)));
+                    }
+                }
+                out.write("\n");
+                loanCount += loanTotal;
+            }
+        }
+        return loanCount;
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for(int i = 0; i < size; i++) {
+            if(values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int positive(String setting, int value) {
+        if(value < 1) {
+            throw new IllegalArgumentException(setting + " must be at least 1: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * This main() method writes a library file.
+     *      java bench.LibraryGenerator [file] [name=value ...]
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length == 0) {
+            System.out.println("Usage: java bench.LibraryGenerator [file] [name=value ...]");
+            return;
+        }
+        LibraryGenerator generator = new LibraryGenerator();
+        for(int i = 1; i < args.length; i++) {
+            generator.set(args[i]);
+        }
+        long start = System.nanoTime();
+        int loanCount = generator.write(Paths.get(args[0]));
+        System.out.printf("Wrote %s: %d titles, %d readers, %d loans in %.1f s%n", args[0], generator.titles,
+                generator.readers, loanCount, (System.nanoTime() - start) / 1e9);
+    }
+}
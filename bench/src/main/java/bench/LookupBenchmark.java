@@ -0,0 +1,75 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * title: LookupBenchmark.java
+ * abstract: This class LookupBenchmark measures getBookByISBN(), getReaderByCard(), and getShelf(Integer) on a
+ * library with catalogSize books, catalogSize / 10 readers, and shelves shelves.  The keys are made before the
+ * benchmark runs so only the lookup is measured.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LookupBenchmark {
+    private static final int KEYS = 1024;  // Keys cycled through by each benchmark (a power of 2)
+
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"100", "10000"})
+    public int shelves;
+
+    private LibraryDriver driver;
+    private final String[] isbns = new String[KEYS];
+    private final int[] cardNumbers = new int[KEYS];
+    private final int[] shelfNumbers = new int[KEYS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        int readerCount = Math.max(catalogSize / 10, 1);
+        driver = LibraryDriver.create();
+        driver.fill(catalogSize, 1, readerCount, shelves, true);
+
+        for(int i = 0; i < KEYS; i++) {
+            int key = (int) ((i * 2654435761L) & Integer.MAX_VALUE);
+            isbns[i] = CsvGenerator.isbn(key % catalogSize);
+            cardNumbers[i] = key % readerCount + 1;
+            shelfNumbers[i] = key % shelves + 1;
+        }
+    }
+
+    @Benchmark
+    public Object getBookByISBN() {
+        return driver.getBookByISBN(isbns[next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Object getReaderByCard() {
+        return driver.getReaderByCard(cardNumbers[next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Object getShelf() {
+        return driver.getShelf(shelfNumbers[next++ & (KEYS - 1)]);
+    }
+}
@@ -0,0 +1,159 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * title: AsyncBatchingSink.java
+ * abstract: This class AsyncBatchingSink displays messages from a background thread.  publish() only puts the
+ * message in a queue, and the writer thread takes every queued message at once and prints them with one write.
+ * The library's threads do not wait on console output unless the queue is full.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: close() (or flush()) must be called before the program ends, or queued messages may not be displayed.
+ *       Once closed, the writer thread has stopped and whatever is left in the queue is displayed by the
+ *       closing thread, or by a publish() or flush() that queued its entry while the sink was being closed.
+ */
+
+public class AsyncBatchingSink implements EventSink {
+    private static final int MAX_BATCH = 1024;  // Most messages printed by one write
+
+    private final PrintStream out;
+    private final LogLevel level;  // Least important level displayed
+    private final BlockingQueue<Object> queue;  // Messages (String) and flush requests (CountDownLatch)
+    private final Thread writer;
+    private volatile boolean closed;
+
+    public AsyncBatchingSink(LogLevel level, int capacity) {
+        this(System.out, level, capacity);
+    }
+
+    public AsyncBatchingSink(PrintStream out, LogLevel level, int capacity) {
+        this.out = out;
+        this.level = level;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::writeBatches, "library-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return this.level.includes(level);
+    }
+
+    @Override
+    public void publish(LogLevel level, String message) {
+        if(!isEnabled(level)) {
+            return;
+        }
+        if(closed) {
+            drainQueue();  // Messages queued before the sink closed are displayed first
+            out.println(message);
+            return;
+        }
+        try {
+            queue.put(message);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            out.println(message);
+            return;
+        }
+        if(closed) {
+            drainQueue();  // The writer may have stopped before it took the message
+        }
+    }
+
+    @Override
+    public void flush() {
+        if(closed) {
+            drainQueue();
+            return;
+        }
+        CountDownLatch flushed = new CountDownLatch(1);
+        try {
+            queue.put(flushed);
+            if(closed) {
+                drainQueue();  // The writer may have stopped before it took the flush request
+            }
+            flushed.await();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method close() stops the writer thread and then displays the messages still in the queue and releases
+     * the flush requests waiting in it.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        writer.interrupt();
+        drainQueue();
+    }
+
+    /**
+     * This method drainQueue() waits for the writer thread to stop, then displays everything left in the queue in
+     * order and releases the flush requests.  It is only called once closed is set, so nothing else takes from
+     * the queue.
+     */
+    private synchronized void drainQueue() {
+        boolean interrupted = false;
+        while(writer.isAlive()) {
+            try {
+                writer.join();
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        List<Object> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        for(Object entry : batch) {
+            if(entry instanceof String) {
+                out.println((String) entry);
+            } else {
+                out.flush();
+                ((CountDownLatch) entry).countDown();
+            }
+        }
+        out.flush();
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBatches() {
+        List<Object> batch = new ArrayList<>(MAX_BATCH);
+        StringBuilder text = new StringBuilder();
+
+        while(!closed) {
+            try {
+                batch.add(queue.take());
+            } catch(InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+
+            for(Object entry : batch) {
+                if(entry instanceof String) {
+                    text.append((String) entry).append(System.lineSeparator());
+                } else {
+                    // Everything queued before the flush request is written before it is released.
+                    out.print(text);
+                    out.flush();
+                    text.setLength(0);
+                    ((CountDownLatch) entry).countDown();
+                }
+            }
+            out.print(text);
+            out.flush();
+            text.setLength(0);
+            batch.clear();
+        }
+    }
+}
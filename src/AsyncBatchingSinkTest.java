@@ -0,0 +1,61 @@
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: AsyncBatchingSinkTest.java
+ * abstract: This class AsyncBatchingSinkTest() is a jUnit test for AsyncBatchingSink.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class AsyncBatchingSinkTest {
+    private static final int THREADS = 4;
+    private static final int MESSAGES = 2000;
+
+    @Test
+    void closeWhilePublishing() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        AsyncBatchingSink sink = new AsyncBatchingSink(out, LogLevel.INFO, 4);  // Small queue, so publishers wait
+
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            Thread[] publishers = new Thread[THREADS];
+            for(int t = 0; t < THREADS; t++) {
+                int thread = t;
+                publishers[t] = new Thread(() -> {
+                    for(int i = 0; i < MESSAGES; i++) {
+                        sink.publish(LogLevel.INFO, thread + ":" + i);
+                        if(i % 100 == 0) {
+                            sink.flush();
+                        }
+                    }
+                });
+                publishers[t].start();
+            }
+            Thread.sleep(5);
+            sink.close();
+            for(Thread publisher : publishers) {
+                publisher.join();
+            }
+            sink.flush();
+        });
+
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        Set<String> unique = new HashSet<>(Arrays.asList(lines));
+        assertEquals(THREADS * MESSAGES, lines.length);
+        assertEquals(THREADS * MESSAGES, unique.size());
+        int[] next = new int[THREADS];
+        for(String line : lines) {
+            String[] fields = line.split(":");
+            int thread = Integer.parseInt(fields[0]);
+            assertEquals(next[thread]++, Integer.parseInt(fields[1]));  // Each thread's messages stay in order
+        }
+    }
+}
@@ -1,5 +1,4 @@
 import java.time.LocalDate;
-import java.util.Objects;
 
 /**
  * title: Book.java
@@ -23,61 +22,71 @@ public class Book {
     public static final int AUTHOR_ = 4;
     public static final int DUE_DATE_ = 5;
 
-    // Variable Fields: used for each Book object
-    private String isbn;
-    private String title;
-    private String subject;
-    private int pageCount;
-    private String author;
+    // Variable Fields: used for each Book object.  The key says which book this is and the due date belongs to
+    // this copy.  Setting a key field replaces the key, so a key already used in a HashMap never changes.
+    private CatalogKey key;
     private LocalDate dueDate;
 
     public Book(String isbn, String title, String subject, int pageCount, String author, LocalDate dueDate) {
-        this.isbn = isbn;
-        this.title = title;
-        this.subject = subject;
-        this.pageCount = pageCount;
-        this.author = author;
+        this(new CatalogKey(isbn, title, subject, pageCount, author), dueDate);
+    }
+
+    /**
+     * This constructor creates another copy of a book that shares the book's CatalogKey.
+     * @param key the book this is a copy of
+     * @param dueDate the due date of this copy or null
+     */
+    public Book(CatalogKey key, LocalDate dueDate) {
+        this.key = key;
         this.dueDate = dueDate;
     }
 
+    /**
+     * This method getKey() returns the CatalogKey that Library and Shelf use to count copies of this book.
+     * @return the key
+     */
+    public CatalogKey getKey() {
+        return key;
+    }
+
     public String getIsbn() {
-        return isbn;
+        return key.getIsbn();
     }
 
     public void setIsbn(String isbn) {
-        this.isbn = isbn;
+        key = new CatalogKey(isbn, key.getTitle(), key.getSubject(), key.getPageCount(), key.getAuthor());
     }
 
     public String getTitle() {
-        return title;
+        return key.getTitle();
     }
 
     public void setTitle(String title) {
-        this.title = title;
+        key = new CatalogKey(key.getIsbn(), title, key.getSubject(), key.getPageCount(), key.getAuthor());
     }
 
     public String getSubject() {
-        return subject;
+        return key.getSubject();
     }
 
     public void setSubject(String subject) {
-        this.subject = subject;
+        key = new CatalogKey(key.getIsbn(), key.getTitle(), subject, key.getPageCount(), key.getAuthor());
     }
 
     public int getPageCount() {
-        return pageCount;
+        return key.getPageCount();
     }
 
     public void setPageCount(int pageCount) {
-        this.pageCount = pageCount;
+        key = new CatalogKey(key.getIsbn(), key.getTitle(), key.getSubject(), pageCount, key.getAuthor());
     }
 
     public String getAuthor() {
-        return author;
+        return key.getAuthor();
     }
 
     public void setAuthor(String author) {
-        this.author = author;
+        key = new CatalogKey(key.getIsbn(), key.getTitle(), key.getSubject(), key.getPageCount(), author);
     }
 
     public LocalDate getDueDate() {
@@ -90,22 +99,21 @@ public class Book {
 
     @Override
     /**
-     * This equals() method compares everything except the dueDate.
+     * This equals() method compares everything except the dueDate (the CatalogKeys).
      */
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Book book = (Book) o;
-        return pageCount == book.pageCount && isbn.equals(book.isbn) && title.equals(book.title)
-                         && subject.equals(book.subject) && author.equals(book.author);
+        return key.equals(book.key);
     }
 
     @Override
     /**
-     * This hashCode() methodwill compare everything except the dueDate.
+     * This hashCode() method returns the hash code the CatalogKey computed when it was created.
      */
     public int hashCode() {
-        return Objects.hash(isbn, title, subject, pageCount, author);
+        return key.hashCode();
     }
 
     @Override
@@ -114,6 +122,6 @@ public class Book {
      *      [title] by [author] ISBN: [isbn]
      */
     public String toString() {
-        return title + " by " + author + " ISBN: " + isbn;
+        return key.toString();
     }
 }
@@ -0,0 +1,148 @@
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * title: BookChunkTask.java
+ * abstract: This class BookChunkTask parses the book lines of a library .csv file on a ForkJoinPool.  The lines are
+ * split into chunks of CHUNK_SIZE lines.  Each chunk is parsed on its own and counts its valid books in a
+ * Book to copy count table, which Library.initBooksParallel() then merges in file order.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: Nothing is displayed by the workers.  A line that would display a warning (bad page count or due date)
+ *       is flagged instead, and Library parses it again one line at a time in file order.  That keeps the
+ *       warnings and discarded entries the same as initBooks() no matter how the chunks were scheduled.
+ */
+
+public class BookChunkTask extends RecursiveTask<List<BookChunkTask.Chunk>> {
+    public static final int CHUNK_SIZE = 4096;  // Number of book lines parsed by one task
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> entries;
+    private final int start;
+    private final int end;
+
+    public BookChunkTask(List<String> entries, int start, int end) {
+        this.entries = entries;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * This class Chunk holds the parsed books of one chunk.  runs.get(i) holds the valid books counted before
+     * flaggedLines.get(i), and the last run holds the books after the last flagged line.  If stopLine is not -1,
+     * that line does not have 6 fields and nothing after it was parsed.
+     */
+    public static class Chunk {
+        private final List<LinkedHashMap<Book, Integer>> runs = new ArrayList<>();
+        private final List<Integer> flaggedLines = new ArrayList<>();
+        private int stopLine = -1;
+
+        public List<LinkedHashMap<Book, Integer>> getRuns() {
+            return runs;
+        }
+
+        public List<Integer> getFlaggedLines() {
+            return flaggedLines;
+        }
+
+        public int getStopLine() {
+            return stopLine;
+        }
+    }
+
+    @Override
+    protected List<Chunk> compute() {
+        if(end - start <= CHUNK_SIZE) {
+            List<Chunk> chunks = new ArrayList<>(1);
+            chunks.add(parseChunk());
+            return chunks;
+        }
+
+        // Split on a chunk boundary so the chunks are the same no matter how the work is divided.
+        int middle = start + Math.max((end - start) / CHUNK_SIZE / 2, 1) * CHUNK_SIZE;
+        BookChunkTask left = new BookChunkTask(entries, start, middle);
+        BookChunkTask right = new BookChunkTask(entries, middle, end);
+        left.fork();
+        List<Chunk> chunks = right.compute();
+        List<Chunk> leftChunks = left.join();
+        leftChunks.addAll(chunks);
+        return leftChunks;
+    }
+
+    private Chunk parseChunk() {
+        Chunk chunk = new Chunk();
+        FieldTokenizer bookFields = new FieldTokenizer();
+        LinkedHashMap<Book, Integer> run = new LinkedHashMap<>();
+        chunk.runs.add(run);
+
+        for(int line = start; line < end; line++) {
+            bookFields.reset(entries.get(line));
+
+            // There must be 6 fields to create a valid book.
+            if(bookFields.size() != 6) {
+                chunk.stopLine = line;
+                break;
+            }
+
+            int pageCount = parsePageCount(bookFields.get(Book.PAGE_COUNT_));
+            LocalDate dueDate = parseDueDate(bookFields.get(Book.DUE_DATE_));
+            if(pageCount < 0 || dueDate == null) {
+                chunk.flaggedLines.add(line);
+                run = new LinkedHashMap<>();
+                chunk.runs.add(run);
+                continue;
+            }
+
+            Book newBook = new Book(bookFields.get(Book.ISBN_), bookFields.get(Book.TITLE_),
+                    bookFields.get(Book.SUBJECT_), pageCount, bookFields.get(Book.AUTHOR_), dueDate);
+            run.merge(newBook, 1, Integer::sum);
+        }
+        return chunk;
+    }
+
+    /**
+     * This method parsePageCount() converts the page count like Library.convertInt() without displaying anything.
+     * @param pageCount the page count field
+     * @return the page count, or -1 if it is not a valid page count.
+     */
+    private static int parsePageCount(String pageCount) {
+        try {
+            return Integer.parseInt(pageCount);
+        } catch(NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * This method parseDueDate() converts the due date like Library.convertDate() without displaying anything.
+     * @param date the due date field in YYYY-MM-DD or 0000 format
+     * @return the due date, or null if Library.convertDate() would display a warning for it.
+     */
+    private static LocalDate parseDueDate(String date) {
+        if(date.equals("0000")) {
+            return Library.convertDate(date, Code.DATE_CONVERSION_ERROR);
+        }
+
+        String[] dateFields = date.split("-");
+        if(dateFields.length != 3) {
+            return null;
+        }
+
+        try {
+            int year = Integer.parseInt(dateFields[0].trim());
+            int month = Integer.parseInt(dateFields[1].trim());
+            int day = Integer.parseInt(dateFields[2].trim());
+            if(year < 0 || month < 0 || day < 0) {
+                return null;
+            }
+            return LocalDate.of(year, month, day);
+        } catch(NumberFormatException | DateTimeException e) {
+            return null;
+        }
+    }
+}
@@ -111,6 +111,18 @@ class BookTest {
         assertEquals(testBook,newBook);
     }
 
+    @Test
+    void getKey() {
+        Book newBook = new Book(ISBN, TITLE, SUBJECT, PAGE_COUNT, AUTHOR, null);
+        CatalogKey key = newBook.getKey();
+        assertEquals(testBook.getKey(), key);
+        assertEquals(testBook.hashCode(), key.hashCode());
+
+        newBook.setSubject("sci-fi");  // a key already in a HashMap is not changed
+        assertEquals(SUBJECT, key.getSubject());
+        assertNotEquals(key, newBook.getKey());
+    }
+
     @Test
     void testToString() {
         assertEquals(testBook.toString(),OUTPUT_STRING);
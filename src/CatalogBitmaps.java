@@ -0,0 +1,303 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * title: CatalogBitmaps.java
+ * abstract: This class CatalogBitmaps answers staff report filters (subject, author, page count range, and if a
+ * copy is on the shelf) without walking every book.  Each book gets a number, and each subject, author, and page
+ * count has a BookSet of its books.  Page counts are kept in a TreeMap so a range is one sorted slice, and one
+ * bitmap has a bit set for each book with a copy on its shelf.  A filter with several conditions is the
+ * intersection (and) of their sets.
+ *
+ * A BookSet is compressed the way roaring bitmaps compress a chunk: a set with few books for the numbers it spans
+ * (ex. an author with a handful of titles) is a sorted int array, and only a dense set (ex. a subject) is a bitmap.
+ * A set switches to a bitmap once the array would be larger, and back once the bitmap would be more than twice as
+ * large, so the sets of one index (subjects or authors) use at most about 8 bytes per book, however many authors
+ * there are.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: Books are only added, while the Library holds the catalog write lock, and filters run while it holds the
+ *       catalog read lock.  Checkouts and returns flip the availability bitmap while holding only the read lock,
+ *       so that bitmap has a lock of its own.
+ */
+
+public class CatalogBitmaps {
+    private final ArrayList<Book> books = new ArrayList<>();                 // Book of each book number
+    private final HashMap<CatalogKey, Integer> numbers = new HashMap<>();    // Book key with its book number
+    private final HashMap<String, BookSet> subjects = new HashMap<>();       // Subject key with its books
+    private final HashMap<String, BookSet> authors = new HashMap<>();        // Author key with their books
+    private final TreeMap<Integer, BookSet> pageCounts = new TreeMap<>();    // Page count key with its books
+    private final BitSet available = new BitSet();                          // Books with a copy on the shelf
+    private final ReentrantLock availableLock = new ReentrantLock();
+
+    /**
+     * This class BookSet is a set of book numbers that are added in increasing order.  It is a sorted int array
+     * while that is smaller than a bitmap of the numbers it spans, and a BitSet when it is not.
+     */
+    static final class BookSet {
+        private static final int MIN_BITMAP_SIZE = 64;  // Smaller sets stay arrays
+
+        private int[] numbers = new int[2];     // The numbers in order, or null while bits is used
+        private BitSet bits;                    // The numbers as a bitmap, or null while numbers is used
+        private int size;
+
+        /**
+         * This method add() adds a book number larger than any in the set.
+         * @param number the book number
+         */
+        void add(int number) {
+            if(bits != null && number >= (size + 1L) * 2 * Integer.SIZE) {
+                numbers = toArray(bits, size);  // The bitmap would be more than twice the size of an array
+                bits = null;
+            }
+
+            if(bits != null) {
+                bits.set(number);
+                size++;
+                return;
+            }
+            if(size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+            }
+            numbers[size++] = number;
+            if(size >= MIN_BITMAP_SIZE && (long) size * Integer.SIZE > number) {
+                bits = toBitSet();  // The array is larger than a bitmap
+                numbers = null;
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isBitmap() {
+            return bits != null;
+        }
+
+        /**
+         * This method toBitSet() returns the numbers as a new BitSet the caller can change.
+         */
+        BitSet toBitSet() {
+            if(bits != null) {
+                return (BitSet) bits.clone();
+            }
+            BitSet bitmap = new BitSet(size == 0 ? 0 : numbers[size - 1] + 1);
+            orInto(bitmap);
+            return bitmap;
+        }
+
+        /**
+         * This method orInto() sets the bit of each number in the set.
+         * @param bitmap the bitmap to change
+         */
+        void orInto(BitSet bitmap) {
+            if(bits != null) {
+                bitmap.or(bits);
+                return;
+            }
+            for(int i = 0; i < size; i++) {
+                bitmap.set(numbers[i]);
+            }
+        }
+
+        /**
+         * This method andInto() clears the bits of the numbers that are not in the set.  An array set only looks at
+         * its own numbers, so a few numbers against a large bitmap is quick.
+         * @param bitmap the bitmap to change
+         */
+        void andInto(BitSet bitmap) {
+            if(bits != null) {
+                bitmap.and(bits);
+                return;
+            }
+            BitSet kept = new BitSet();
+            for(int i = 0; i < size; i++) {
+                if(bitmap.get(numbers[i])) {
+                    kept.set(numbers[i]);
+                }
+            }
+            bitmap.and(kept);
+        }
+
+        private static int[] toArray(BitSet bits, int size) {
+            int[] numbers = new int[Math.max(2, size * 2)];
+            int i = 0;
+            for(int number = bits.nextSetBit(0); number >= 0; number = bits.nextSetBit(number + 1)) {
+                numbers[i++] = number;
+            }
+            return numbers;
+        }
+    }
+
+    /**
+     * This method add() indexes the subject, author, and page count of a book.  The book is not available until
+     * setAvailable() is called for it.
+     * @param book the book to be found by find()
+     */
+    public void add(Book book) {
+        if(numbers.containsKey(book.getKey())) {
+            return;
+        }
+        int number = books.size();
+        books.add(book);
+        numbers.put(book.getKey(), number);
+        subjects.computeIfAbsent(book.getSubject(), subject -> new BookSet()).add(number);
+        authors.computeIfAbsent(book.getAuthor(), author -> new BookSet()).add(number);
+        pageCounts.computeIfAbsent(book.getPageCount(), pages -> new BookSet()).add(number);
+    }
+
+    /**
+     * This method setAvailable() records if a book has a copy on its shelf.  It is called each time the book's
+     * shelf count changes (see Shelf.setCountListener), so it may be called by many threads at once.
+     * @param key the book
+     * @param shelfCount the number of copies on the shelf
+     */
+    public void setAvailable(CatalogKey key, int shelfCount) {
+        Integer number = numbers.get(key);
+        if(number == null) {
+            return;  // Not indexed yet.  add() is followed by setAvailable() for books already on a shelf.
+        }
+        availableLock.lock();
+        try {
+            available.set(number, shelfCount > 0);
+        } finally {
+            availableLock.unlock();
+        }
+    }
+
+    /**
+     * This method find() lists the books that match every condition given, in the order they were added.
+     * @param subject the subject of the books, or null for any subject
+     * @param author the author of the books, or null for any author
+     * @param minPages the fewest pages (inclusive)
+     * @param maxPages the most pages (inclusive)
+     * @param availableOnly True to keep only books with a copy on the shelf
+     * @return the matching books
+     */
+    public List<Book> find(String subject, String author, int minPages, int maxPages, boolean availableOnly) {
+        BitSet matches = select(subject, author, minPages, maxPages, availableOnly);
+        List<Book> found = new ArrayList<>(matches.cardinality());
+        for(int number = matches.nextSetBit(0); number >= 0; number = matches.nextSetBit(number + 1)) {
+            found.add(books.get(number));
+        }
+        return found;
+    }
+
+    /**
+     * This method count() counts the books that match every condition given, like find() without the list.
+     * @return the number of matching books
+     */
+    public int count(String subject, String author, int minPages, int maxPages, boolean availableOnly) {
+        return select(subject, author, minPages, maxPages, availableOnly).cardinality();
+    }
+
+    public int size() {
+        return books.size();
+    }
+
+    public void clear() {
+        books.clear();
+        numbers.clear();
+        subjects.clear();
+        authors.clear();
+        pageCounts.clear();
+        availableLock.lock();
+        try {
+            available.clear();
+        } finally {
+            availableLock.unlock();
+        }
+    }
+
+    /**
+     * This method select() builds the bitmap of the books that match every condition given.  The subject and
+     * author bitmaps are intersected first.  A page count range then either checks the few books left or, with
+     * no other condition, sets the bits of the books in the range.
+     */
+    private BitSet select(String subject, String author, int minPages, int maxPages, boolean availableOnly) {
+        BitSet matches = null;
+        if(subject != null) {
+            matches = copy(subjects.get(subject));
+        }
+        if(author != null) {
+            matches = intersect(matches, authors.get(author));
+        }
+
+        if(minPages > maxPages) {
+            return new BitSet();
+        }
+        boolean allPages = pageCounts.isEmpty() || (minPages <= pageCounts.firstKey()
+                && maxPages >= pageCounts.lastKey());
+        if(!allPages) {
+            if(matches != null) {
+                for(int number = matches.nextSetBit(0); number >= 0; number = matches.nextSetBit(number + 1)) {
+                    int pages = books.get(number).getPageCount();
+                    if(pages < minPages || pages > maxPages) {
+                        matches.clear(number);
+                    }
+                }
+            } else {
+                matches = new BitSet(books.size());
+                for(BookSet pageNumbers : pageCounts.subMap(minPages, true, maxPages, true).values()) {
+                    pageNumbers.orInto(matches);
+                }
+            }
+        }
+
+        if(availableOnly) {
+            availableLock.lock();
+            try {
+                matches = intersect(matches, available);
+            } finally {
+                availableLock.unlock();
+            }
+        }
+        if(matches == null) {
+            matches = new BitSet(books.size());
+            matches.set(0, books.size());
+        }
+        return matches;
+    }
+
+    private static BitSet copy(BookSet set) {
+        return set == null ? new BitSet() : set.toBitSet();
+    }
+
+    /**
+     * This method intersect() ands a set into the matches so far.
+     * @param matches the matches so far, or null if there are no conditions yet
+     * @param set the books of the next condition, or null if no book meets it
+     * @return the matches that also meet the next condition
+     */
+    private static BitSet intersect(BitSet matches, BookSet set) {
+        if(matches == null) {
+            return copy(set);
+        }
+        if(set == null) {
+            matches.clear();
+        } else {
+            set.andInto(matches);
+        }
+        return matches;
+    }
+
+    /**
+     * This method intersect() ands the availability bitmap into the matches so far.
+     * @param matches the matches so far, or null if there are no conditions yet
+     * @param bitmap the availability bitmap
+     * @return the matches that are also available
+     */
+    private static BitSet intersect(BitSet matches, BitSet bitmap) {
+        if(matches == null) {
+            return (BitSet) bitmap.clone();
+        }
+        matches.and(bitmap);
+        return matches;
+    }
+}
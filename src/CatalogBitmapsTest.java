@@ -0,0 +1,126 @@
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: CatalogBitmapsTest.java
+ * abstract: This class CatalogBitmapsTest() is a jUnit test for CatalogBitmaps.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class CatalogBitmapsTest {
+    Book testBook = new Book("1337", "Headfirst Java", "education", 1337, "Grady Booch", null);
+    Book javaBook = new Book("42", "Java Concurrency in Practice", "education", 384, "Brian Goetz", null);
+    Book failBook = new Book("34-w-34", "Dune", "sci-fi", 235, "Frank Herbert", null);
+    Book messiahBook = new Book("35", "Dune Messiah", "sci-fi", 256, "Frank Herbert", null);
+
+    @Test
+    void find() {
+        CatalogBitmaps bitmaps = new CatalogBitmaps();
+        bitmaps.add(testBook);
+        bitmaps.add(javaBook);
+        bitmaps.add(failBook);
+        bitmaps.add(messiahBook);
+        bitmaps.setAvailable(javaBook.getKey(), 2);
+        bitmaps.setAvailable(messiahBook.getKey(), 1);
+
+        assertEquals(List.of(testBook, javaBook), bitmaps.find("education", null, 0, Integer.MAX_VALUE, false));
+        assertEquals(List.of(failBook, messiahBook), bitmaps.find(null, "Frank Herbert", 0, 300, false));
+        assertEquals(List.of(failBook, messiahBook),
+                bitmaps.find(null, null, 200, 300, false));
+        assertEquals(List.of(messiahBook), bitmaps.find("sci-fi", "Frank Herbert", 250, 260, true));
+        assertEquals(List.of(javaBook, messiahBook), bitmaps.find(null, null, 0, Integer.MAX_VALUE, true));
+        assertEquals(4, bitmaps.count(null, null, 0, Integer.MAX_VALUE, false));
+        assertEquals(0, bitmaps.count("cooking", null, 0, Integer.MAX_VALUE, false));
+
+        bitmaps.setAvailable(messiahBook.getKey(), 0);  // the last copy was checked out
+        assertTrue(bitmaps.find("sci-fi", null, 0, Integer.MAX_VALUE, true).isEmpty());
+    }
+
+    @Test
+    void bookSetCompression() {
+        CatalogBitmaps.BookSet sparse = new CatalogBitmaps.BookSet();
+        CatalogBitmaps.BookSet dense = new CatalogBitmaps.BookSet();
+        for(int number = 0; number < 100000; number++) {
+            if(number % 1000 == 7) {
+                sparse.add(number);
+            }
+            if(number < 20000 || number % 3 == 0) {
+                dense.add(number);
+            }
+        }
+        assertFalse(sparse.isBitmap());  // 100 numbers are smaller as an array than as a bitmap
+        assertTrue(dense.isBitmap());
+        assertEquals(100, sparse.size());
+
+        BitSet matches = dense.toBitSet();
+        sparse.andInto(matches);
+        BitSet expected = new BitSet();
+        for(int number = 7; number < 100000; number += 1000) {
+            if(number < 20000 || number % 3 == 0) {
+                expected.set(number);
+            }
+        }
+        assertEquals(expected, matches);
+        matches = sparse.toBitSet();
+        dense.andInto(matches);
+        assertEquals(expected, matches);
+
+        CatalogBitmaps.BookSet thinning = new CatalogBitmaps.BookSet();
+        for(int number = 0; number < 100; number++) {
+            thinning.add(number);
+        }
+        assertTrue(thinning.isBitmap());
+        thinning.add(1000000);
+        assertFalse(thinning.isBitmap());  // a bitmap that far out would be too large for 101 numbers
+        assertEquals(101, thinning.toBitSet().cardinality());
+        assertTrue(thinning.toBitSet().get(1000000));
+    }
+
+    @Test
+    void findMatchesAScan() {
+        CatalogBitmaps bitmaps = new CatalogBitmaps();
+        List<Book> books = new ArrayList<>();
+        for(int i = 0; i < 5000; i++) {
+            Book book = new Book("isbn" + i, "Book " + i, i % 4 == 0 ? "education" : "sci-fi", 100 + i % 300,
+                    "Author " + (i % 997), null);
+            books.add(book);
+            bitmaps.add(book);
+            bitmaps.setAvailable(book.getKey(), i % 5);
+        }
+
+        for(String author : new String[] {null, "Author 3", "Author 996"}) {
+            List<Book> expected = new ArrayList<>();
+            for(int i = 0; i < books.size(); i++) {
+                Book book = books.get(i);
+                if(book.getSubject().equals("education") && (author == null || book.getAuthor().equals(author))
+                        && book.getPageCount() >= 150 && book.getPageCount() <= 250 && i % 5 > 0) {
+                    expected.add(book);
+                }
+            }
+            assertEquals(expected, bitmaps.find("education", author, 150, 250, true));
+        }
+    }
+
+    @Test
+    void libraryAvailability() {
+        Library library = new Library("Bitmap Library");
+        Reader reader = new Reader(1, "Drew Clinkenbeard", "831-582-4007");
+        library.addBook(failBook);
+        Shelf shelf = new Shelf();
+        shelf.setShelfNumber(1);
+        shelf.setSubject("sci-fi");
+        library.addShelf(shelf);
+        library.addReader(reader);
+        assertEquals(List.of(failBook), library.findBooks("sci-fi", null, 0, Integer.MAX_VALUE, true));
+
+        assertEquals(Code.SUCCESS, library.checkOutBook(reader, failBook));
+        assertEquals(0, library.countBooks("sci-fi", null, 0, Integer.MAX_VALUE, true));
+        assertEquals(1, library.countBooks("sci-fi", null, 0, Integer.MAX_VALUE, false));
+        assertEquals(Code.SUCCESS, library.returnBook(reader, failBook));
+        assertEquals(1, library.countBooks("sci-fi", null, 0, Integer.MAX_VALUE, true));
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * title: CatalogKey.java
+ * abstract: This class CatalogKey is the part of a Book that says which book it is (isbn, title, subject,
+ * pageCount, and author).  It can not be changed, so it is safe to use as a HashMap key, and its hash code is
+ * computed once when it is created.  Library and Shelf count copies by CatalogKey, while each Book keeps the
+ * state of one copy (its due date).
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: Subjects and authors repeat across many books, so they are interned.  That lets equals() compare them
+ *       with == and keeps one String for each subject and author.  The hash code is the same value
+ *       Objects.hash(isbn, title, subject, pageCount, author) gives, so books are listed in the same order.
+ */
+
+public final class CatalogKey {
+    private final String isbn;
+    private final String title;
+    private final String subject;
+    private final int pageCount;
+    private final String author;
+    private final int hash;
+
+    public CatalogKey(String isbn, String title, String subject, int pageCount, String author) {
+        this.isbn = isbn;
+        this.title = title;
+        this.subject = subject == null ? null : subject.intern();
+        this.pageCount = pageCount;
+        this.author = author == null ? null : author.intern();
+
+        int result = 1;
+        result = 31 * result + (isbn == null ? 0 : isbn.hashCode());
+        result = 31 * result + (title == null ? 0 : title.hashCode());
+        result = 31 * result + (this.subject == null ? 0 : this.subject.hashCode());
+        result = 31 * result + pageCount;
+        result = 31 * result + (this.author == null ? 0 : this.author.hashCode());
+        this.hash = result;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    @Override
+    /**
+     * This equals() method checks the cached hash codes first, so keys that differ are usually rejected without
+     * comparing any String.
+     */
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CatalogKey key = (CatalogKey) o;
+        return hash == key.hash && pageCount == key.pageCount && subject == key.subject && author == key.author
+                && (isbn == null ? key.isbn == null : isbn.equals(key.isbn))
+                && (title == null ? key.title == null : title.equals(key.title));
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    /**
+     * This toString() method returns the same String as Book:
+     *      [title] by [author] ISBN: [isbn]
+     */
+    public String toString() {
+        return title + " by " + author + " ISBN: " + isbn;
+    }
+}
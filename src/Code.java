@@ -27,6 +27,10 @@ public enum Code {
     PAGE_COUNT_ERROR(-8,"Page count error"),
     DUE_DATE_ERROR(-10,"Due date error"),
     DATE_CONVERSION_ERROR(-101, "Date conversion Error"),
+    SNAPSHOT_ERROR(-11, "Snapshot file is damaged or not a snapshot"),
+    JOURNAL_ERROR(-12, "Journal could not be written"),
+    HOLD_EXISTS_ERROR(-13, "Reader already has a hold for this book"),
+    HOLD_NOT_FOUND_ERROR(-14, "Reader has no hold for this book"),
     NOT_IMPLEMENTED_ERROR(-99,"Not yet implemented error"),
     UNKNOWN_ERROR(-999, "Unknown Error");
 
@@ -0,0 +1,40 @@
+import java.io.PrintStream;
+
+/**
+ * title: ConsoleSink.java
+ * abstract: This class ConsoleSink displays messages right away with println().  It is used in verbose mode so the
+ * library displays the same messages it always has.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+public class ConsoleSink implements EventSink {
+    private final PrintStream out;
+    private final LogLevel level;  // Least important level displayed
+
+    public ConsoleSink(LogLevel level) {
+        this(System.out, level);
+    }
+
+    public ConsoleSink(PrintStream out, LogLevel level) {
+        this.out = out;
+        this.level = level;
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return this.level.includes(level);
+    }
+
+    @Override
+    public void publish(LogLevel level, String message) {
+        if(isEnabled(level)) {
+            out.println(message);
+        }
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+    }
+}
@@ -0,0 +1,175 @@
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * title: CopyCounter.java
+ * abstract: This class CopyCounter counts copies of each key (ex. how many copies of a Book are on a Shelf).  Each
+ * key has its own AtomicInteger slot, so changing a count is one map lookup and one atomic update instead of
+ * containsKey(), get(), and replace() with an Integer boxed each time.  Taking a copy is a single compare and set
+ * that never lets a count go below 0.  The total of all counts is kept up to date as counts change, so total()
+ * does not add them up.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: Counts can be changed by several threads at once.  Adding a key that is not counted yet changes the map,
+ *       so the caller must make sure no other thread uses the counter then (Library holds the shelf lock or the
+ *       catalog write lock).  Keys are listed in the same order a HashMap would list them.
+ */
+
+public class CopyCounter<K> {
+    private final HashMap<K, AtomicInteger> counts = new HashMap<>();
+    private final AtomicLong total = new AtomicLong();  // The sum of all counts
+
+    /**
+     * This method get() returns the number of copies of key.
+     * @param key the key to look up
+     * @param missing the value returned if key is not counted
+     * @return the number of copies or missing if key is not counted.
+     */
+    public int get(K key, int missing) {
+        AtomicInteger count = counts.get(key);
+        return count == null ? missing : count.get();
+    }
+
+    public boolean contains(K key) {
+        return counts.containsKey(key);
+    }
+
+    /**
+     * This method add() adds copies of key.  A key that is not counted yet starts at 0.
+     * @param key the key to add copies of
+     * @param copies the number of copies to add
+     * @return the number of copies after adding
+     */
+    public int add(K key, int copies) {
+        AtomicInteger count = counts.get(key);
+        if(count == null) {
+            count = new AtomicInteger();
+            counts.put(key, count);
+        }
+        total.addAndGet(copies);
+        return count.addAndGet(copies);
+    }
+
+    /**
+     * This method addIfPresent() adds copies of key only if key is already counted.  The map is not changed.
+     * @param key the key to add copies of
+     * @param copies the number of copies to add
+     * @return the number of copies after adding, or -1 if key is not counted.
+     */
+    public int addIfPresent(K key, int copies) {
+        AtomicInteger count = counts.get(key);
+        if(count == null) {
+            return -1;
+        }
+        total.addAndGet(copies);
+        return count.addAndGet(copies);
+    }
+
+    /**
+     * This method take() removes one copy of key if there is one left.
+     * @param key the key to take a copy of
+     * @return the number of copies before taking one.  0 means no copy was left and -1 means key is not counted.
+     */
+    public int take(K key) {
+        AtomicInteger count = counts.get(key);
+        if(count == null) {
+            return -1;
+        }
+
+        int copies = count.get();
+        while(copies > 0 && !count.compareAndSet(copies, copies - 1)) {
+            copies = count.get();
+        }
+        if(copies > 0) {
+            total.decrementAndGet();
+        }
+        return copies;
+    }
+
+    /**
+     * This method set() sets the number of copies of key.
+     * @param key the key to set
+     * @param copies the number of copies
+     */
+    public void set(K key, int copies) {
+        AtomicInteger count = counts.get(key);
+        if(count == null) {
+            counts.put(key, new AtomicInteger(copies));
+            total.addAndGet(copies);
+        } else {
+            total.addAndGet(copies - count.getAndSet(copies));
+        }
+    }
+
+    /**
+     * This method total() returns the copies of every key added up.  It does not look at the map, so it can be
+     * called while other threads change counts.
+     * @return the total number of copies
+     */
+    public long total() {
+        return total.get();
+    }
+
+    /**
+     * This method size() returns the number of keys counted.
+     * @return the number of keys
+     */
+    public int size() {
+        return counts.size();
+    }
+
+    public void clear() {
+        counts.clear();
+        total.set(0);
+    }
+
+    /**
+     * This method forEach() passes each key and its number of copies to action.
+     * @param action the action to run for each key
+     */
+    public void forEach(ObjIntConsumer<? super K> action) {
+        for(Map.Entry<K, AtomicInteger> count : counts.entrySet()) {
+            action.accept(count.getKey(), count.getValue().get());
+        }
+    }
+
+    /**
+     * This method entries() copies one page of the keys and their number of copies.  Keys are in the map's order,
+     * which stays the same while no keys are added or removed, so pages can be read one after another.
+     * @param offset the number of keys to skip
+     * @param limit the most keys to copy
+     * @return up to limit keys with their number of copies
+     */
+    public List<Map.Entry<K, Integer>> entries(int offset, int limit) {
+        List<Map.Entry<K, Integer>> page = new ArrayList<>(Math.min(limit, Math.max(counts.size() - offset, 0)));
+        int skipped = 0;
+        for(Map.Entry<K, AtomicInteger> count : counts.entrySet()) {
+            if(page.size() == limit) {
+                break;
+            }
+            if(skipped < offset) {
+                skipped++;
+            } else {
+                page.add(new AbstractMap.SimpleImmutableEntry<>(count.getKey(), count.getValue().get()));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * This method toHashMap() copies the counts into a HashMap.
+     * @return a new HashMap with each key and its number of copies
+     */
+    public HashMap<K, Integer> toHashMap() {
+        HashMap<K, Integer> copy = new HashMap<>();
+        forEach(copy::put);
+        return copy;
+    }
+}
@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: CopyCounterTest.java
+ * abstract: This class CopyCounterTest() is a jUnit test for CopyCounter.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class CopyCounterTest {
+
+    @Test
+    void addAndGet() {
+        CopyCounter<String> counter = new CopyCounter<>();
+        assertEquals(-1, counter.get("Dune", -1));
+        assertEquals(-1, counter.addIfPresent("Dune", 1));  // not counted yet, so nothing is added
+        assertEquals(2, counter.add("Dune", 2));
+        assertEquals(3, counter.addIfPresent("Dune", 1));
+        assertEquals(3, counter.get("Dune", -1));
+        assertEquals(1, counter.size());
+    }
+
+    @Test
+    void take() {
+        CopyCounter<String> counter = new CopyCounter<>();
+        assertEquals(-1, counter.take("Dune"));
+        counter.add("Dune", 1);
+        assertEquals(1, counter.take("Dune"));
+        assertEquals(0, counter.take("Dune"));  // no copy left, the count stays at 0
+        assertEquals(0, counter.get("Dune", -1));
+    }
+
+    @Test
+    void takeFromSeveralThreads() throws InterruptedException {
+        CopyCounter<String> counter = new CopyCounter<>();
+        counter.add("Dune", 1000);
+        AtomicInteger taken = new AtomicInteger();
+
+        Thread[] threads = new Thread[4];
+        for(int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                while(counter.take("Dune") > 0) {
+                    taken.incrementAndGet();
+                }
+            });
+            threads[i].start();
+        }
+        for(Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000, taken.get());
+        assertEquals(0, counter.get("Dune", -1));
+    }
+
+    @Test
+    void totalAndCopy() {
+        CopyCounter<String> counter = new CopyCounter<>();
+        counter.add("Dune", 2);
+        counter.set("Emma", 3);
+        assertEquals(5, counter.total());
+        assertEquals(Integer.valueOf(2), counter.toHashMap().get("Dune"));
+        assertEquals(Integer.valueOf(3), counter.toHashMap().get("Emma"));
+    }
+
+    @Test
+    void entriesInPages() {
+        CopyCounter<String> counter = new CopyCounter<>();
+        for(int i = 0; i < 10; i++) {
+            counter.add("Book " + i, i);
+        }
+        Set<String> listed = new HashSet<>();
+        for(int offset = 0; offset < 12; offset += 4) {
+            for(Map.Entry<String, Integer> entry : counter.entries(offset, 4)) {
+                assertTrue(listed.add(entry.getKey()));  // no key is on two pages
+                assertEquals(counter.get(entry.getKey(), -1), entry.getValue());
+            }
+        }
+        assertEquals(10, listed.size());
+        assertEquals(2, counter.entries(8, 4).size());
+        assertTrue(counter.entries(20, 4).isEmpty());
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * title: EventSink.java
+ * abstract: This interface EventSink receives the messages the library displays about its work.  LibraryLog
+ * sends every message to the current sink.  Callers check isEnabled() before building a message, so a message at
+ * a level the sink does not want costs no String building.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+public interface EventSink {
+    /**
+     * This sink ignores every message.
+     */
+    EventSink SILENT = new EventSink() {
+        @Override
+        public boolean isEnabled(LogLevel level) {
+            return false;
+        }
+
+        @Override
+        public void publish(LogLevel level, String message) {
+        }
+    };
+
+    /**
+     * This method isEnabled() checks if the sink wants messages at level.
+     * @param level the level of the message about to be built
+     * @return True if messages at level should be built and published.
+     */
+    boolean isEnabled(LogLevel level);
+
+    /**
+     * This method publish() receives one message.
+     * @param level the level of the message
+     * @param message the message
+     */
+    void publish(LogLevel level, String message);
+
+    /**
+     * This method flush() waits until the messages published so far have been written.
+     */
+    default void flush() {
+    }
+
+    /**
+     * This method close() flushes the sink and releases anything it uses.
+     */
+    default void close() {
+        flush();
+    }
+}
@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+/**
+ * title: FieldTokenizer.java
+ * abstract: This class FieldTokenizer splits one line of a library .csv file into its comma(,) delimited fields.
+ * It is reused for every line, so only the comma positions are stored and no List or String array is created
+ * for a line.  A field's String is only created when get() is called for it.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: The number of fields matches what line.split(",") would give.  Trailing empty fields are not counted and
+ *       an empty line has one (empty) field.  This keeps the record checks in Library the same as before.
+ */
+
+public class FieldTokenizer {
+    private String line = "";
+    private int[] commas = new int[16];  // Index of each comma in line
+    private int commaCount;
+    private int fieldCount;
+
+    /**
+     * This method reset() tokenizes a new line.  Any fields from the previous line are forgotten.
+     * @param line the line to split into fields
+     */
+    public void reset(String line) {
+        this.line = line;
+        commaCount = 0;
+
+        int length = line.length();
+        for(int i = 0; i < length; i++) {
+            if(line.charAt(i) == ',') {
+                if(commaCount == commas.length) {
+                    commas = Arrays.copyOf(commas, commaCount * 2);
+                }
+                commas[commaCount++] = i;
+            }
+        }
+
+        if(length == 0) {
+            fieldCount = 1;
+            return;
+        }
+
+        // Trailing empty fields are dropped like String.split() does.
+        fieldCount = commaCount + 1;
+        while(fieldCount > 0 && fieldStart(fieldCount - 1) == fieldEnd(fieldCount - 1)) {
+            fieldCount--;
+        }
+    }
+
+    /**
+     * This method size() returns the number of fields on the line.
+     * @return the number of fields
+     */
+    public int size() {
+        return fieldCount;
+    }
+
+    /**
+     * This method get() returns a field with the whitespace trimmed from both ends.
+     * @param index the field index.  Book, Shelf, and Reader have constants for these.
+     * @return the trimmed field
+     */
+    public String get(int index) {
+        if(index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " out of bounds for " + fieldCount + " fields");
+        }
+
+        int start = fieldStart(index);
+        int end = fieldEnd(index);
+        while(start < end && line.charAt(start) <= ' ') {
+            start++;
+        }
+        while(end > start && line.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return line.substring(start, end);
+    }
+
+    /**
+     * This method getLine() returns the whole line that was tokenized.
+     * @return the line
+     */
+    public String getLine() {
+        return line;
+    }
+
+    private int fieldStart(int index) {
+        return index == 0 ? 0 : commas[index - 1] + 1;
+    }
+
+    private int fieldEnd(int index) {
+        return index < commaCount ? commas[index] : line.length();
+    }
+}
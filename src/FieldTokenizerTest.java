@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: FieldTokenizerTest.java
+ * abstract: This class FieldTokenizerTest() is a jUnit test for FieldTokenizer.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class FieldTokenizerTest {
+
+    @Test
+    void matchesSplit() {
+        String[] lines = {"", ",", ",,", "a", "a,", "a,,", ",a", ",,a", "a,,b", "a,b,", " , ", "a, ,",
+                "1337,Headfirst Java,education,1337,Grady Booch,0000",
+                "1,Drew Clinkenbeard,831-582-4007,2,42-w-87,2020-10-12,1337,2020-11-01,,"};
+        FieldTokenizer tokenizer = new FieldTokenizer();
+        for(String line : lines) {
+            String[] fields = line.split(",");
+            tokenizer.reset(line);
+            assertEquals(fields.length, tokenizer.size(), "fields of \"" + line + "\"");
+            for(int i = 0; i < fields.length; i++) {
+                assertEquals(fields[i].trim(), tokenizer.get(i));
+            }
+            assertEquals(line, tokenizer.getLine());
+        }
+    }
+
+    @Test
+    void reuseForgetsTheLastLine() {
+        FieldTokenizer tokenizer = new FieldTokenizer();
+        tokenizer.reset("a,b,c,d,e,f,g,h,i,j,k,l,m,n,o,p,q,r,s,t");  // more commas than the first array holds
+        assertEquals(20, tokenizer.size());
+        assertEquals("t", tokenizer.get(19));
+        tokenizer.reset(" x , y ");
+        assertEquals(2, tokenizer.size());
+        assertEquals("x", tokenizer.get(0));
+        assertEquals("y", tokenizer.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.get(-1));
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * title: Hold.java
+ * abstract: This class Hold is a reader waiting for a book that had no copy on the shelf.  The future completes
+ * when the hold ends: with Code.SUCCESS once a returned copy has been checked out to the reader, or with the error
+ * that kept the reader from getting it (ex. Code.BOOK_LIMIT_REACHED_ERROR).
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: The library claims a hold before it lends the copy, and a cancel only works on a hold nobody has claimed.
+ *       So a hold is either cancelled with no loan, or it ends with the Code of the checkout, never both.
+ */
+
+public final class Hold {
+    private final Reader reader;
+    private final Book book;
+    private final AtomicBoolean claimed = new AtomicBoolean();  // True once cancelled or taken by the library
+    private final CompletableFuture<Code> future = new HoldFuture();
+
+    /**
+     * This class HoldFuture is the hold's future.  cancel() claims the hold first, so it fails once the library
+     * has claimed the hold to check the copy out.
+     */
+    private final class HoldFuture extends CompletableFuture<Code> {
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return claimed.compareAndSet(false, true) && super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    public Hold(Reader reader, Book book) {
+        this.reader = reader;
+        this.book = book;
+    }
+
+    public Reader getReader() {
+        return reader;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+
+    /**
+     * This method getFuture() returns the future that completes when the hold ends.  Callbacks added to it run on
+     * the thread that ends the hold (ex. the thread returning the book), so they should be quick or use the async
+     * methods of CompletableFuture.
+     * @return the future with the Code the hold ended with
+     */
+    public CompletableFuture<Code> getFuture() {
+        return future;
+    }
+
+    /**
+     * This method claim() is called by the library before it checks the copy out to the reader.
+     * @return True if the hold was claimed, or false if it was already cancelled or claimed.
+     */
+    boolean claim() {
+        return claimed.compareAndSet(false, true);
+    }
+
+    @Override
+    /**
+     * This toString() method returns the below formatted String:
+     *      [title] by [author] ISBN: [isbn] held for #[cardNumber]
+     */
+    public String toString() {
+        return book + " held for #" + reader.getCardNumber();
+    }
+}
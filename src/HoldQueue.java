@@ -0,0 +1,120 @@
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * title: HoldQueue.java
+ * abstract: This class HoldQueue keeps the holds of a Library, one first in first out queue for each book.  When a
+ * copy comes back, the reader who has waited longest gets it.  A reader has at most one hold for each book.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: Holds are placed and copies come back under different shelf and reader locks (see LibraryLocks), so the
+ *       queue has its own lock.  It is only held for a queue update.
+ */
+
+public class HoldQueue {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final HashMap<CatalogKey, ArrayDeque<Hold>> queues = new HashMap<>();  // Book key with its holds
+    private int size;
+
+    /**
+     * This method add() puts a hold at the end of its book's queue.
+     * @param hold the hold
+     * @return True if the hold was added or false if the reader already has a hold for the book.
+     */
+    public boolean add(Hold hold) {
+        lock.lock();
+        try {
+            ArrayDeque<Hold> queue = queues.computeIfAbsent(hold.getBook().getKey(), key -> new ArrayDeque<>());
+            for(Hold waiting : queue) {
+                if(waiting.getReader().getCardNumber() == hold.getReader().getCardNumber()) {
+                    return false;
+                }
+            }
+            queue.addLast(hold);
+            size++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method poll() removes the hold that has waited longest for a book.
+     * @param book the book
+     * @return the hold, or null if nobody is waiting for the book
+     */
+    public Hold poll(Book book) {
+        lock.lock();
+        try {
+            ArrayDeque<Hold> queue = queues.get(book.getKey());
+            if(queue == null) {
+                return null;
+            }
+            Hold hold = queue.pollFirst();
+            if(queue.isEmpty()) {
+                queues.remove(book.getKey());
+            }
+            size--;
+            return hold;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method remove() removes the hold of a reader for a book.
+     * @param reader the reader who placed the hold
+     * @param book the book
+     * @return the hold, or null if the reader has no hold for the book
+     */
+    public Hold remove(Reader reader, Book book) {
+        lock.lock();
+        try {
+            ArrayDeque<Hold> queue = queues.get(book.getKey());
+            if(queue == null) {
+                return null;
+            }
+            for(Iterator<Hold> holds = queue.iterator(); holds.hasNext(); ) {
+                Hold hold = holds.next();
+                if(hold.getReader().getCardNumber() == reader.getCardNumber()) {
+                    holds.remove();
+                    if(queue.isEmpty()) {
+                        queues.remove(book.getKey());
+                    }
+                    size--;
+                    return hold;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method getWaiting() returns the number of readers waiting for a book.
+     * @param book the book
+     * @return the number of holds for the book
+     */
+    public int getWaiting(Book book) {
+        lock.lock();
+        try {
+            ArrayDeque<Hold> queue = queues.get(book.getKey());
+            return queue == null ? 0 : queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CompletableFuture;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: HoldQueueTest.java
+ * abstract: This class HoldQueueTest() is a jUnit test for HoldQueue.java and the holds of Library.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class HoldQueueTest {
+    Reader reader = new Reader(1, "Drew Clinkenbeard", "831-582-4007");
+    Reader firstInLine = new Reader(2, "Jennifer Clinkenbeard", "831-555-6284");
+    Reader secondInLine = new Reader(3, "Monica Clinkenbeard", "831-555-0001");
+    Book failBook = new Book("34-w-34", "Dune", "sci-fi", 235, "Frank Herbert", null);
+
+    private Library library() {
+        Library library = new Library("Hold Library", true);
+        Shelf shelf = new Shelf();
+        shelf.setShelfNumber(1);
+        shelf.setSubject("sci-fi");
+        library.addShelf(shelf);
+        library.addBook(failBook);
+        library.addReader(reader);
+        library.addReader(firstInLine);
+        library.addReader(secondInLine);
+        return library;
+    }
+
+    @Test
+    void queueOrder() {
+        HoldQueue queue = new HoldQueue();
+        Hold first = new Hold(firstInLine, failBook);
+        Hold second = new Hold(secondInLine, failBook);
+        assertTrue(queue.add(first));
+        assertTrue(queue.add(second));
+        assertFalse(queue.add(new Hold(firstInLine, failBook)));  // one hold per reader and book
+        assertEquals(2, queue.getWaiting(failBook));
+
+        assertSame(first, queue.poll(failBook));
+        assertSame(second, queue.remove(secondInLine, failBook));
+        assertNull(queue.poll(failBook));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void returnedCopyGoesToTheNextReader() {
+        Library library = library();
+        assertEquals(Code.SUCCESS, library.placeHold(reader, failBook).join());  // a copy was on the shelf
+
+        CompletableFuture<Code> first = library.placeHold(firstInLine, failBook);
+        CompletableFuture<Code> second = library.placeHold(secondInLine, failBook);
+        assertFalse(first.isDone());
+        assertEquals(2, library.getHoldCount(failBook));
+
+        assertEquals(Code.SUCCESS, library.returnBook(reader, failBook));
+        assertEquals(Code.SUCCESS, first.getNow(null));
+        assertTrue(firstInLine.hasBook(failBook));
+        assertEquals(0, library.getShelf("sci-fi").getBookCount(failBook));  // the copy never stayed on the shelf
+        assertFalse(second.isDone());
+
+        assertEquals(Code.SUCCESS, library.cancelHold(secondInLine, failBook));
+        assertTrue(second.isCancelled());
+        assertEquals(Code.SUCCESS, library.returnBook(firstInLine, failBook));
+        assertEquals(1, library.getShelf("sci-fi").getBookCount(failBook));
+        assertEquals(Code.HOLD_NOT_FOUND_ERROR, library.cancelHold(secondInLine, failBook));
+    }
+
+    @Test
+    void lendingLimitPassesTheCopyOn() {
+        Library library = library();
+        library.checkOutBook(reader, failBook);
+        CompletableFuture<Code> first = library.placeHold(firstInLine, failBook);
+        CompletableFuture<Code> second = library.placeHold(secondInLine, failBook);
+        for(int i = 0; i < Library.LENDING_LIMIT; i++) {
+            Book book = new Book("isbn" + i, "Book " + i, "sci-fi", 100, "Author", null);
+            library.addBook(book);
+            library.checkOutBook(firstInLine, book);
+        }
+
+        library.returnBook(reader, failBook);
+        assertEquals(Code.BOOK_LIMIT_REACHED_ERROR, first.getNow(null));
+        assertEquals(Code.SUCCESS, second.getNow(null));
+        assertTrue(secondInLine.hasBook(failBook));
+    }
+
+    @Test
+    void holdWithoutReaderOrBook() {
+        Library library = library();
+        assertEquals(Code.READER_NOT_IN_LIBRARY_ERROR, library.placeHold(null, failBook).join());
+        assertEquals(Code.BOOK_NOT_IN_INVENTORY_ERROR, library.placeHold(reader, null).join());
+        assertEquals(0, library.getHoldCount(failBook));
+    }
+
+    @Test
+    void cancelWhileTheCopyIsLent() {
+        Library library = library();
+        library.checkOutBook(reader, failBook);
+        CompletableFuture<Code> first = library.placeHold(firstInLine, failBook);
+        CompletableFuture<Code> second = library.placeHold(secondInLine, failBook);
+
+        // The first reader cancels just after the copy is lent to them, before their future completes.
+        boolean[] cancelled = new boolean[1];
+        LibraryLog.setSink(new EventSink() {
+            @Override
+            public boolean isEnabled(LogLevel level) {
+                return level == LogLevel.INFO;
+            }
+
+            @Override
+            public void publish(LogLevel level, String message) {
+                if(message.endsWith(" checked out to " + firstInLine.getName() + " from hold.")) {
+                    cancelled[0] = first.cancel(false);
+                }
+            }
+        });
+        try {
+            assertEquals(Code.SUCCESS, library.returnBook(reader, failBook));
+        } finally {
+            LibraryLog.setVerbose(false);
+        }
+        assertFalse(cancelled[0]);  // the hold was claimed before the loan
+        assertEquals(Code.SUCCESS, first.getNow(null));
+        assertTrue(firstInLine.hasBook(failBook));
+        assertFalse(second.isDone());
+
+        // A hold cancelled before its copy is lent gets nothing, and the copy goes to the next reader.
+        assertTrue(second.cancel(false));
+        assertEquals(Code.SUCCESS, library.returnBook(firstInLine, failBook));
+        assertFalse(secondInLine.hasBook(failBook));
+        assertEquals(1, library.getShelf("sci-fi").getBookCount(failBook));
+    }
+}
@@ -0,0 +1,246 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * title: IntHashMap.java
+ * abstract: This class IntHashMap is a hash map with primitive int keys.  It is used by the Library to find readers
+ * by their card number without boxing the card number into an Integer.  The keys are stored in open addressing
+ * arrays (linear probing), so get(), put(), containsKey(), and remove() all run in constant time.  The map also
+ * remembers the order entries were added, so iterating the values always gives the same, stable order.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: Removed entries leave a marker (tombstone) in the arrays so the other entries do not move.  The markers
+ *       are cleaned up the next time the arrays are resized.
+ */
+
+public class IntHashMap<V> implements Iterable<V> {
+    private static final int DEFAULT_CAPACITY = 16;    // Must be a power of 2
+    private static final float LOAD_FACTOR = 0.75f;    // Used + removed slots allowed before resizing
+    private static final byte FREE = 0;                // Slot has never been used
+    private static final byte USED = 1;                // Slot holds an entry
+    private static final byte REMOVED = 2;             // Slot held an entry that was removed (tombstone)
+    private static final int NONE = -1;                // Used for the end of the insertion order links
+
+    private int[] keys;
+    private Object[] values;
+    private byte[] states;
+    private int[] before;       // Slot of the entry added before this one
+    private int[] after;        // Slot of the entry added after this one
+    private int head = NONE;    // Slot of the oldest entry
+    private int tail = NONE;    // Slot of the newest entry
+    private int size;           // Number of entries
+    private int occupied;       // Number of USED and REMOVED slots
+    private int modCount;       // Used to fail fast when the map changes during iteration
+
+    public IntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntHashMap(int expectedSize) {
+        allocate(tableSizeFor((int) (Math.max(expectedSize, 1) / LOAD_FACTOR) + 1));
+    }
+
+    /**
+     * This method get() finds the value stored for key.
+     * @param key the int key of the entry
+     * @return the value for key, or null if the key is not in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = findSlot(key);
+        return slot == NONE ? null : (V) values[slot];
+    }
+
+    /**
+     * This method containsKey() checks if the key is in the map.
+     * @param key the int key of the entry
+     * @return True if the key is in the map or false if it is not.
+     */
+    public boolean containsKey(int key) {
+        return findSlot(key) != NONE;
+    }
+
+    /**
+     * This method put() stores the value for key.  A new key is added to the end of the iteration order.  A key
+     * that is already in the map keeps its place in the iteration order.
+     * @param key the int key of the entry
+     * @param value the value to store
+     * @return the value that was replaced, or null if the key is new.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int slot = findSlot(key);
+        if(slot != NONE) {
+            V oldValue = (V) values[slot];
+            values[slot] = value;
+            return oldValue;
+        }
+
+        if(occupied + 1 > keys.length * LOAD_FACTOR) {
+            // Only grow if the map is really full.  Otherwise the tombstones are cleaned out at the same size.
+            allocateAndRehash(size + 1 > keys.length * LOAD_FACTOR / 2 ? keys.length * 2 : keys.length);
+        }
+        insert(key, value);
+        modCount++;
+        return null;
+    }
+
+    /**
+     * This method remove() takes the entry for key out of the map.
+     * @param key the int key of the entry
+     * @return the value that was removed, or null if the key was not in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = findSlot(key);
+        if(slot == NONE) {
+            return null;
+        }
+
+        V oldValue = (V) values[slot];
+        values[slot] = null;
+        states[slot] = REMOVED;
+        unlink(slot);
+        size--;
+        modCount++;
+        return oldValue;
+    }
+
+    /**
+     * This method clear() removes all entries from the map.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        Arrays.fill(states, FREE);
+        head = NONE;
+        tail = NONE;
+        size = 0;
+        occupied = 0;
+        modCount++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * This iterator() returns the values in the order their keys were added to the map.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<V>() {
+            private int next = head;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != NONE;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if(modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if(next == NONE) {
+                    throw new NoSuchElementException();
+                }
+                V value = (V) values[next];
+                next = after[next];
+                return value;
+            }
+        };
+    }
+
+    private int findSlot(int key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while(states[slot] != FREE) {
+            if(states[slot] == USED && keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    private void insert(int key, Object value) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while(states[slot] == USED) {
+            slot = (slot + 1) & mask;
+        }
+        if(states[slot] == FREE) {
+            occupied++;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        states[slot] = USED;
+        before[slot] = tail;
+        after[slot] = NONE;
+        if(tail == NONE) {
+            head = slot;
+        } else {
+            after[tail] = slot;
+        }
+        tail = slot;
+        size++;
+    }
+
+    private void unlink(int slot) {
+        if(before[slot] == NONE) {
+            head = after[slot];
+        } else {
+            after[before[slot]] = after[slot];
+        }
+        if(after[slot] == NONE) {
+            tail = before[slot];
+        } else {
+            before[after[slot]] = before[slot];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        states = new byte[capacity];
+        before = new int[capacity];
+        after = new int[capacity];
+        head = NONE;
+        tail = NONE;
+        size = 0;
+        occupied = 0;
+    }
+
+    private void allocateAndRehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldAfter = after;
+        int oldHead = head;
+
+        allocate(capacity);
+        // Walking the old insertion order keeps the iteration order the same after resizing.
+        for(int slot = oldHead; slot != NONE; slot = oldAfter[slot]) {
+            insert(oldKeys[slot], oldValues[slot]);
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;  // Spreads sequential card numbers across the table
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        return Math.max(n, 2);
+    }
+}
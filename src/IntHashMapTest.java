@@ -0,0 +1,71 @@
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: IntHashMapTest.java
+ * abstract: This class IntHashMapTest() is a jUnit test for IntHashMap.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class IntHashMapTest {
+
+    @Test
+    void putAndGet() {
+        IntHashMap<String> map = new IntHashMap<>();
+        assertNull(map.put(1, "Drew"));
+        assertNull(map.put(2, "Jennifer"));
+        assertEquals("Drew", map.get(1));
+        assertEquals("Jennifer", map.get(2));
+        assertNull(map.get(3));
+        assertEquals("Drew", map.put(1, "Monte"));  // replacing a value returns the old value
+        assertEquals("Monte", map.get(1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void remove() {
+        IntHashMap<String> map = new IntHashMap<>();
+        map.put(1, "Drew");
+        map.put(2, "Jennifer");
+        assertEquals("Drew", map.remove(1));
+        assertNull(map.remove(1));
+        assertFalse(map.containsKey(1));
+        assertTrue(map.containsKey(2));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void iterationOrder() {
+        IntHashMap<Integer> map = new IntHashMap<>();
+        List<Integer> expected = new ArrayList<>();
+        // Enough entries to force several resizes, with removals mixed in.
+        for(int i = 0; i < 10000; i++) {
+            int key = (i * 7919) % 100003;
+            map.put(key, key);
+            expected.add(key);
+            if(i % 3 == 0) {
+                map.remove(key);
+                expected.remove(expected.size() - 1);
+            }
+        }
+
+        List<Integer> actual = new ArrayList<>();
+        for(Integer value : map) {
+            actual.add(value);
+        }
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), map.size());
+    }
+
+    @Test
+    void negativeAndZeroKeys() {
+        IntHashMap<String> map = new IntHashMap<>();
+        map.put(0, "zero");
+        map.put(-1, "minus one");
+        assertEquals("zero", map.get(0));
+        assertEquals("minus one", map.get(-1));
+    }
+}
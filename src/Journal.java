@@ -0,0 +1,608 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * title: Journal.java
+ * abstract: This class Journal is an append-only log of the changes made to a Library (checkouts, returns, and
+ * added books, shelves, and readers) and the Code each one returned.  After a restart the journal is replayed on
+ * top of the last snapshot (or .csv file), so the day's circulation is not lost.  Entries are written by a
+ * writer thread: every entry appended while the last batch was being written goes out in the next batch with
+ * one write and one fsync (group commit), so many threads can wait for their entries without each paying for
+ * its own fsync.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * FILE FORMAT: All numbers are big-endian.  Strings are an int length in bytes (-1 for null) and UTF-8 bytes.
+ *      header: int MAGIC, int VERSION, long base sequence (the sequence number before the first entry)
+ *      entry:  int payload length, int CRC32 of the payload, payload
+ *      payload: long sequence, byte Operation, int Code value, then the fields of the Operation:
+ *              CHECK_OUT, RETURN:          int cardNumber, book
+ *              RETURN_TO_SHELF, ADD_BOOK:  book
+ *              ADD_SHELF:                  int shelfNumber, subject
+ *              ADD_READER:                 int cardNumber, name, phone, int book count, books
+ *              REMOVE_READER:              int cardNumber
+ *      book:   isbn, title, subject, int pageCount, author, long dueDate (epoch day or NO_DATE)
+ * An entry that was only partly written when the program stopped fails its CRC32 and is cut off when the
+ * journal is opened again.
+ */
+
+public class Journal implements Closeable {
+    public static final int MAGIC = 0x4C4A4E4C;  // "LJNL"
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int MAX_ENTRY_SIZE = 1 << 20;  // Larger entry lengths mean the entry is damaged
+    private static final long NO_DATE = Long.MIN_VALUE;  // Stored for a null due date
+
+    /**
+     * These are the Library changes that are journaled.
+     */
+    public enum Operation {
+        CHECK_OUT, RETURN, RETURN_TO_SHELF, ADD_BOOK, ADD_SHELF, ADD_READER, REMOVE_READER
+    }
+
+    /**
+     * This class Entry is one journaled change read back from the file.  Only the fields used by its operation
+     * are set.
+     */
+    public static class Entry {
+        private final long sequence;
+        private final Operation operation;
+        private final Code code;
+        private int cardNumber;
+        private Book book;
+        private Shelf shelf;
+        private Reader reader;
+
+        private Entry(long sequence, Operation operation, Code code) {
+            this.sequence = sequence;
+            this.operation = operation;
+            this.code = code;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public Code getCode() {
+            return code;
+        }
+
+        public int getCardNumber() {
+            return cardNumber;
+        }
+
+        public Book getBook() {
+            return book;
+        }
+
+        public Shelf getShelf() {
+            return shelf;
+        }
+
+        public Reader getReader() {
+            return reader;
+        }
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean sync;
+    private final Thread writer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasWork = lock.newCondition();
+    private final Condition written = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16);   // Entries waiting for the writer thread
+    private ByteBuffer writing = ByteBuffer.allocate(1 << 16);   // Entries the writer thread is writing
+    private ByteBuffer entry = ByteBuffer.allocate(1 << 10);     // The entry being appended
+    private long appendedSequence;   // Sequence number of the last entry appended
+    private long writtenSequence;    // Sequence number of the last entry written (and synced if sync is true)
+    private IOException failure;     // Set if the writer thread could not write
+    private boolean closed;
+
+    private Journal(Path file, FileChannel channel, long sequence, boolean sync) {
+        this.file = file;
+        this.channel = channel;
+        this.sync = sync;
+        this.appendedSequence = sequence;
+        this.writtenSequence = sequence;
+        this.writer = new Thread(this::writeEntries, "journal-writer " + file.getFileName());
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * This method open() opens a journal for appending.  If the file exists, its entries after appliedSequence
+     * are passed to replay in order first, and a damaged last entry is cut off.  A new file is created if there
+     * is none.
+     * @param filename the journal file
+     * @param appliedSequence the sequence number of the last entry already in the library (ex. the one saved
+     *                        in the snapshot the library was loaded from)
+     * @param sync True to fsync each batch of entries before the entries count as written
+     * @param replay receives each entry that needs to be applied to the library
+     * @return the open journal
+     * @throws StreamCorruptedException if the file is not a journal or starts after appliedSequence (entries are
+     *                                  missing between the snapshot and the journal).
+     * @throws IOException if the file could not be read or written.
+     */
+    public static Journal open(String filename, long appliedSequence, boolean sync, Consumer<Entry> replay)
+            throws IOException {
+        Path file = Paths.get(filename);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long sequence;
+            if(channel.size() == 0) {
+                writeHeader(channel, appliedSequence, sync);
+                sequence = appliedSequence;
+            } else {
+                sequence = replay(file, channel, appliedSequence, replay);
+            }
+            channel.position(channel.size());
+            return new Journal(file, channel, sequence, sync);
+        } catch(IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * This method append() adds a checkout, return, added book, or removed reader to the journal.
+     * @param operation the change
+     * @param code the Code the change returned
+     * @param cardNumber the card number of the reader, or 0 if the operation has no reader
+     * @param book the book, or null if the operation has no book
+     * @return the sequence number of the entry.  Pass it to await() to wait until the entry is written.
+     */
+    public long append(Operation operation, Code code, int cardNumber, Book book) {
+        lock.lock();
+        try {
+            long sequence = startEntry(operation, code);
+            if(operation != Operation.RETURN_TO_SHELF && operation != Operation.ADD_BOOK) {
+                putInt(cardNumber);
+            }
+            if(book != null) {
+                putBook(book);
+            }
+            return finishEntry(sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method append() adds an added shelf to the journal.
+     * @param code the Code addShelf() returned
+     * @param shelf the shelf
+     * @return the sequence number of the entry
+     */
+    public long append(Code code, Shelf shelf) {
+        lock.lock();
+        try {
+            long sequence = startEntry(Operation.ADD_SHELF, code);
+            putInt(shelf.getShelfNumber());
+            putString(shelf.getSubject());
+            return finishEntry(sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method append() adds an added reader (with any books it already has) to the journal.
+     * @param code the Code addReader() returned
+     * @param reader the reader
+     * @return the sequence number of the entry
+     */
+    public long append(Code code, Reader reader) {
+        lock.lock();
+        try {
+            long sequence = startEntry(Operation.ADD_READER, code);
+            putInt(reader.getCardNumber());
+            putString(reader.getName());
+            putString(reader.getPhone());
+            putInt(reader.getBooks().size());
+            for(Book book : reader.getBooks()) {
+                putBook(book);
+            }
+            return finishEntry(sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method await() waits until an entry and every entry before it have been written.
+     * @param sequence the value returned by append()
+     * @return True if the entry was written or false if the journal could not be written.
+     */
+    public boolean await(long sequence) {
+        lock.lock();
+        try {
+            while(writtenSequence < sequence && failure == null) {
+                written.awaitUninterruptibly();
+            }
+            return writtenSequence >= sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method getSequence() returns the sequence number of the last entry appended.
+     * @return the last sequence number
+     */
+    public long getSequence() {
+        lock.lock();
+        try {
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method reset() removes every entry after a snapshot holding them has been saved (compaction).  No
+     * entries may be appended while it runs (Library holds the catalog write lock).
+     * @param sequence the sequence number saved in the snapshot
+     * @throws IOException if the journal could not be written.
+     */
+    public void reset(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while(writtenSequence < appendedSequence && failure == null) {
+                written.awaitUninterruptibly();
+            }
+            if(failure != null) {
+                throw failure;
+            }
+
+            channel.truncate(0);
+            writeHeader(channel, sequence, true);
+            channel.position(HEADER_SIZE);  // writeHeader() does not move the position
+            appendedSequence = sequence;
+            writtenSequence = sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method close() writes the entries still waiting and closes the file.
+     * @throws IOException if the last entries could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            hasWork.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            writer.join();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if(failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * This method writeEntries() is run by the writer thread.  It takes every entry appended so far, writes them
+     * with one write (and one fsync), and then wakes the threads waiting for them.
+     */
+    private void writeEntries() {
+        while(true) {
+            long batchSequence;
+            lock.lock();
+            try {
+                while(pending.position() == 0 && !closed) {
+                    hasWork.awaitUninterruptibly();
+                }
+                if(pending.position() == 0) {
+                    return;
+                }
+
+                ByteBuffer batch = pending;
+                pending = writing;
+                writing = batch;
+                batchSequence = appendedSequence;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException writeFailure = null;
+            try {
+                writing.flip();
+                while(writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                if(sync) {
+                    channel.force(false);
+                }
+            } catch(IOException e) {
+                writeFailure = e;
+            }
+            writing.clear();
+
+            lock.lock();
+            try {
+                if(writeFailure != null) {
+                    failure = writeFailure;
+                } else {
+                    writtenSequence = batchSequence;
+                }
+                written.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if(writeFailure != null) {
+                return;
+            }
+        }
+    }
+
+    private long startEntry(Operation operation, Code code) {
+        long sequence = appendedSequence + 1;
+        entry.clear();
+        putLong(sequence);
+        ensure(1);
+        entry.put((byte) operation.ordinal());
+        putInt(code.getCode());
+        return sequence;
+    }
+
+    private long finishEntry(long sequence) {
+        if(closed) {
+            throw new IllegalStateException(file + " is closed");
+        }
+        if(failure != null) {
+            return Long.MAX_VALUE;  // The journal can not be written, so await() reports the failure.
+        }
+
+        entry.flip();
+        crc.reset();
+        crc.update(entry.duplicate());
+        int size = 2 * Integer.BYTES + entry.remaining();
+        if(pending.remaining() < size) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + size));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+        pending.putInt(entry.remaining()).putInt((int) crc.getValue()).put(entry);
+
+        appendedSequence = sequence;
+        hasWork.signal();
+        return sequence;
+    }
+
+    private void putInt(int value) {
+        ensure(Integer.BYTES);
+        entry.putInt(value);
+    }
+
+    private void putLong(long value) {
+        ensure(Long.BYTES);
+        entry.putLong(value);
+    }
+
+    private void putString(String value) {
+        if(value == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        ensure(bytes.length);
+        entry.put(bytes);
+    }
+
+    private void putBook(Book book) {
+        putString(book.getIsbn());
+        putString(book.getTitle());
+        putString(book.getSubject());
+        putInt(book.getPageCount());
+        putString(book.getAuthor());
+        putLong(book.getDueDate() == null ? NO_DATE : book.getDueDate().toEpochDay());
+    }
+
+    private void ensure(int bytes) {
+        if(entry.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(entry.capacity() * 2, entry.position() + bytes));
+            entry.flip();
+            larger.put(entry);
+            entry = larger;
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, long sequence, boolean sync) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(sequence).flip();
+        while(header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        if(sync) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * This method replay() reads the entries of an existing journal and passes the ones after appliedSequence to
+     * replay.  The file is cut off after the last whole entry.
+     * @return the sequence number of the last entry in the file, or appliedSequence if it is larger
+     */
+    private static long replay(Path file, FileChannel channel, long appliedSequence, Consumer<Entry> replay)
+            throws IOException {
+        long validLength = HEADER_SIZE;
+        long sequence;
+        boolean damaged = false;
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0)),
+                1 << 16));
+        try {
+            if(in.readInt() != MAGIC) {
+                throw new StreamCorruptedException(file + " is not a library journal");
+            }
+            int version = in.readInt();
+            if(version != VERSION) {
+                throw new StreamCorruptedException(file + " is journal version " + version + ", expected " + VERSION);
+            }
+            sequence = in.readLong();
+        } catch(EOFException e) {
+            throw new StreamCorruptedException(file + " is not a library journal");
+        }
+        if(sequence > appliedSequence) {
+            throw new StreamCorruptedException(file + " starts after entry " + sequence + " but the library only has "
+                    + "entries up to " + appliedSequence);
+        }
+
+        CRC32 entryCrc = new CRC32();
+        byte[] payload = new byte[256];
+        while(true) {
+            int length;
+            int expectedCrc;
+            try {
+                length = in.readInt();
+                expectedCrc = in.readInt();
+                if(length <= 0 || length > MAX_ENTRY_SIZE) {
+                    damaged = true;
+                    break;
+                }
+                if(length > payload.length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                in.readFully(payload, 0, length);
+            } catch(EOFException e) {
+                damaged = validLength < channel.size();
+                break;
+            }
+
+            entryCrc.reset();
+            entryCrc.update(payload, 0, length);
+            if((int) entryCrc.getValue() != expectedCrc) {
+                damaged = true;
+                break;
+            }
+
+            Entry entry = readEntry(ByteBuffer.wrap(payload, 0, length));
+            if(entry == null) {
+                damaged = true;
+                break;
+            }
+            sequence = entry.getSequence();
+            if(sequence > appliedSequence) {
+                replay.accept(entry);
+            }
+            validLength += 2 * Integer.BYTES + length;
+        }
+
+        if(damaged) {
+            if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+                LibraryLog.log(LogLevel.WARNING, "WARNING: " + (channel.size() - validLength) + " bytes at the end of "
+                        + file + " are not a whole entry and were removed.");
+            }
+            channel.truncate(validLength);
+        }
+        return Math.max(sequence, appliedSequence);
+    }
+
+    private static Entry readEntry(ByteBuffer payload) {
+        try {
+            long sequence = payload.getLong();
+            int operationNumber = payload.get();
+            Code code = toCode(payload.getInt());
+            if(operationNumber < 0 || operationNumber >= Operation.values().length || code == null) {
+                return null;
+            }
+
+            Entry entry = new Entry(sequence, Operation.values()[operationNumber], code);
+            switch(entry.operation) {
+                case CHECK_OUT, RETURN -> {
+                    entry.cardNumber = payload.getInt();
+                    entry.book = getBook(payload);
+                }
+                case RETURN_TO_SHELF, ADD_BOOK -> entry.book = getBook(payload);
+                case ADD_SHELF -> {
+                    entry.shelf = new Shelf();
+                    entry.shelf.setShelfNumber(payload.getInt());
+                    entry.shelf.setSubject(getString(payload));
+                }
+                case ADD_READER -> {
+                    entry.cardNumber = payload.getInt();
+                    entry.reader = new Reader(entry.cardNumber, getString(payload), getString(payload));
+                    int bookCount = payload.getInt();
+                    List<Book> books = new ArrayList<>(Math.max(Math.min(bookCount, payload.remaining()), 0));
+                    for(int i = 0; i < bookCount; i++) {
+                        books.add(getBook(payload));
+                    }
+                    entry.reader.setBooks(books);
+                }
+                case REMOVE_READER -> entry.cardNumber = payload.getInt();
+            }
+            return entry;
+        } catch(RuntimeException e) {
+            return null;  // ex. BufferUnderflowException: the entry does not hold the fields of its operation
+        }
+    }
+
+    private static Code toCode(int value) {
+        for(Code code : Code.values()) {
+            if(code.getCode() == value) {
+                return code;
+            }
+        }
+        return null;
+    }
+
+    private static String getString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if(length == -1) {
+            return null;
+        }
+        String value = new String(payload.array(), payload.arrayOffset() + payload.position(), length,
+                StandardCharsets.UTF_8);
+        payload.position(payload.position() + length);
+        return value;
+    }
+
+    private static Book getBook(ByteBuffer payload) {
+        String isbn = getString(payload);
+        String title = getString(payload);
+        String subject = getString(payload);
+        int pageCount = payload.getInt();
+        String author = getString(payload);
+        long dueDate = payload.getLong();
+        return new Book(isbn, title, subject, pageCount, author,
+                dueDate == NO_DATE ? null : LocalDate.ofEpochDay(dueDate));
+    }
+}
@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: JournalTest.java
+ * abstract: This class JournalTest() is a jUnit test for Journal.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class JournalTest {
+    private static final LocalDate DUE_DATE = LocalDate.of(2021, 11, 1);
+
+    @TempDir
+    Path directory;
+
+    Book testBook = new Book("1337", "Headfirst Java", "education", 1337, "Grady Booch", DUE_DATE);
+
+    @Test
+    void appendAndReplay() throws IOException {
+        String filename = directory.resolve("library.journal").toString();
+        try(Journal journal = Journal.open(filename, 0, true, entry -> fail("new journal has no entries"))) {
+            journal.append(Journal.Operation.ADD_BOOK, Code.SUCCESS, 0, testBook);
+            Shelf shelf = new Shelf();
+            shelf.setShelfNumber(1);
+            shelf.setSubject("education");
+            journal.append(Code.SUCCESS, shelf);
+            long last = journal.append(Journal.Operation.CHECK_OUT, Code.BOOK_LIMIT_REACHED_ERROR, 7, testBook);
+            assertTrue(journal.await(last));
+            assertEquals(3, journal.getSequence());
+        }
+
+        List<Journal.Entry> entries = new ArrayList<>();
+        try(Journal journal = Journal.open(filename, 1, true, entries::add)) {
+            assertEquals(3, journal.getSequence());
+        }
+        assertEquals(2, entries.size());  // the first entry is already applied
+        assertEquals("1 : education", entries.get(0).getShelf().toString());
+        Journal.Entry checkOut = entries.get(1);
+        assertEquals(Journal.Operation.CHECK_OUT, checkOut.getOperation());
+        assertEquals(Code.BOOK_LIMIT_REACHED_ERROR, checkOut.getCode());
+        assertEquals(7, checkOut.getCardNumber());
+        assertEquals(testBook, checkOut.getBook());
+        assertEquals(DUE_DATE, checkOut.getBook().getDueDate());
+    }
+
+    @Test
+    void damagedLastEntry() throws IOException {
+        Path file = directory.resolve("library.journal");
+        long size;
+        try(Journal journal = Journal.open(file.toString(), 0, false, entry -> { })) {
+            journal.await(journal.append(Journal.Operation.RETURN_TO_SHELF, Code.SUCCESS, 0, testBook));
+            size = file.toFile().length();
+            journal.await(journal.append(Journal.Operation.RETURN_TO_SHELF, Code.SUCCESS, 0, testBook));
+        }
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(file.toFile().length() - 3);  // the last write was cut off
+        }
+
+        List<Journal.Entry> entries = new ArrayList<>();
+        try(Journal journal = Journal.open(file.toString(), 0, false, entries::add)) {
+            assertEquals(1, journal.getSequence());
+        }
+        assertEquals(1, entries.size());
+        assertEquals(size, file.toFile().length());
+    }
+
+    @Test
+    void missingEntries() throws IOException {
+        String filename = directory.resolve("library.journal").toString();
+        try(Journal journal = Journal.open(filename, 5, false, entry -> { })) {
+            journal.append(Journal.Operation.ADD_BOOK, Code.SUCCESS, 0, testBook);
+        }
+        // A library at sequence 2 is missing entries 3 to 5.
+        assertThrows(StreamCorruptedException.class, () -> Journal.open(filename, 2, false, entry -> { }));
+    }
+
+    @Test
+    void libraryReplay() {
+        String filename = directory.resolve("library.journal").toString();
+        Library library = new Library("Journal Library");
+        assertEquals(Code.SUCCESS, library.openJournal(filename, true));
+        library.addShelf("education");
+        library.addBook(testBook);
+        library.addBook(testBook);
+        Reader reader = new Reader(Library.getLibraryCardNumber() + 1, "Drew Clinkenbeard", "831-582-4007");
+        library.addReader(reader);
+        assertEquals(Code.SUCCESS, library.checkOutBook(reader, testBook));
+        assertEquals(Code.SUCCESS, library.closeJournal());
+
+        Library restarted = new Library("Journal Library");
+        assertEquals(Code.SUCCESS, restarted.openJournal(filename, true));
+        assertEquals(1, restarted.getShelf("education").getBookCount(testBook));
+        assertTrue(restarted.getReaderByCard(reader.getCardNumber()).hasBook(testBook));
+        assertEquals(Code.SUCCESS, restarted.closeJournal());
+    }
+
+    @Test
+    void reset() throws IOException {
+        String filename = directory.resolve("library.journal").toString();
+        try(Journal journal = Journal.open(filename, 0, false, entry -> { })) {
+            journal.append(Journal.Operation.ADD_BOOK, Code.SUCCESS, 0, testBook);
+            journal.reset(journal.getSequence());
+            journal.append(Journal.Operation.RETURN_TO_SHELF, Code.SUCCESS, 0, testBook);
+        }
+
+        List<Journal.Entry> entries = new ArrayList<>();
+        try(Journal journal = Journal.open(filename, 1, false, entries::add)) {
+            assertEquals(2, journal.getSequence());
+        }
+        assertEquals(1, entries.size());
+        assertEquals(Journal.Operation.RETURN_TO_SHELF, entries.get(0).getOperation());
+    }
+}
@@ -1,8 +1,16 @@
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
 
 /**
  * title: Library.java
@@ -13,6 +21,7 @@ import java.util.*;
  * that match their subject.  Readers can check out books that are on the shelves and return books.  Shelves
  * keep track of how many of what books are stored there.  There are methods to display books, shelves (with
  * or without books), and readers (with and without books).
+ * Messages about the library's work are sent to LibraryLog.  They are only displayed in verbose mode.
  * name: Juli S
  * date: 11/13/2021
  *
@@ -32,18 +41,60 @@ public class Library {
     private static final LocalDate DEFAULT_DATE = LocalDate.of(1970,01,01);
                                                 // Used for setting default dates
 
-    private static int libraryCard = 0;         // The current maximum library card number
+    private static final int MAX_DENSE_SHELF_NUMBER = 4096;
+                                                // Larger shelf numbers are indexed by sparseShelfNumbers
+
+    private static final AtomicInteger libraryCard = new AtomicInteger();
+                                                // The current maximum library card number
 
     private String name;                        // Name of the library
-    private List<Reader> readers;               // A list of readers registered to the library
+    private IntHashMap<Reader> readers;         // Card number (int) key with readers, kept in the order added.
     private HashMap<String, Shelf> shelves;     // Shelf Subject (String) key with Shelf objects (Shelf)
-    private HashMap<Book, Integer> books;       // Books (Book) key with the number of books as values.
+    private CopyCounter<CatalogKey> books;      // Book keys (CatalogKey) with the number of copies as values.
+    private HashMap<String, List<Book>> isbnIndex;  // ISBN (String) key with every Book entry using that ISBN.
+    private TextIndex textIndex;                // Words in titles and authors with the books that use them
+    private CatalogBitmaps bitmaps;             // Subject, author, page count, and availability of each book
+    private HashMap<String, List<CatalogKey>> unshelved;  // Subject key with the books that have no shelf yet.
+    private Shelf[] shelfNumbers;               // Shelves indexed by shelf number (dense, grows as needed).
+    private HashMap<Integer, Shelf> sparseShelfNumbers;  // Shelves with numbers above MAX_DENSE_SHELF_NUMBER
+    private final LibraryLocks locks;           // Locks used when the library is shared by threads (see LibraryLocks)
+    private volatile Journal journal;           // Changes are appended here while a journal is open (see openJournal)
+    private long journalSequence;               // Sequence number of the last journal entry in the library
+    private volatile MappedCatalog catalog;     // Books not loaded from the catalog yet (see openCatalog)
+    private final LoanIndex loans;              // Every checked out copy ordered by due date
+    private final LibraryStats stats;           // Running totals (see getStats)
+    private final HoldQueue holds;              // Readers waiting for books with no copy on the shelf
+    private final Queue<Hold> readyHolds;       // Holds whose copy has been taken off the shelf for the reader
+    private volatile LibraryMetrics metrics;    // Call counts and latencies of each operation (see setMetrics)
 
     public Library(String name) {
+        this(name, false);
+    }
+
+    /**
+     * This constructor creates a library that can be used by several threads at the same time when concurrent is
+     * true.  Checkouts and returns only lock their reader and subject shelf, so they run in parallel on different
+     * shelves.  A library that is not concurrent must only be used by one thread.
+     * @param name the name of the library
+     * @param concurrent True if several threads will use the library
+     */
+    public Library(String name, boolean concurrent) {
         this.name = name;
-        this.books = new HashMap<>();
+        this.locks = concurrent ? new LibraryLocks(LibraryLocks.DEFAULT_STRIPES) : LibraryLocks.none();
+        this.books = new CopyCounter<>();
+        this.isbnIndex = new HashMap<>();
+        this.textIndex = new TextIndex();
+        this.bitmaps = new CatalogBitmaps();
+        this.unshelved = new HashMap<>();
+        this.shelfNumbers = new Shelf[16];
+        this.sparseShelfNumbers = new HashMap<>();
         this.shelves = new HashMap<>();
-        this.readers = new ArrayList<>();
+        this.readers = new IntHashMap<>();
+        this.loans = new LoanIndex();
+        this.stats = new LibraryStats();
+        this.holds = new HoldQueue();
+        this.readyHolds = new ConcurrentLinkedQueue<>();
+        this.metrics = LibraryMetrics.none();
     }
 
     /**
@@ -54,302 +105,1057 @@ public class Library {
      * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
      */
     public Code init(String filename) {
-        Scanner scan = null;
-        File file = new File(filename);
-        String lineInput;
-        Integer recordCount;
-        Code returnedCode;  // A returned Code from method calls.
+        return init(filename, false);
+    }
+
+    /**
+     * This method init() parses the file like init(String), but when parallel is true the books section is
+     * parsed on a ForkJoinPool (see initBooksParallel()).  The shelves and readers are always parsed in order.
+     * @param filename a String representation of the file's name including .csv extension.  Must be located at
+     *                 the same level as the src folder.
+     * @param parallel True to parse the books section in parallel
+     * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
+     */
+    public Code init(String filename, boolean parallel) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        return metrics.record(LibraryMetrics.Operation.INIT, start, initUntimed(filename, parallel));
+    }
+
+    private Code initUntimed(String filename, boolean parallel) {
+        LibraryFileReader file;
+        Code returnedCode;
+
+        if(journal != null) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: Close the journal before reading " + filename + ".");
+            }
+            return Code.LIBRARY_ERROR;
+        }
 
         try {
-            scan = new Scanner(file);
-        } catch(FileNotFoundException e) {
-            System.out.println(Code.FILE_NOT_FOUND_ERROR.getMessage());
+            file = new LibraryFileReader(filename);
+        } catch(IOException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, Code.FILE_NOT_FOUND_ERROR.getMessage());
+            }
 //            e.printStackTrace();
             return Code.FILE_NOT_FOUND_ERROR;
         }
 
-        //<------------------ PARSE BOOKS SECTION
-        try {
-            lineInput = scan.nextLine().trim();
-        } catch(NoSuchElementException e) {
-            System.out.println("NOTE: File is empty.  No book, shelf, or reader to parse.");
-            return Code.SHELF_COUNT_ERROR;
+        locks.catalogWriteLock().lock();
+        try(file) {
+            loadAllMappedBooksLocked();
+            returnedCode = init(file, parallel);
+        } catch(IOException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: Could not read " + filename + ". " + e.getMessage());
+            }
+            return Code.UNKNOWN_ERROR;
+        } finally {
+            locks.catalogWriteLock().unlock();
         }
 
-        recordCount = convertInt(lineInput, Code.BOOK_COUNT_ERROR);
-
-        if(recordCount < 0) {
-            returnedCode = errorCode(recordCount);
-            return returnedCode;
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, "Read " + file.getLineCount() + " lines in " + file.getElapsedMillis()
+                    + " ms (" + file.getLinesPerSecond() + " lines per second).");
         }
+        return returnedCode;
+    }
 
-        System.out.println("Parsing " + recordCount + " books from file.");
-        returnedCode = initBooks(recordCount, scan);
-
-        System.out.println("PARSE BOOKS STATUS: " + returnedCode);
-        System.out.println();
-        listBooks();
-        System.out.println();
+    /**
+     * This method saveSnapshot() saves the books, shelves, and readers of the library to a binary snapshot file
+     * (see LibrarySnapshot).  Circulation waits while the snapshot is written.
+     * @param filename the snapshot file.  An existing file is replaced.
+     * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
+     */
+    public Code saveSnapshot(String filename) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        return metrics.record(LibraryMetrics.Operation.SAVE_SNAPSHOT, start, saveSnapshotUntimed(filename));
+    }
 
-        //<------------------ PARSE SHELF SECTION
+    private Code saveSnapshotUntimed(String filename) {
+        locks.catalogWriteLock().lock();
         try {
-            lineInput = scan.nextLine().trim();
-        } catch(NoSuchElementException e) {
-            System.out.println("NOTE: No shelf or reader to parse in file.");
-            return Code.SHELF_COUNT_ERROR;
-        }
-
-        recordCount = convertInt(lineInput, Code.SHELF_COUNT_ERROR);
+            loadAllMappedBooksLocked();
+            // Books with the same ISBN are saved in the order they were added so getBookByISBN() stays the same.
+            List<Book> catalog = new ArrayList<>(books.size());
+            for(List<Book> isbnBooks : isbnIndex.values()) {
+                catalog.addAll(isbnBooks);
+            }
+            List<Reader> readerList = new ArrayList<>(readers.size());
+            for(Reader reader : readers) {
+                readerList.add(reader);
+            }
 
-        if(recordCount < 0) {
-            returnedCode = errorCode(recordCount);
-            return returnedCode;
+            long sequence = journal != null ? journal.getSequence() : journalSequence;
+            new LibrarySnapshot(catalog, books, new ArrayList<>(shelves.values()), readerList, sequence)
+                    .write(filename);
+            return Code.SUCCESS;
+        } catch(IOException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: Could not save snapshot " + filename + ". " + e.getMessage());
+            }
+            return Code.UNKNOWN_ERROR;
+        } finally {
+            locks.catalogWriteLock().unlock();
         }
+    }
 
-        System.out.println("Parsing " + recordCount + " shelves from file.");
-        returnedCode = initShelves(recordCount, scan);
+    /**
+     * This method loadSnapshot() replaces the books, shelves, and readers of the library with the ones saved by
+     * saveSnapshot().  If the snapshot can not be read, the library is not changed.
+     * @param filename the snapshot file
+     * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
+     */
+    public Code loadSnapshot(String filename) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        return metrics.record(LibraryMetrics.Operation.LOAD_SNAPSHOT, start, loadSnapshotUntimed(filename));
+    }
 
-        System.out.println("PARSE SHELF STATUS: " + returnedCode);
-        System.out.println();
-        returnedCode = listShelves(true);
-        System.out.println();
+    private Code loadSnapshotUntimed(String filename) {
+        LibrarySnapshot snapshot;
+        if(journal != null) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: Close the journal before loading " + filename + ".");
+            }
+            return Code.LIBRARY_ERROR;
+        }
 
-        //<------------------ PARSE READER SECTION
         try {
-            lineInput = scan.nextLine().trim();
-        } catch(NoSuchElementException e) {
-            System.out.println("NOTE: No readers in file.");
-            return Code.READER_COUNT_ERROR;
+            snapshot = LibrarySnapshot.read(filename);
+        } catch(NoSuchFileException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, Code.FILE_NOT_FOUND_ERROR.getMessage());
+            }
+            return Code.FILE_NOT_FOUND_ERROR;
+        } catch(StreamCorruptedException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: " + Code.SNAPSHOT_ERROR.getMessage() + ". " + e.getMessage());
+            }
+            return Code.SNAPSHOT_ERROR;
+        } catch(IOException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: Could not read snapshot " + filename + ". " + e.getMessage());
+            }
+            return Code.UNKNOWN_ERROR;
         }
 
-        recordCount = convertInt(lineInput, Code.READER_COUNT_ERROR);
-
-        if(recordCount < 0) {
-            returnedCode = errorCode(recordCount);
-            return returnedCode;
-        }
+        locks.catalogWriteLock().lock();
+        try {
+            books = snapshot.getCopies();
+            isbnIndex.clear();
+            textIndex.clear();
+            for(Book book : snapshot.getBooks()) {
+                isbnIndex.computeIfAbsent(book.getIsbn(), isbn -> new ArrayList<>(1)).add(book);
+                textIndex.add(book);
+            }
 
-        System.out.println("Parsing " + recordCount + " readers from file.");
-        returnedCode = initReader(recordCount, scan);
+            stats.clear();
+            stats.addCopies(books.total());
+            shelves.clear();
+            shelfNumbers = new Shelf[16];
+            sparseShelfNumbers.clear();
+            for(Shelf shelf : snapshot.getShelves()) {
+                shelves.put(shelf.getSubject(), shelf);
+                indexShelfNumber(shelf);
+                stats.addShelf(shelf);
+            }
+            unshelved.clear();
+            bitmaps.clear();
+            for(Book book : snapshot.getBooks()) {
+                if(!shelves.containsKey(book.getSubject())) {
+                    addUnshelved(book.getKey());
+                }
+                bitmaps.add(book);
+            }
+            for(Shelf shelf : shelves.values()) {
+                shelf.setCountListener(bitmaps::setAvailable);  // Marks the books on the shelf available
+            }
 
-        System.out.println("PARSE READER STATUS: " + returnedCode);
-//        System.out.println();
-//        int count = listReaders(true);
-//        System.out.println("Number of readers: " + count);
-        System.out.println();
+            readers.clear();
+            loans.clear();
+            for(Reader reader : snapshot.getReaders()) {
+                readers.put(reader.getCardNumber(), reader);
+                libraryCard.accumulateAndGet(reader.getCardNumber(), Math::max);
+                indexLoans(reader);
+                stats.addReader(reader.getBookCount());
+            }
+            journalSequence = snapshot.getJournalSequence();
+            catalog = null;
+        } finally {
+            locks.catalogWriteLock().unlock();
+        }
 
-        System.out.println("FINISHED PARSING FROM FILE.\n");
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, "Loaded " + books.total() + " books, " + shelves.size() + " shelves, and "
+                    + readers.size() + " readers from " + filename + ".");
+        }
         return Code.SUCCESS;
     }
 
     /**
-     * This method initBooks() parses bookCount number of lines from the scan and creates a new Book from each line.
-     * WARNING: A bad pageCount or dueDate displays a warning and discards that book entry.
-     * @param bookCount the number of lines to read from scan.  A line represents one book data entry.
-     * @param scan the Scanner of the file being used for data input
+     * This method saveCatalog() saves the books, shelves, and readers of the library as a catalog file that
+     * openCatalog() can map (see MappedCatalog).  Circulation waits while the catalog is written.
+     * @param filename the catalog file.  An existing file is replaced.
      * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
      */
-    private Code initBooks(int bookCount, Scanner scan) {
-        String newBookEntry;  // line scan for a book's data
+    public Code saveCatalog(String filename) {
+        locks.catalogWriteLock().lock();
+        try {
+            loadAllMappedBooksLocked();
+            List<Book> catalogBooks = new ArrayList<>(books.size());
+            for(List<Book> isbnBooks : isbnIndex.values()) {
+                catalogBooks.addAll(isbnBooks);
+            }
+            List<Reader> readerList = new ArrayList<>(readers.size());
+            for(Reader reader : readers) {
+                readerList.add(reader);
+            }
 
-        if(bookCount < 1) {
-            System.out.println("Error in initBooks(): bookCount is less than 1.");
+            long sequence = journal != null ? journal.getSequence() : journalSequence;
+            MappedCatalog.write(filename, catalogBooks, books, new ArrayList<>(shelves.values()), readerList,
+                    sequence);
+            return Code.SUCCESS;
+        } catch(IOException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: Could not save catalog " + filename + ". " + e.getMessage());
+            }
+            return Code.UNKNOWN_ERROR;
+        } finally {
+            locks.catalogWriteLock().unlock();
+        }
+    }
+
+    /**
+     * This method openCatalog() replaces the books, shelves, and readers of the library with the ones in a catalog
+     * file saved by saveCatalog().  Only the shelves, readers, copy counts, and where each subject's books are
+     * stored are read.  The books with an ISBN are created from the mapped file the first time the ISBN is used
+     * (ex. getBookByISBN() or checkOutBook()), methods that return a shelf create the books of its subject first,
+     * and methods that list every book create the rest.  The stats count the copies on each shelf from the start.
+     * @param filename the catalog file
+     * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
+     */
+    public Code openCatalog(String filename) {
+        MappedCatalog mapped;
+        if(journal != null) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: Close the journal before opening " + filename + ".");
+            }
             return Code.LIBRARY_ERROR;
         }
 
-        for(int i = 0; i < bookCount; i++) {
-            try {
-                newBookEntry = scan.nextLine().trim();
-            } catch(NoSuchElementException e) {
-                System.out.println("ERROR: Could not parse book entry.");
-                return Code.BOOK_COUNT_ERROR;
+        try {
+            mapped = MappedCatalog.open(filename);
+        } catch(NoSuchFileException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, Code.FILE_NOT_FOUND_ERROR.getMessage());
+            }
+            return Code.FILE_NOT_FOUND_ERROR;
+        } catch(StreamCorruptedException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: " + Code.SNAPSHOT_ERROR.getMessage() + ". " + e.getMessage());
             }
+            return Code.SNAPSHOT_ERROR;
+        } catch(IOException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: Could not open catalog " + filename + ". " + e.getMessage());
+            }
+            return Code.UNKNOWN_ERROR;
+        }
 
-            System.out.println("-> Parsing book: " + newBookEntry);
-            List<String> bookFields = Arrays.asList(newBookEntry.split(","));
+        locks.catalogWriteLock().lock();
+        try {
+            books = new CopyCounter<>();
+            isbnIndex.clear();
+            textIndex.clear();
+            bitmaps.clear();
+            unshelved.clear();
+
+            stats.clear();
+            stats.addCopies(mapped.getTotalCopies());  // Books are counted before they are loaded
+            shelves.clear();
+            shelfNumbers = new Shelf[16];
+            sparseShelfNumbers.clear();
+            for(Shelf shelf : mapped.getShelves()) {
+                shelves.put(shelf.getSubject(), shelf);
+                indexShelfNumber(shelf);
+                stats.addShelf(shelf);
+                shelf.setCountListener(bitmaps::setAvailable);
+            }
+            mapped.getShelvedCopies().forEach((subject, copies) -> {
+                if(copies > 0) {
+                    stats.addMappedShelfCopies(subject, copies);  // Taken off as the books are loaded
+                }
+            });
+
+            readers.clear();
+            loans.clear();
+            for(Reader reader : mapped.getReaders()) {
+                readers.put(reader.getCardNumber(), reader);
+                libraryCard.accumulateAndGet(reader.getCardNumber(), Math::max);
+                indexLoans(reader);
+                stats.addReader(reader.getBookCount());
+            }
+            journalSequence = mapped.getJournalSequence();
+            catalog = mapped;
+        } finally {
+            locks.catalogWriteLock().unlock();
+        }
 
-            // There must be 6 fields to create a valid book.
-            if(bookFields.size() == 6) {
-                Code returnedCode;
-                String isbn = bookFields.get(Book.ISBN_).trim();
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, "Mapped " + mapped.size() + " books, " + shelves.size() + " shelves, and "
+                    + readers.size() + " readers from " + filename + ".");
+        }
+        return Code.SUCCESS;
+    }
 
-                String title = bookFields.get(Book.TITLE_).trim();
+    /**
+     * This method loadMappedBooks() creates the books with an ISBN from the mapped catalog if they have not been
+     * created yet.  The check does not lock, so books that are already loaded cost one table lookup.
+     * @param isbn the ISBN about to be used
+     */
+    private void loadMappedBooks(String isbn) {
+        MappedCatalog mapped = catalog;
+        if(mapped == null || isbn == null) {
+            return;
+        }
+        int first = mapped.find(isbn);
+        if(first < 0 || mapped.isLoaded(first)) {
+            return;
+        }
 
-                String subject = bookFields.get(Book.SUBJECT_).trim();
+        locks.catalogWriteLock().lock();
+        try {
+            loadMappedBooksLocked(isbn);
+        } finally {
+            locks.catalogWriteLock().unlock();
+        }
+    }
 
-                int pageCount = convertInt(bookFields.get(Book.PAGE_COUNT_).trim(), Code.PAGE_COUNT_ERROR);
-                if(pageCount < 0) {
-                    returnedCode = errorCode(pageCount); // Decided to continue parsing and just discards entry.
-                    System.out.println("ERROR: Invalid page count entry.");
-                    System.out.println("WARNING: Could not parse book entry due to error. BOOK ENTRY DISCARDED.");
-                    continue;
-                }
+    /**
+     * This method loadMappedBooksLocked() does the work of loadMappedBooks().  The caller must hold the catalog
+     * write lock.
+     * @param isbn the ISBN about to be used
+     */
+    private void loadMappedBooksLocked(String isbn) {
+        if(catalog == null || isbn == null) {
+            return;
+        }
+        int first = catalog.find(isbn);
+        if(first >= 0 && !catalog.isLoaded(first)) {
+            loadMappedRange(first, catalog.findEnd(first));
+        }
+    }
 
-                String author = bookFields.get(Book.AUTHOR_).trim();
+    /**
+     * This method loadMappedSubject() creates the books of a subject from the mapped catalog if they have not been
+     * created yet, so its shelf has all of its books without loading the other subjects.
+     * @param subject the subject of the shelf about to be used
+     */
+    private void loadMappedSubject(String subject) {
+        if(catalog == null) {
+            return;
+        }
+        locks.catalogWriteLock().lock();
+        try {
+            loadMappedSubjectLocked(subject);
+        } finally {
+            locks.catalogWriteLock().unlock();
+        }
+    }
 
-                LocalDate dueDate = convertDate(bookFields.get(Book.DUE_DATE_).trim(), Code.DATE_CONVERSION_ERROR);
-                if(dueDate == null) {
-                    System.out.println("ERROR: Invalid date conversion.");
-                    System.out.println("WARNING: Could not parse book entry due to error. BOOK ENTRY DISCARDED.");
-                    continue;
-                }
+    /**
+     * This method loadMappedSubjectLocked() does the work of loadMappedSubject().  The caller must hold the catalog
+     * write lock.
+     * @param subject the subject of the shelf about to be used
+     */
+    private void loadMappedSubjectLocked(String subject) {
+        if(catalog == null) {
+            return;
+        }
+        for(int first : catalog.getSubjectBooks(subject)) {
+            if(!catalog.isLoaded(first)) {
+                loadMappedRange(first, catalog.findEnd(first));
+            }
+        }
+    }
+
+    /**
+     * This method loadAllMappedBooks() creates every book of the mapped catalog that is not loaded yet, so the
+     * library no longer needs the catalog file.
+     */
+    private void loadAllMappedBooks() {
+        if(catalog == null) {
+            return;
+        }
+        locks.catalogWriteLock().lock();
+        try {
+            loadAllMappedBooksLocked();
+        } finally {
+            locks.catalogWriteLock().unlock();
+        }
+    }
 
-                Book newBook = new Book(isbn, title, subject, pageCount, author, dueDate);
-                returnedCode = addBook(newBook);
+    /**
+     * This method loadAllMappedBooksLocked() does the work of loadAllMappedBooks().  The caller must hold the
+     * catalog write lock.
+     */
+    private void loadAllMappedBooksLocked() {
+        if(catalog == null) {
+            return;
+        }
+        for(int first = 0; first < catalog.size(); ) {
+            int end = catalog.findEnd(first);
+            if(!catalog.isLoaded(first)) {
+                loadMappedRange(first, end);
+            }
+            first = end;
+        }
+        catalog = null;
+    }
 
+    /**
+     * This method loadMappedRange() creates the books from first to end, which all have the same ISBN, and puts
+     * their copies in the stacks and on their shelf.  A book whose shelf was added after the catalog was saved
+     * gets all of its copies on the shelf, like addShelf() does.
+     * @param first the index of the first book with the ISBN
+     * @param end the index after the last book with the ISBN
+     */
+    private void loadMappedRange(int first, int end) {
+        for(int i = first; i < end; i++) {
+            Book book = catalog.getBook(i);
+            int copies = catalog.getCopies(i);
+            books.set(book.getKey(), copies);
+            isbnIndex.computeIfAbsent(book.getIsbn(), isbn -> new ArrayList<>(1)).add(book);
+            textIndex.add(book);
+            bitmaps.add(book);
+
+            Shelf bookShelf = shelves.get(book.getSubject());
+            int shelfCopies = catalog.getShelfCopies(i);
+            if(shelfCopies > 0) {
+                stats.addMappedShelfCopies(book.getSubject(), -shelfCopies);  // Now counted by the shelf
+            }
+            if(bookShelf == null) {
+                addUnshelved(book.getKey());
+            } else if(shelfCopies >= 0) {
+                bookShelf.setBookCount(book, shelfCopies);
             } else {
-                return Code.UNKNOWN_ERROR;
+                bookShelf.addBook(book, copies);
             }
         }
-        return Code.SUCCESS;
+        catalog.setLoaded(first);
     }
 
     /**
-     * This method initShelves() parses shelfCount number of lines from the scan and creates a new Shelf
-     * from each line.
-     * WARNING: A bad shelfNumber results in that record being discarded.
-     * @param shelfCount the number of lines to read from scan.  A line represents one shelf data entry.
-     * @param scan the Scanner of the file being used for data input
+     * This method openJournal() starts recording every change to the library in a journal file (see Journal).  If
+     * the file already has entries newer than the library (ex. the library was just loaded from the snapshot saved
+     * before them), they are replayed first so the library is back where it was when the journal was last written.
+     * @param filename the journal file.  It is created if it does not exist.
+     * @param sync True to fsync entries before the changes return.  False is faster, but the last changes can be
+     *             lost if the computer (not just the program) stops.
      * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
      */
-    private Code initShelves(int shelfCount, Scanner scan) {
-        String newShelfEntry;  // line scan for a shelf's data
+    public Code openJournal(String filename, boolean sync) {
+        locks.catalogWriteLock().lock();
+        try {
+            if(journal != null) {
+                if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                    LibraryLog.log(LogLevel.ERROR, "ERROR: A journal is already open.");
+                }
+                return Code.LIBRARY_ERROR;
+            }
 
-        if(shelfCount < 1) {
-            System.out.println("Error in initShelves(): shelfCount is less than 1.");
-            return Code.SHELF_COUNT_ERROR;
+            long replayedSequence = journalSequence;
+            journal = Journal.open(filename, journalSequence, sync, this::replay);
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "Replayed " + (journalSequence - replayedSequence)
+                        + " journal entries from " + filename + ".");
+            }
+            return Code.SUCCESS;
+        } catch(IOException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: Could not open journal " + filename + ". " + e.getMessage());
+            }
+            return Code.JOURNAL_ERROR;
+        } finally {
+            locks.catalogWriteLock().unlock();
         }
+    }
 
-        for(int i = 0; i < shelfCount; i++) {
-            try {
-                newShelfEntry = scan.nextLine().trim();
-            } catch(NoSuchElementException e) {
-                System.out.println("ERROR: Could not parse shelf entry.");
-                return Code.SHELF_COUNT_ERROR;
+    /**
+     * This method closeJournal() writes the last entries of the journal and stops recording changes.
+     * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
+     */
+    public Code closeJournal() {
+        locks.catalogWriteLock().lock();
+        try {
+            if(journal == null) {
+                return Code.SUCCESS;
             }
+            journalSequence = journal.getSequence();
+            journal.close();
+            return Code.SUCCESS;
+        } catch(IOException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: Could not close journal. " + e.getMessage());
+            }
+            return Code.JOURNAL_ERROR;
+        } finally {
+            journal = null;
+            locks.catalogWriteLock().unlock();
+        }
+    }
 
-            System.out.println("-> Parsing shelf: " + newShelfEntry);
-            List<String> shelfFields = Arrays.asList(newShelfEntry.split(","));
-
-            // There must be 2 fields to create a valid shelf.
-            if(shelfFields.size() == 2) {
-                Code returnedCode;
-
-                int shelfNumber = convertInt(shelfFields.get(Shelf.SHELF_NUMBER_).trim(),
-                        Code.SHELF_NUMBER_PARSE_ERROR);
-                if(shelfNumber < 0) {
-                    returnedCode = errorCode(shelfNumber); // Decided to continue parsing and just discards entry.
-                    System.out.println("WARNING: Could not parse shelf due to error. SHELF ENTRY DISCARDED.");
-                    continue;
+    /**
+     * This method compactJournal() saves a snapshot holding every journal entry and then empties the journal, so
+     * the journal does not grow forever and a restart only replays the changes made after the snapshot.  If the
+     * snapshot can not be saved, the journal is kept.
+     * @param snapshotFilename the snapshot file.  An existing file is replaced.
+     * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
+     */
+    public Code compactJournal(String snapshotFilename) {
+        locks.catalogWriteLock().lock();
+        try {
+            if(journal == null) {
+                if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                    LibraryLog.log(LogLevel.ERROR, "ERROR: There is no journal to compact.");
                 }
+                return Code.LIBRARY_ERROR;
+            }
 
-                String subject = shelfFields.get(Shelf.SUBJECT_).trim();
-
-                Shelf newShelf = new Shelf();
-                newShelf.setShelfNumber(shelfNumber);
-                newShelf.setSubject(subject);
-                returnedCode = addShelf(newShelf);
+            Code returnedCode = saveSnapshot(snapshotFilename);
+            if(returnedCode != Code.SUCCESS) {
+                return returnedCode;
+            }
+            journal.reset(journal.getSequence());
+            return Code.SUCCESS;
+        } catch(IOException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: Could not compact journal. " + e.getMessage());
+            }
+            return Code.JOURNAL_ERROR;
+        } finally {
+            locks.catalogWriteLock().unlock();
+        }
+    }
 
-                /*
-                WARNING: This section of code causes duplicate book on shelf error so do NOT use.
-                Books are added to shelf in the addShelf(Shelf) method.
-                // If newShelf was added successfully, loop through all books and add books with matching subjects
-                if(returnedCode == Code.SUCCESS) {
-                    for(Map.Entry<Book,Integer> book : books.entrySet()) {
-                        if(book.getKey().getSubject().equals(subject)) {
-                            int bookValue = book.getValue();
-                            for(int num = 0; num < bookValue; num++) {
-                                System.out.println("Adding: " + num);
-                                addBookToShelf(book.getKey(),newShelf);
-//                                newShelf.addBook(book.getKey()); // Using addBookToShelf instead of addBook()
-                            }
-                        }
-                    }
+    /**
+     * This method replay() applies one journal entry to the library while the journal is being opened.  Only the
+     * changes that changed the library when they were recorded are applied again, so the same Code is expected.
+     * @param entry the journal entry
+     */
+    private void replay(Journal.Entry entry) {
+        Code recordedCode = entry.getCode();
+        Code returnedCode = recordedCode;
+        Reader reader = readers.get(entry.getCardNumber());
+
+        switch(entry.getOperation()) {
+            case ADD_BOOK:
+                // A book is added to the library even if it has no shelf yet (Code.SHELF_EXISTS_ERROR).
+                returnedCode = addBook(entry.getBook());
+                break;
+            case RETURN:
+                if(recordedCode == Code.SUCCESS || recordedCode == Code.SHELF_EXISTS_ERROR) {
+                    returnedCode = returnBook(reader, entry.getBook());
                 }
-                */
-            }
+                break;
+            case RETURN_TO_SHELF:
+                if(recordedCode == Code.SUCCESS) {
+                    returnedCode = returnBook(entry.getBook());
+                }
+                break;
+            case CHECK_OUT:
+                if(recordedCode == Code.SUCCESS) {
+                    Book book = findBook(entry.getBook());
+                    book = book == null ? entry.getBook() : book;
+                    returnedCode = checkOutBook(reader, book);
+                    setDueDate(reader, book, entry.getBook().getDueDate());
+                }
+                break;
+            case ADD_SHELF:
+                if(recordedCode == Code.SUCCESS) {
+                    returnedCode = addShelf(entry.getShelf());
+                }
+                break;
+            case ADD_READER:
+                if(recordedCode == Code.SUCCESS) {
+                    returnedCode = addReader(entry.getReader());
+                }
+                break;
+            case REMOVE_READER:
+                if(recordedCode == Code.SUCCESS) {
+                    returnedCode = reader == null ? Code.READER_NOT_IN_LIBRARY_ERROR : removeReader(reader);
+                }
+                break;
         }
 
-        // Only time number of shelves does not match input counter is when a bad entry was discarded.
-        if(shelfCount == shelves.size())
-        {
-            return Code.SUCCESS;
-        } else {
-            System.out.println("WARNING: " + (shelfCount - shelves.size())
-                    + " shelf entries were lost due to errors.");
-            return Code.SHELF_NUMBER_PARSE_ERROR;
+        if(returnedCode != recordedCode && LibraryLog.isEnabled(LogLevel.WARNING)) {
+            LibraryLog.log(LogLevel.WARNING, "WARNING: Journal entry " + entry.getSequence() + " "
+                    + entry.getOperation() + " returned " + returnedCode + " instead of " + recordedCode + ".");
         }
+        journalSequence = entry.getSequence();
     }
 
     /**
-     * This method initReader() parses readerCount number of lines from the scan and creates a new reader from
-     * each line.
-     * WARNING: A bad pageCount or dueDate displays a warning and discards that book entry.
-     * WARNING: cardNumber for a reader is being set by library card class variable and NOT the first entry
-     * in the scan line.  The design for library card number in this program needs to be better thought out.
-     * @param readerCount the number of readers to scan.  A line represents one reader data entry.
-     * @param scan the Scanner of the file being used for data input
-     * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
+     * This method record() appends a change to the journal if one is open.  The caller must still hold the locks
+     * used for the change, so the journal lists changes in the order they were made.
+     * @param operation the change
+     * @param code the Code the change returned
+     * @param reader the reader or null if the change has no reader
+     * @param book the book or null if the change has no book
+     * @return the sequence number of the entry, or 0 if there is no journal
      */
-    private Code initReader(int readerCount, Scanner scan) {
-        String newReaderEntry;  // line scan for a readers's data
+    private long record(Journal.Operation operation, Code code, Reader reader, Book book) {
+        Journal current = journal;
+        if(current == null) {
+            return 0;
+        }
+        return current.append(operation, code, reader == null ? 0 : reader.getCardNumber(), book);
+    }
 
-        if(readerCount < 1) {
-            System.out.println("Error in initReader(): readerCount is less than 1.");
-            return Code.READER_COUNT_ERROR;
+    /**
+     * This method recordCheckOut() appends a checkout to the journal if one is open.  A successful checkout is
+     * recorded with the reader's copy, so the entry has the copy's due date.
+     * @param code the Code the checkout returned
+     * @param reader the reader
+     * @param book the book being checked out
+     * @return the sequence number of the entry, or 0 if there is no journal
+     */
+    private long recordCheckOut(Code code, Reader reader, Book book) {
+        if(journal == null) {
+            return 0;
         }
+        Loan loan = code == Code.SUCCESS ? loans.get(reader, book) : null;
+        return record(Journal.Operation.CHECK_OUT, code, reader, loan == null ? book : loan.getBook());
+    }
 
-        for(int i = 0; i < readerCount; i++) {
-            try {
-                newReaderEntry = scan.nextLine().trim();
-            } catch(NoSuchElementException e) {
-                System.out.println("ERROR: Could not parse reader entry.");
-                return Code.READER_COUNT_ERROR;
-            }
+    /**
+     * This method awaitRecord() waits until the journal entry for a change is written.  It is called after the
+     * locks are released, so other threads keep working while the entry is written with theirs.
+     * @param entry the sequence number record() returned
+     * @param code the Code the change returned
+     * @return code, or Code.JOURNAL_ERROR if the entry could not be written.
+     */
+    private Code awaitRecord(long entry, Code code) {
+        Journal current = journal;
+        if(entry == 0 || current == null || current.await(entry)) {
+            return code;
+        }
+        if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+            LibraryLog.log(LogLevel.ERROR, "ERROR: " + Code.JOURNAL_ERROR.getMessage() + ". The change was made but "
+                    + "may be lost after a restart.");
+        }
+        return Code.JOURNAL_ERROR;
+    }
+
+    /**
+     * This method awaitRecords() waits until the last journal entry of a batch is written.
+     * @param entry the sequence number of the last entry of the batch
+     * @param codes the Codes the batch returned
+     * @return codes, with every Code set to Code.JOURNAL_ERROR if the entries could not be written.
+     */
+    private Code[] awaitRecords(long entry, Code[] codes) {
+        if(awaitRecord(entry, Code.SUCCESS) != Code.SUCCESS) {
+            Arrays.fill(codes, Code.JOURNAL_ERROR);
+        }
+        return codes;
+    }
+
+    /**
+     * This method init() parses each section of the file being read by the LibraryFileReader.  Each section starts
+     * with a line holding the number of records in that section.
+     * @param file the LibraryFileReader of the file being used for data input
+     * @param parallel True to parse the books section in parallel
+     * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
+     * @throws IOException if the file could not be read.
+     */
+    private Code init(LibraryFileReader file, boolean parallel) throws IOException {
+        String lineInput;
+        Integer recordCount;
+        Code returnedCode;  // A returned Code from method calls.
+
+        //<------------------ PARSE BOOKS SECTION
+        if(!file.nextLine()) {
+            LibraryLog.log(LogLevel.WARNING, "NOTE: File is empty.  No book, shelf, or reader to parse.");
+            return Code.SHELF_COUNT_ERROR;
+        }
+        lineInput = file.getLine();
+
+        recordCount = convertInt(lineInput, Code.BOOK_COUNT_ERROR);
+
+        if(recordCount < 0) {
+            returnedCode = errorCode(recordCount);
+            return returnedCode;
+        }
+
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, "Parsing " + recordCount + " books from file.");
+        }
+        if(parallel) {
+            returnedCode = initBooksParallel(recordCount, file);
+        } else {
+            returnedCode = initBooks(recordCount, file);
+        }
+
+        if(LibraryLog.isEnabled(LogLevel.DEBUG)) {
+            LibraryLog.log(LogLevel.DEBUG, "PARSE BOOKS STATUS: " + returnedCode);
+            LibraryLog.log(LogLevel.DEBUG, "");
+            listBooks();
+            LibraryLog.log(LogLevel.DEBUG, "");
+        }
+
+        //<------------------ PARSE SHELF SECTION
+        if(!file.nextLine()) {
+            LibraryLog.log(LogLevel.WARNING, "NOTE: No shelf or reader to parse in file.");
+            return Code.SHELF_COUNT_ERROR;
+        }
+        lineInput = file.getLine();
+
+        recordCount = convertInt(lineInput, Code.SHELF_COUNT_ERROR);
+
+        if(recordCount < 0) {
+            returnedCode = errorCode(recordCount);
+            return returnedCode;
+        }
+
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, "Parsing " + recordCount + " shelves from file.");
+        }
+        returnedCode = initShelves(recordCount, file);
+
+        if(LibraryLog.isEnabled(LogLevel.DEBUG)) {
+            LibraryLog.log(LogLevel.DEBUG, "PARSE SHELF STATUS: " + returnedCode);
+            LibraryLog.log(LogLevel.DEBUG, "");
+            listShelves(true);
+            LibraryLog.log(LogLevel.DEBUG, "");
+        }
+
+        //<------------------ PARSE READER SECTION
+        if(!file.nextLine()) {
+            LibraryLog.log(LogLevel.WARNING, "NOTE: No readers in file.");
+            return Code.READER_COUNT_ERROR;
+        }
+        lineInput = file.getLine();
+
+        recordCount = convertInt(lineInput, Code.READER_COUNT_ERROR);
+
+        if(recordCount < 0) {
+            returnedCode = errorCode(recordCount);
+            return returnedCode;
+        }
+
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, "Parsing " + recordCount + " readers from file.");
+        }
+        returnedCode = initReader(recordCount, file);
+
+        if(LibraryLog.isEnabled(LogLevel.DEBUG)) {
+            LibraryLog.log(LogLevel.DEBUG, "PARSE READER STATUS: " + returnedCode);
+        }
+//        System.out.println();
+//        int count = listReaders(true);
+//        System.out.println("Number of readers: " + count);
+        LibraryLog.log(LogLevel.DEBUG, "");
+
+        LibraryLog.log(LogLevel.INFO, "FINISHED PARSING FROM FILE.\n");
+        return Code.SUCCESS;
+    }
+
+    /**
+     * This method initBooks() parses bookCount number of lines from the file and creates a new Book from each line.
+     * WARNING: A bad pageCount or dueDate displays a warning and discards that book entry.
+     * @param bookCount the number of lines to read from the file.  A line represents one book data entry.
+     * @param file the LibraryFileReader of the file being used for data input
+     * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
+     */
+    private Code initBooks(int bookCount, LibraryFileReader file) throws IOException {
+        String newBookEntry;  // line scan for a book's data
+
+        if(bookCount < 1) {
+            LibraryLog.log(LogLevel.WARNING, "Error in initBooks(): bookCount is less than 1.");
+            return Code.LIBRARY_ERROR;
+        }
+
+        for(int i = 0; i < bookCount; i++) {
+            if(!file.nextLine()) {
+                LibraryLog.log(LogLevel.WARNING, "ERROR: Could not parse book entry.");
+                return Code.BOOK_COUNT_ERROR;
+            }
+            newBookEntry = file.getLine();
+
+            if(initBook(newBookEntry, file.fields()) == Code.UNKNOWN_ERROR) {
+                return Code.UNKNOWN_ERROR;
+            }
+        }
+        return Code.SUCCESS;
+    }
+
+    /**
+     * This method initBooksParallel() does the same work as initBooks(), but the book lines are parsed in chunks
+     * on a ForkJoinPool by BookChunkTask.  Each chunk's Book to copy count table is merged into books in file
+     * order, so each book is added (and put on its shelf) once with all of its copies instead of once per copy.
+     * Lines with a bad pageCount or dueDate are parsed again by initBook() in file order, so the warnings and
+     * discarded entries are the same as initBooks().
+     * @param bookCount the number of lines to read from the file.  A line represents one book data entry.
+     * @param file the LibraryFileReader of the file being used for data input
+     * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
+     */
+    private Code initBooksParallel(int bookCount, LibraryFileReader file) throws IOException {
+        if(bookCount < 1) {
+            LibraryLog.log(LogLevel.WARNING, "Error in initBooks(): bookCount is less than 1.");
+            return Code.LIBRARY_ERROR;
+        }
+
+        // Reading the file has to be in order, only the parsing is done in parallel.  Like initBooks(), reading
+        // stops after a line without 6 fields, so the next section is read from the same line in both modes.
+        List<String> bookEntries = new ArrayList<>(Math.min(bookCount, 1 << 20));
+        boolean missingEntries = false;
+        for(int i = 0; i < bookCount; i++) {
+            if(!file.nextLine()) {
+                missingEntries = true;
+                break;
+            }
+            bookEntries.add(file.getLine());
+            if(file.fields().size() != 6) {
+                break;
+            }
+        }
+
+        List<BookChunkTask.Chunk> chunks = ForkJoinPool.commonPool()
+                .invoke(new BookChunkTask(bookEntries, 0, bookEntries.size()));
+
+        FieldTokenizer bookFields = new FieldTokenizer();
+        int copies = 0;
+        for(BookChunkTask.Chunk chunk : chunks) {
+            List<Integer> flaggedLines = chunk.getFlaggedLines();
+            for(int run = 0; run < chunk.getRuns().size(); run++) {
+                for(Map.Entry<Book, Integer> book : chunk.getRuns().get(run).entrySet()) {
+                    addBooks(book.getKey(), book.getValue());
+                    copies = copies + book.getValue();
+                }
+                if(run < flaggedLines.size()) {
+                    String newBookEntry = bookEntries.get(flaggedLines.get(run));
+                    bookFields.reset(newBookEntry);
+                    initBook(newBookEntry, bookFields);
+                }
+            }
+
+            if(chunk.getStopLine() >= 0) {
+                String newBookEntry = bookEntries.get(chunk.getStopLine());
+                bookFields.reset(newBookEntry);
+                return initBook(newBookEntry, bookFields);
+            }
+        }
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, "Added " + copies + " copies from " + chunks.size() + " parallel chunks.");
+        }
+
+        if(missingEntries) {
+            LibraryLog.log(LogLevel.WARNING, "ERROR: Could not parse book entry.");
+            return Code.BOOK_COUNT_ERROR;
+        }
+        return Code.SUCCESS;
+    }
+
+    /**
+     * This method initBook() creates a new Book from one book line and adds it to the library.
+     * WARNING: A bad pageCount or dueDate displays a warning and discards that book entry.
+     * @param newBookEntry the book line
+     * @param bookFields the fields of newBookEntry
+     * @return Code.UNKNOWN_ERROR if the line does not have 6 fields.  Otherwise, the Code of the error that
+     * discarded the entry, or the Code returned by addBook().
+     */
+    private Code initBook(String newBookEntry, FieldTokenizer bookFields) {
+        Code returnedCode;
+        if(LibraryLog.isEnabled(LogLevel.DEBUG)) {
+            LibraryLog.log(LogLevel.DEBUG, "-> Parsing book: " + newBookEntry);
+        }
+
+        // There must be 6 fields to create a valid book.
+        if(bookFields.size() != 6) {
+            return Code.UNKNOWN_ERROR;
+        }
+
+        String isbn = bookFields.get(Book.ISBN_);
+
+        String title = bookFields.get(Book.TITLE_);
+
+        String subject = bookFields.get(Book.SUBJECT_);
+
+        int pageCount = convertInt(bookFields.get(Book.PAGE_COUNT_), Code.PAGE_COUNT_ERROR);
+        if(pageCount < 0) {
+            returnedCode = errorCode(pageCount); // Decided to continue parsing and just discards entry.
+            LibraryLog.log(LogLevel.WARNING, "ERROR: Invalid page count entry.");
+            LibraryLog.log(LogLevel.WARNING, "WARNING: Could not parse book entry due to error. BOOK ENTRY DISCARDED.");
+            return returnedCode;
+        }
+
+        String author = bookFields.get(Book.AUTHOR_);
+
+        LocalDate dueDate = convertDate(bookFields.get(Book.DUE_DATE_), Code.DATE_CONVERSION_ERROR);
+        if(dueDate == null) {
+            LibraryLog.log(LogLevel.WARNING, "ERROR: Invalid date conversion.");
+            LibraryLog.log(LogLevel.WARNING, "WARNING: Could not parse book entry due to error. BOOK ENTRY DISCARDED.");
+            return Code.DATE_CONVERSION_ERROR;
+        }
+
+        Book newBook = new Book(isbn, title, subject, pageCount, author, dueDate);
+        return addBook(newBook);
+    }
+
+    /**
+     * This method initShelves() parses shelfCount number of lines from the file and creates a new Shelf
+     * from each line.
+     * WARNING: A bad shelfNumber results in that record being discarded.
+     * @param shelfCount the number of lines to read from the file.  A line represents one shelf data entry.
+     * @param file the LibraryFileReader of the file being used for data input
+     * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
+     */
+    private Code initShelves(int shelfCount, LibraryFileReader file) throws IOException {
+        String newShelfEntry;  // line scan for a shelf's data
+
+        if(shelfCount < 1) {
+            LibraryLog.log(LogLevel.WARNING, "Error in initShelves(): shelfCount is less than 1.");
+            return Code.SHELF_COUNT_ERROR;
+        }
+
+        for(int i = 0; i < shelfCount; i++) {
+            if(!file.nextLine()) {
+                LibraryLog.log(LogLevel.WARNING, "ERROR: Could not parse shelf entry.");
+                return Code.SHELF_COUNT_ERROR;
+            }
+            newShelfEntry = file.getLine();
+
+            if(LibraryLog.isEnabled(LogLevel.DEBUG)) {
+                LibraryLog.log(LogLevel.DEBUG, "-> Parsing shelf: " + newShelfEntry);
+            }
+            FieldTokenizer shelfFields = file.fields();
+
+            // There must be 2 fields to create a valid shelf.
+            if(shelfFields.size() == 2) {
+                Code returnedCode;
+
+                int shelfNumber = convertInt(shelfFields.get(Shelf.SHELF_NUMBER_),
+                        Code.SHELF_NUMBER_PARSE_ERROR);
+                if(shelfNumber < 0) {
+                    returnedCode = errorCode(shelfNumber); // Decided to continue parsing and just discards entry.
+                    LibraryLog.log(LogLevel.WARNING,
+                            "WARNING: Could not parse shelf due to error. SHELF ENTRY DISCARDED.");
+                    continue;
+                }
+
+                String subject = shelfFields.get(Shelf.SUBJECT_);
+
+                Shelf newShelf = new Shelf();
+                newShelf.setShelfNumber(shelfNumber);
+                newShelf.setSubject(subject);
+                returnedCode = addShelf(newShelf);
+
+                /*
+                WARNING: This section of code causes duplicate book on shelf error so do NOT use.
+                Books are added to shelf in the addShelf(Shelf) method.
+                // If newShelf was added successfully, loop through all books and add books with matching subjects
+                if(returnedCode == Code.SUCCESS) {
+                    for(Map.Entry<Book,Integer> book : books.entrySet()) {
+                        if(book.getKey().getSubject().equals(subject)) {
+                            int bookValue = book.getValue();
+                            for(int num = 0; num < bookValue; num++) {
+                                System.out.println("Adding: " + num);
+                                addBookToShelf(book.getKey(),newShelf);
+//                                newShelf.addBook(book.getKey()); // Using addBookToShelf instead of addBook()
+                            }
+                        }
+                    }
+                }
+                */
+            }
+        }
+
+        // Only time number of shelves does not match input counter is when a bad entry was discarded.
+        if(shelfCount == shelves.size())
+        {
+            return Code.SUCCESS;
+        } else {
+            if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+                LibraryLog.log(LogLevel.WARNING, "WARNING: " + (shelfCount - shelves.size())
+                        + " shelf entries were lost due to errors.");
+            }
+            return Code.SHELF_NUMBER_PARSE_ERROR;
+        }
+    }
+
+    /**
+     * This method initReader() parses readerCount number of lines from the file and creates a new reader from
+     * each line.
+     * WARNING: A bad pageCount or dueDate displays a warning and discards that book entry.
+     * WARNING: cardNumber for a reader is being set by library card class variable and NOT the first entry
+     * in the scan line.  The design for library card number in this program needs to be better thought out.
+     * @param readerCount the number of readers to read from the file.  A line represents one reader data entry.
+     * @param file the LibraryFileReader of the file being used for data input
+     * @return a Code which indicates if there were any errors during processing.  If none, Code.SUCCESS is returned.
+     */
+    private Code initReader(int readerCount, LibraryFileReader file) throws IOException {
+        String newReaderEntry;  // line scan for a readers's data
+
+        if(readerCount < 1) {
+            LibraryLog.log(LogLevel.WARNING, "Error in initReader(): readerCount is less than 1.");
+            return Code.READER_COUNT_ERROR;
+        }
+
+        for(int i = 0; i < readerCount; i++) {
+            if(!file.nextLine()) {
+                LibraryLog.log(LogLevel.WARNING, "ERROR: Could not parse reader entry.");
+                return Code.READER_COUNT_ERROR;
+            }
+            newReaderEntry = file.getLine();
 
 //            System.out.println("-> Parsing reader: " + newReaderEntry);
-            List<String> readerFields = Arrays.asList(newReaderEntry.split(","));
+            FieldTokenizer readerFields = file.fields();
 
             // There must be at least 3 fields to create a valid reader.  4+ adds books to reader's list.
             if(readerFields.size() >= 3) {
                 Code returnedCode;
 
                 // cardNumber is being set by file scan.  Library card number is updated.
-                int cardNumber = convertInt(readerFields.get(Reader.CARD_NUMBER_).trim(),
+                int cardNumber = convertInt(readerFields.get(Reader.CARD_NUMBER_),
                         Code.READER_CARD_NUMBER_ERROR);
                 if(cardNumber < 0) {
                     returnedCode = errorCode(cardNumber); // Decided to continue parsing and just discards entry.
-                    System.out.println("WARNING: Could not parse reader due to error. READER ENTRY DISCARDED.");
+                    LibraryLog.log(LogLevel.WARNING,
+                            "WARNING: Could not parse reader due to error. READER ENTRY DISCARDED.");
                     continue;
                 }
 
                 // Library card number is updated to the largest of the numbers.
-                if(cardNumber > libraryCard) {
-                    libraryCard = cardNumber;
-                }
+                libraryCard.accumulateAndGet(cardNumber, Math::max);
 
-                String name = readerFields.get(Reader.NAME_).trim();
+                String name = readerFields.get(Reader.NAME_);
 
-                String phoneNumber = readerFields.get(Reader.PHONE_).trim();
+                String phoneNumber = readerFields.get(Reader.PHONE_);
 
                 Reader newReader = new Reader(cardNumber, name, phoneNumber);
                 returnedCode = addReader(newReader);
 
                 // Reader needs books checked out if scan line has more than 3 entries.
                 if(readerFields.size() > 3) {
-                    int bookCount = convertInt(readerFields.get(Reader.BOOK_COUNT_).trim(), Code.BOOK_COUNT_ERROR);
+                    int bookCount = convertInt(readerFields.get(Reader.BOOK_COUNT_), Code.BOOK_COUNT_ERROR);
                     if(bookCount < 0) {
                         returnedCode = errorCode(bookCount); // Decided to continue parsing and just discards entry.
-                        System.out.println("ERROR: Invalid checked out book count entry.");
-                        System.out.println("WARNING: Could not parse reader entry due to error.  "
-                                + "READER ENTRY DISCARDED.");
+                        if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+                            LibraryLog.log(LogLevel.WARNING, "ERROR: Invalid checked out book count entry.");
+                            LibraryLog.log(LogLevel.WARNING, "WARNING: Could not parse reader entry due to error.  "
+                                    + "READER ENTRY DISCARDED.");
+                        }
                         continue;
                     }
 
                     // Make sure that the calculated numberOfCheckedOutBooks is the same as scanned bookCount.
                     int numberOfCheckedOutBooks = (readerFields.size() - Reader.BOOK_COUNT_) / 2;
                     if(bookCount != numberOfCheckedOutBooks) {
-                        System.out.println("WARNING: bookCount does not match reader data.");
+                        LibraryLog.log(LogLevel.WARNING, "WARNING: bookCount does not match reader data.");
                     }
 
                     int fieldIndex = Reader.BOOK_START_;
@@ -360,19 +1166,26 @@ public class Library {
                     // Prevent going out-of-bounds
                     while(fieldIndex + 1 < readerFields.size()) {
                         // find book
-                        bookISBN = readerFields.get(fieldIndex).trim();
+                        bookISBN = readerFields.get(fieldIndex);
                         readersBook = getBookByISBN(bookISBN);
-                        dueDate = convertDate(readerFields.get(fieldIndex+1).trim(), Code.DATE_CONVERSION_ERROR);
+                        dueDate = convertDate(readerFields.get(fieldIndex+1), Code.DATE_CONVERSION_ERROR);
                         if(dueDate == null) {
-                            System.out.println("ERROR: Invalid date conversion.");
-                            System.out.println("WARNING: Could not parse book being checked out due to error." +
-                                    "  BOOK ENTRY DISCARDED.");
+                            if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+                                LibraryLog.log(LogLevel.WARNING, "ERROR: Invalid date conversion.");
+                                LibraryLog.log(LogLevel.WARNING, "WARNING: Could not parse book being checked out "
+                                        + "due to error.  BOOK ENTRY DISCARDED.");
+                            }
                             continue;
                         }
 
                         // check book out of library shelf and put into readers list
                         returnedCode = checkOutBook(newReader, readersBook);
-                        System.out.println(returnedCode);
+                        if(returnedCode == Code.SUCCESS) {
+                            setDueDate(newReader, readersBook, dueDate);
+                        }
+                        if(LibraryLog.isEnabled(LogLevel.DEBUG)) {
+                            LibraryLog.log(LogLevel.DEBUG, returnedCode.toString());
+                        }
                         fieldIndex = fieldIndex + 2;
                     }
                 }
@@ -392,23 +1205,89 @@ public class Library {
      * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
      */
     public Code addBook(Book newBook) {
-        if(!books.containsKey(newBook)) {
-            books.put(newBook, 1);
-            System.out.println(newBook + " added to the stacks.");
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        return metrics.record(LibraryMetrics.Operation.ADD_BOOK, start, addBookUntimed(newBook));
+    }
+
+    private Code addBookUntimed(Book newBook) {
+        Code returnedCode;
+        long entry;
+        locks.catalogWriteLock().lock();
+        try {
+            loadMappedBooksLocked(newBook.getIsbn());
+            returnedCode = addBookLocked(newBook);
+            entry = record(Journal.Operation.ADD_BOOK, returnedCode, null, newBook);
+        } finally {
+            locks.catalogWriteLock().unlock();
+        }
+        deliverHolds();
+        return awaitRecord(entry, returnedCode);
+    }
+
+    /**
+     * This method addBookLocked() does the work of addBook().  The caller must hold the catalog write lock.
+     */
+    private Code addBookLocked(Book newBook) {
+        int bookCount = books.add(newBook.getKey(), 1);
+        stats.addCopies(1);
+        if(bookCount == 1) {
+            isbnIndex.computeIfAbsent(newBook.getIsbn(), isbn -> new ArrayList<>(1)).add(newBook);
+            textIndex.add(newBook);
+            bitmaps.add(newBook);
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, newBook + " added to the stacks.");
+            }
         } else {
-            books.replace(newBook, books.get(newBook) + 1);
-            System.out.println(books.get(newBook) + " copies of " + newBook + " in the stacks.");
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, bookCount + " copies of " + newBook + " in the stacks.");
+            }
         }
 
         if(shelves.containsKey(newBook.getSubject())) {
-            addBookToShelf(newBook,shelves.get(newBook.getSubject()));
+            if(addBookToShelf(newBook,shelves.get(newBook.getSubject())) == Code.SUCCESS) {
+                reserveForHold(newBook, shelves.get(newBook.getSubject()));
+            }
             return Code.SUCCESS;
         } else {
-            System.out.println("No shelf for " + newBook.getSubject() + " books.");
+            if(bookCount == 1) {
+                addUnshelved(newBook.getKey());
+            }
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "No shelf for " + newBook.getSubject() + " books.");
+            }
             return Code.SHELF_EXISTS_ERROR;
         }
     }
 
+    /**
+     * This method addBooks() adds copies of newBook into books(HashMap) at once and places all of them on the
+     * book's shelf if it exists.  It is used by initBooksParallel() for a run of copies of the same book.  It
+     * displays nothing itself: the shelf displays one message for all of the copies (see Shelf.addBook(Book, int)),
+     * and nothing is displayed for a book that has no shelf.
+     * @param newBook a Book to be added into books(HashMap)
+     * @param copies the number of copies being added
+     * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
+     */
+    private Code addBooks(Book newBook, int copies) {
+        boolean added = books.add(newBook.getKey(), copies) == copies;
+        stats.addCopies(copies);
+        if(added) {
+            isbnIndex.computeIfAbsent(newBook.getIsbn(), isbn -> new ArrayList<>(1)).add(newBook);
+            textIndex.add(newBook);
+            bitmaps.add(newBook);
+        }
+
+        Shelf bookShelf = shelves.get(newBook.getSubject());
+        if(bookShelf == null) {
+            if(added) {
+                addUnshelved(newBook.getKey());
+            }
+            return Code.SHELF_EXISTS_ERROR;
+        }
+        return bookShelf.addBook(newBook, copies);
+    }
+
     /**
      * This method returnBook() takes a reader and returns a book from their list back to the library's shelf.
      * @param reader the object returning a book from their book list
@@ -416,26 +1295,66 @@ public class Library {
      * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
      */
     public Code returnBook(Reader reader, Book book) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        return metrics.record(LibraryMetrics.Operation.RETURN_BOOK, start, returnBookUntimed(reader, book));
+    }
+
+    private Code returnBookUntimed(Reader reader, Book book) {
+        loadMappedBooks(book.getIsbn());
+        Lock readerLock = locks.readerLock(reader.getCardNumber());
+        Lock shelfLock = locks.shelfLock(book.getSubject());
+        locks.catalogReadLock().lock();
+        readerLock.lock();
+        shelfLock.lock();
+        Code returnedCode;
+        long entry;
+        try {
+            returnedCode = returnBookLocked(reader, book, shelves.get(book.getSubject()));
+            entry = record(Journal.Operation.RETURN, returnedCode, reader, book);
+        } finally {
+            shelfLock.unlock();
+            readerLock.unlock();
+            locks.catalogReadLock().unlock();
+        }
+        deliverHolds();
+        return awaitRecord(entry, returnedCode);
+    }
+
+    /**
+     * This method returnBookLocked() does the work of returnBook(Reader, Book).  The caller must hold the catalog
+     * read lock, the reader's lock, and the shelf lock for bookShelf.
+     * @param bookShelf the shelf for the book's subject or null if there is none
+     */
+    private Code returnBookLocked(Reader reader, Book book, Shelf bookShelf) {
         Code returnedCode;
 
         // checks if reader has the book in their list
         if(!reader.hasBook(book)) {
-            System.out.println(reader.getName() + " does not have " + book.getTitle() + " checked out.");
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, reader.getName() + " does not have " + book.getTitle() + " checked out.");
+            }
             return Code.READER_DOESNT_HAVE_BOOK_ERROR;
         }
 
         // removes book from reader's list
-        System.out.println(reader.getName() + " is returning " + book);
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, reader.getName() + " is returning " + book);
+        }
         returnedCode = reader.removeBook(book);
 
         // An Unlikely scenario. But meh.
         if(!returnedCode.equals(Code.SUCCESS)) {
-            System.out.println("Could not return " + book);
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "Could not return " + book);
+            }
             return returnedCode;
         }
+        loans.remove(reader, book);
+        stats.endLoan(reader.getBookCount());
 
         // puts book back on shelf (assuming correct shelf subject exists)
-        returnedCode = returnBook(book);
+        returnedCode = returnCopy(book, bookShelf);
 
         return returnedCode;
     }
@@ -447,13 +1366,62 @@ public class Library {
      * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
      */
     public Code returnBook(Book book) {
-        if(shelves.get(book.getSubject()).addBook(book).equals(Code.SUCCESS)) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        return metrics.record(LibraryMetrics.Operation.RETURN_BOOK, start, returnBookUntimed(book));
+    }
+
+    private Code returnBookUntimed(Book book) {
+        loadMappedBooks(book.getIsbn());
+        Lock shelfLock = locks.shelfLock(book.getSubject());
+        locks.catalogReadLock().lock();
+        shelfLock.lock();
+        Code returnedCode;
+        long entry;
+        try {
+            returnedCode = returnCopy(book, shelves.get(book.getSubject()));
+            entry = record(Journal.Operation.RETURN_TO_SHELF, returnedCode, null, book);
+        } finally {
+            shelfLock.unlock();
+            locks.catalogReadLock().unlock();
+        }
+        deliverHolds();
+        return awaitRecord(entry, returnedCode);
+    }
+
+    /**
+     * This method returnCopy() does the work of returnBook(Book).  The caller must hold the catalog read lock
+     * and the shelf lock for bookShelf.
+     * @param bookShelf the shelf for the book's subject or null if there is none
+     */
+    private Code returnCopy(Book book, Shelf bookShelf) {
+        // Only books that belong to this library can be put back on its shelves.
+        if(findBook(book) == null) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "ERROR: " + book + " does not belong to " + name + " library.");
+            }
+            return Code.BOOK_NOT_IN_INVENTORY_ERROR;
+        }
+
+        if(bookShelf != null && bookShelf.addBook(book).equals(Code.SUCCESS)) {
+            reserveForHold(book, bookShelf);
             return Code.SUCCESS;
         }
-        System.out.println("No shelf for " + book);
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, "No shelf for " + book);
+        }
         return Code.SHELF_EXISTS_ERROR;
     }
 
+    /**
+     * This method addUnshelved() remembers a book that has no shelf for its subject, so addShelf() can find it
+     * without looking at every book.
+     * @param key the book
+     */
+    private void addUnshelved(CatalogKey key) {
+        unshelved.computeIfAbsent(key.getSubject(), subject -> new ArrayList<>()).add(key);
+    }
+
     /**
      * This method addBookToShelf() adds the passed in book to the passed in shelf after making sure that the
      * subjects match.  The book is added to the shelf using the shelf class .addBook() method.
@@ -466,12 +1434,12 @@ public class Library {
 
         if(book.getSubject().equals(shelf.getSubject())) {
             returnedCode = shelf.addBook(book);
-            if(returnedCode != Code.SUCCESS) {
-                System.out.println("Could not add " + book + " to shelf.");
+            if(returnedCode != Code.SUCCESS && LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "Could not add " + book + " to shelf.");
             }
             return returnedCode;
         } else {
-            System.out.println("Book and subject do not match.");
+            LibraryLog.log(LogLevel.INFO, "Book and subject do not match.");
             return Code.SHELF_SUBJECT_MISMATCH_ERROR;
         }
     }
@@ -481,19 +1449,142 @@ public class Library {
      * @return integer number of books total in the library.
      */
     public int listBooks() {
-        int bookCounter = 0;
+        loadAllMappedBooks();
+        locks.catalogReadLock().lock();
+        try {
+            int bookCounter = (int) books.total();
+
+            System.out.println("Displaying list of books.");
+            listBooksLocked(System.out, 0, Integer.MAX_VALUE);
+
+            if(bookCounter == 0) {
+                System.out.println("NOTE: No books to display.");
+            }
 
-        System.out.println("Displaying list of books.");
-        for(Map.Entry<Book,Integer> book : books.entrySet()) {
-            System.out.println(book.getValue() + " copies of " + book.getKey().toString());
-            bookCounter =  bookCounter + book.getValue();
+            return bookCounter;
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);  // System.out does not throw
+        } finally {
+            locks.catalogReadLock().unlock();
         }
+    }
 
-        if(bookCounter == 0) {
-            System.out.println("NOTE: No books to display.");
+    /**
+     * This method listBooks() writes one page of the books at the library to out, one line for each book with its
+     * number of copies.  Pages are in the same order while no books are added, so a listing can be read a page at
+     * a time (ex. offset 0, then limit, then 2 * limit) without building it all in memory.
+     * @param out where the listing is written (ex. a Writer)
+     * @param offset the number of books to skip
+     * @param limit the most books to write
+     * @return the number of books written.  Fewer than limit means it was the last page.
+     * @throws IOException if out cannot be written
+     */
+    public int listBooks(Appendable out, int offset, int limit) throws IOException {
+        checkPage(offset, limit);
+        loadAllMappedBooks();
+        locks.catalogReadLock().lock();
+        try {
+            return listBooksLocked(out, offset, limit);
+        } finally {
+            locks.catalogReadLock().unlock();
         }
+    }
 
-        return bookCounter;
+    /**
+     * This method streamBooks() returns one page of the books at the library with their number of copies, in the
+     * same order as listBooks().  The page is copied, so the stream can be used after the library changes.
+     * @param offset the number of books to skip
+     * @param limit the most books in the page
+     * @return the book keys with their number of copies
+     */
+    public Stream<Map.Entry<CatalogKey, Integer>> streamBooks(int offset, int limit) {
+        checkPage(offset, limit);
+        loadAllMappedBooks();
+        locks.catalogReadLock().lock();
+        try {
+            return books.entries(offset, limit).stream();
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    private int listBooksLocked(Appendable out, int offset, int limit) throws IOException {
+        List<Map.Entry<CatalogKey, Integer>> page = books.entries(offset, limit);
+        for(Map.Entry<CatalogKey, Integer> book : page) {
+            out.append(book.getValue() + " copies of " + book.getKey().toString() + "\n");
+        }
+        return page.size();
+    }
+
+    /**
+     * This method searchBooks() finds the books with every word of the query in their title or author, like a
+     * patron searching the catalog.  Each word may be the start of a word (ex. "lord of the ri").  Whole words
+     * and words in the title rank first.
+     * @param query the words to find, in any case and order
+     * @param limit the most books returned
+     * @return the best matching books, best first.  An empty list if none match.
+     */
+    public List<Book> searchBooks(String query, int limit) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        List<Book> found = searchBooksUntimed(query, limit);
+        metrics.record(LibraryMetrics.Operation.SEARCH_BOOKS, start, Code.SUCCESS);
+        return found;
+    }
+
+    private List<Book> searchBooksUntimed(String query, int limit) {
+        loadAllMappedBooks();
+        locks.catalogReadLock().lock();
+        try {
+            return textIndex.search(query, limit);
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    /**
+     * This method findBooks() lists the books that match every condition given, for staff reports (ex. the sci-fi
+     * books by Frank Herbert over 400 pages with a copy on the shelf).  Each condition is a bitmap, so the books
+     * are found by intersecting them instead of checking every book.
+     * @param subject the subject of the books, or null for any subject
+     * @param author the author of the books, or null for any author
+     * @param minPages the fewest pages (inclusive).  0 for no minimum.
+     * @param maxPages the most pages (inclusive).  Integer.MAX_VALUE for no maximum.
+     * @param availableOnly True to keep only books with at least one copy on their shelf
+     * @return the matching books in the order they were added.  An empty list if none match.
+     */
+    public List<Book> findBooks(String subject, String author, int minPages, int maxPages, boolean availableOnly) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        List<Book> found = findBooksUntimed(subject, author, minPages, maxPages, availableOnly);
+        metrics.record(LibraryMetrics.Operation.FIND_BOOKS, start, Code.SUCCESS);
+        return found;
+    }
+
+    private List<Book> findBooksUntimed(String subject, String author, int minPages, int maxPages,
+                                        boolean availableOnly) {
+        loadAllMappedBooks();
+        locks.catalogReadLock().lock();
+        try {
+            return bitmaps.find(subject, author, minPages, maxPages, availableOnly);
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    /**
+     * This method countBooks() counts the books that match every condition given, like findBooks() without
+     * building the list.
+     * @return the number of matching books
+     */
+    public int countBooks(String subject, String author, int minPages, int maxPages, boolean availableOnly) {
+        loadAllMappedBooks();
+        locks.catalogReadLock().lock();
+        try {
+            return bitmaps.count(subject, author, minPages, maxPages, availableOnly);
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
     }
 
     /**
@@ -505,78 +1596,715 @@ public class Library {
      * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
      */
     public Code checkOutBook(Reader reader, Book book) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        return metrics.record(LibraryMetrics.Operation.CHECK_OUT_BOOK, start, checkOutBookUntimed(reader, book));
+    }
+
+    private Code checkOutBookUntimed(Reader reader, Book book) {
+        if(reader == null) {
+            return checkOutBookLocked(null, book);
+        }
+        if(book == null) {
+            // ex. a reader line in init() naming an ISBN that is not in the books section
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "ERROR: Could not find " + book);
+            }
+            return Code.BOOK_NOT_IN_INVENTORY_ERROR;
+        }
+        loadMappedBooks(book.getIsbn());
+
+        // The lending limit check and the shelf count check and decrement happen under the same locks.
+        Lock readerLock = locks.readerLock(reader.getCardNumber());
+        Lock shelfLock = locks.shelfLock(book.getSubject());
+        locks.catalogReadLock().lock();
+        readerLock.lock();
+        shelfLock.lock();
+        Code returnedCode;
+        long entry;
+        try {
+            returnedCode = checkOutBookLocked(reader, book);
+            entry = recordCheckOut(returnedCode, reader, book);
+        } finally {
+            shelfLock.unlock();
+            readerLock.unlock();
+            locks.catalogReadLock().unlock();
+        }
+        deliverHolds();
+        return awaitRecord(entry, returnedCode);
+    }
+
+    /**
+     * This method checkOutBookLocked() does the work of checkOutBook().  The caller must hold the catalog read lock,
+     * the reader's lock, and the book's shelf lock.
+     */
+    private Code checkOutBookLocked(Reader reader, Book book) {
         // Check if reader is invalid
-        if(!readers.contains(reader)) {
-            System.out.println("ERROR: " + reader + " doesn't have an account here.");
+        if(!hasReader(reader)) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "ERROR: " + reader + " doesn't have an account here.");
+            }
             return Code.READER_NOT_IN_LIBRARY_ERROR;
         }
 
-        // Check if reader has exceeded lending limit
-        if(reader.getBookCount() >= LENDING_LIMIT) {
-            System.out.println("ERROR: " + reader.getName() + " has reached the lending limit of " + LENDING_LIMIT);
-            return Code.BOOK_LIMIT_REACHED_ERROR;
+        // Check if reader has exceeded lending limit
+        if(reader.getBookCount() >= LENDING_LIMIT) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "ERROR: " + reader.getName() + " has reached the lending limit of "
+                        + LENDING_LIMIT);
+            }
+            return Code.BOOK_LIMIT_REACHED_ERROR;
+        }
+
+        return checkOutCopy(reader, book, shelves.get(book.getSubject()));
+    }
+
+    /**
+     * This method checkOutCopy() checks out one copy of book from bookShelf after the reader has been checked.
+     * The caller must hold the catalog read lock, the reader's lock, and the shelf lock for bookShelf.
+     * @param reader a reader of this library that is under the lending limit
+     * @param book the book being checked out by the reader
+     * @param bookShelf the shelf for the book's subject or null if there is none
+     * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
+     */
+    private Code checkOutCopy(Reader reader, Book book, Shelf bookShelf) {
+        // Check if book exists in books
+        if(findBook(book) == null) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "ERROR: Could not find " + book);
+            }
+            return Code.BOOK_NOT_IN_INVENTORY_ERROR;
+        }
+
+        // Check if book has a shelf (subject shelf exists)
+        if(bookShelf == null) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "ERROR: No shelf for " + book.getSubject() + " books.");
+            }
+            return Code.SHELF_EXISTS_ERROR;
+        }
+
+        // Remove book from shelf if the shelf does have a copy available
+        Code returnedCode = bookShelf.takeBook(book);
+        if(returnedCode != Code.SUCCESS) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "ERROR: No copies of " + book + " remains.");
+            }
+            return Code.BOOK_NOT_IN_INVENTORY_ERROR;
+        }
+
+        returnedCode = lendCopyLocked(reader, book);
+        if(returnedCode == Code.SUCCESS) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, book + " checked out successfully.");
+            }
+        } else {
+            // If a book fails to be added to readers list, the book needs to be returned to the shelf.
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "Couldn't check out " + book + ".");
+                LibraryLog.log(LogLevel.INFO, reader.getName() + " already has a copy of " + book.getTitle()
+                        + " checked out.");
+                LibraryLog.log(LogLevel.INFO, "Placing " + book + " back on shelf.");
+            }
+            returnCopy(book, bookShelf);
+        }
+
+        return returnedCode;
+    }
+
+    /**
+     * This method lendCopyLocked() gives the reader a copy of book that has already been taken off its shelf.  The
+     * caller must hold the reader's lock.
+     * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
+     */
+    private Code lendCopyLocked(Reader reader, Book book) {
+        // The reader gets a copy with its own due date using the LOAN_PERIOD constant if one has not already been
+        // set, so other copies of the book keep theirs.
+        LocalDate dueDate = book.getDueDate();
+        if(dueDate != DEFAULT_DATE) {
+            dueDate = LocalDate.now().plusDays(LOAN_PERIOD);
+        }
+        Book copy = new Book(book.getKey(), dueDate);
+
+        // Use reader class method addBook()
+        Code returnedCode = reader.addBook(copy);
+        if(returnedCode == Code.SUCCESS) {
+            loans.add(new Loan(reader, copy, dueDate.toEpochDay()));
+            stats.startLoan(reader.getBookCount());
+        }
+        return returnedCode;
+    }
+
+    /**
+     * This method lendCopy() is the reader's half of a checkout whose book is kept by another Library (see
+     * ShardedLibrary).  The reader must be a reader of this library and under the lending limit.  The loan is
+     * made before the copy is taken off the other library's shelf, so the limit holds for checkouts running at
+     * the same time.  If no copy can be taken, cancelLoan() undoes it.  It is not journaled.
+     * @param reader a reader of this library
+     * @param book the book being checked out by the reader
+     * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
+     */
+    Code lendCopy(Reader reader, Book book) {
+        Lock readerLock = locks.readerLock(reader.getCardNumber());
+        locks.catalogReadLock().lock();
+        readerLock.lock();
+        try {
+            if(!hasReader(reader)) {
+                return Code.READER_NOT_IN_LIBRARY_ERROR;
+            }
+            if(reader.getBookCount() >= LENDING_LIMIT) {
+                return Code.BOOK_LIMIT_REACHED_ERROR;
+            }
+            return lendCopyLocked(reader, book);
+        } finally {
+            readerLock.unlock();
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    /**
+     * This method cancelLoan() is the reader's half of a return whose book is kept by another Library, or undoes
+     * lendCopy() when the checkout could not take a copy.  Nothing is put on a shelf.  It is not journaled.
+     * @param reader the reader who has the book
+     * @param book the book
+     * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
+     */
+    Code cancelLoan(Reader reader, Book book) {
+        Lock readerLock = locks.readerLock(reader.getCardNumber());
+        locks.catalogReadLock().lock();
+        readerLock.lock();
+        try {
+            if(!reader.hasBook(book)) {
+                return Code.READER_DOESNT_HAVE_BOOK_ERROR;
+            }
+            Code returnedCode = reader.removeBook(book);
+            if(returnedCode == Code.SUCCESS) {
+                loans.remove(reader, book);
+                stats.endLoan(reader.getBookCount());
+            }
+            return returnedCode;
+        } finally {
+            readerLock.unlock();
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    /**
+     * This method takeCopy() is the shelf's half of a checkout by a reader of another Library: it takes one copy
+     * of book off its shelf.  It is not journaled.
+     * @param book the book being checked out
+     * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
+     */
+    Code takeCopy(Book book) {
+        if(book == null) {
+            return Code.BOOK_NOT_IN_INVENTORY_ERROR;
+        }
+        loadMappedBooks(book.getIsbn());
+        Lock shelfLock = locks.shelfLock(book.getSubject());
+        locks.catalogReadLock().lock();
+        shelfLock.lock();
+        try {
+            if(findBook(book) == null) {
+                return Code.BOOK_NOT_IN_INVENTORY_ERROR;
+            }
+            Shelf bookShelf = shelves.get(book.getSubject());
+            if(bookShelf == null) {
+                return Code.SHELF_EXISTS_ERROR;
+            }
+            return bookShelf.takeBook(book);
+        } finally {
+            shelfLock.unlock();
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    /**
+     * This method putBackCopy() is the shelf's half of a return by a reader of another Library: it puts one copy
+     * of book back on its shelf.  It is not journaled.
+     * @param book the book being returned
+     * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
+     */
+    Code putBackCopy(Book book) {
+        loadMappedBooks(book.getIsbn());
+        Lock shelfLock = locks.shelfLock(book.getSubject());
+        locks.catalogReadLock().lock();
+        shelfLock.lock();
+        Code returnedCode;
+        try {
+            returnedCode = returnCopy(book, shelves.get(book.getSubject()));
+        } finally {
+            shelfLock.unlock();
+            locks.catalogReadLock().unlock();
+        }
+        deliverHolds();
+        return returnedCode;
+    }
+
+    /**
+     * This method getTitleCount() returns the number of different books (titles) at the library, not copies.
+     * @return the number of books
+     */
+    int getTitleCount() {
+        loadAllMappedBooks();
+        locks.catalogReadLock().lock();
+        try {
+            return books.size();
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    int getShelfCount() {
+        locks.catalogReadLock().lock();
+        try {
+            return shelves.size();
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    /**
+     * This method getOverdueLoans() lists the books that were due back before a date.  Only the days before date
+     * that have loans are visited, so the time taken grows with the number of overdue loans, not the number of
+     * readers or loans.
+     * @param date the date to check against (ex. today)
+     * @return the overdue loans, the most overdue first
+     */
+    public List<Loan> getOverdueLoans(LocalDate date) {
+        return loans.getOverdue(date);
+    }
+
+    /**
+     * This method getLoansDueWithin() lists the books due back from a date through the next days (ex. to send
+     * reminders).
+     * @param date the first due date included (ex. today)
+     * @param days the number of days after date that are included
+     * @return the loans due in the range, ordered by due date
+     */
+    public List<Loan> getLoansDueWithin(LocalDate date, int days) {
+        return loans.getDueWithin(date, days);
+    }
+
+    /**
+     * This method placeHold() checks out a book to the reader, or puts the reader in line for it if no copy is on
+     * the shelf.  Readers in line get returned copies first come, first served, so clients wait on the future
+     * instead of calling checkOutBook() again and again.
+     * @param reader the reader who wants the book
+     * @param book the book
+     * @return a future with the Code of the checkout.  It is already complete if a copy was on the shelf or the
+     *         reader cannot check the book out (ex. Code.BOOK_LIMIT_REACHED_ERROR).  Otherwise it completes when
+     *         a returned copy is checked out to the reader, or with the error that kept the reader from getting
+     *         it once it was their turn.  It is cancelled by cancelHold().
+     */
+    public CompletableFuture<Code> placeHold(Reader reader, Book book) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        CompletableFuture<Code> hold = placeHoldUntimed(reader, book);
+        metrics.record(LibraryMetrics.Operation.PLACE_HOLD, start, holdCode(hold));
+        return hold;
+    }
+
+    private CompletableFuture<Code> placeHoldUntimed(Reader reader, Book book) {
+        if(reader == null) {
+            return CompletableFuture.completedFuture(Code.READER_NOT_IN_LIBRARY_ERROR);
+        }
+        if(book == null) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "ERROR: Could not find " + book);
+            }
+            return CompletableFuture.completedFuture(Code.BOOK_NOT_IN_INVENTORY_ERROR);
+        }
+        loadMappedBooks(book.getIsbn());
+
+        // The shelf lock is held from the shelf count check until the hold is in line, so a copy returned in
+        // between is not missed.
+        Hold hold = new Hold(reader, book);
+        Lock readerLock = locks.readerLock(reader.getCardNumber());
+        Lock shelfLock = locks.shelfLock(book.getSubject());
+        locks.catalogReadLock().lock();
+        readerLock.lock();
+        shelfLock.lock();
+        Code returnedCode;
+        long entry = 0;
+        boolean waiting = false;
+        try {
+            returnedCode = checkOutBookLocked(reader, book);
+            if(returnedCode == Code.BOOK_NOT_IN_INVENTORY_ERROR && findBook(book) != null) {
+                waiting = holds.add(hold);
+                returnedCode = waiting ? Code.SUCCESS : Code.HOLD_EXISTS_ERROR;
+            } else {
+                entry = recordCheckOut(returnedCode, reader, book);
+            }
+        } finally {
+            shelfLock.unlock();
+            readerLock.unlock();
+            locks.catalogReadLock().unlock();
+        }
+        deliverHolds();
+
+        if(waiting) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, reader.getName() + " is waiting for " + book);
+            }
+            return hold.getFuture();
+        }
+        return CompletableFuture.completedFuture(awaitRecord(entry, returnedCode));
+    }
+
+    /**
+     * This method cancelHold() takes the reader out of line for a book and cancels the hold's future.
+     * @param reader the reader who placed the hold
+     * @param book the book
+     * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
+     */
+    public Code cancelHold(Reader reader, Book book) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        return metrics.record(LibraryMetrics.Operation.CANCEL_HOLD, start, cancelHoldUntimed(reader, book));
+    }
+
+    private Code cancelHoldUntimed(Reader reader, Book book) {
+        Hold hold = holds.remove(reader, book);
+        if(hold == null) {
+            return Code.HOLD_NOT_FOUND_ERROR;
+        }
+        hold.getFuture().cancel(false);
+        return Code.SUCCESS;
+    }
+
+    /**
+     * This method getHoldCount() returns the number of readers waiting for a book.
+     * @param book the book
+     * @return the number of readers in line
+     */
+    public int getHoldCount(Book book) {
+        return holds.getWaiting(book);
+    }
+
+    /**
+     * This method reserveForHold() takes the copy that was just put on bookShelf back off for the reader who has
+     * waited longest for it, if anyone is waiting.  deliverHolds() checks it out to the reader after the caller's
+     * locks are released.  The caller must hold the shelf lock for bookShelf.
+     */
+    private void reserveForHold(Book book, Shelf bookShelf) {
+        Hold hold = holds.poll(book);
+        while(hold != null && hold.getFuture().isDone()) {
+            hold = holds.poll(book);  // The future was cancelled by the client
+        }
+        if(hold != null && bookShelf.takeBook(book) == Code.SUCCESS) {
+            readyHolds.add(hold);
+        }
+    }
+
+    /**
+     * This method deliverHolds() checks out each copy taken off a shelf by reserveForHold() to its reader, under
+     * the usual lending rules, and completes the hold's future.  The hold is claimed before the copy is lent, so
+     * the reader cannot cancel it once the loan is made.  If the reader cannot have it, the copy is put back
+     * on the shelf, which passes it to the next reader in line.  It must be called with no locks held, since it
+     * takes the readers' locks.
+     */
+    private void deliverHolds() {
+        Hold hold;
+        while((hold = readyHolds.poll()) != null) {
+            Reader reader = hold.getReader();
+            Book book = hold.getBook();
+            Lock readerLock = locks.readerLock(reader.getCardNumber());
+            Lock shelfLock = locks.shelfLock(book.getSubject());
+            locks.catalogReadLock().lock();
+            readerLock.lock();
+            shelfLock.lock();
+            Code returnedCode;
+            long entry = 0;
+            try {
+                if(!hold.claim()) {
+                    returnedCode = Code.HOLD_NOT_FOUND_ERROR;  // Cancelled before its copy could be lent
+                } else if(!hasReader(reader)) {
+                    returnedCode = Code.READER_NOT_IN_LIBRARY_ERROR;
+                } else if(reader.getBookCount() >= LENDING_LIMIT) {
+                    returnedCode = Code.BOOK_LIMIT_REACHED_ERROR;
+                } else {
+                    returnedCode = lendCopyLocked(reader, book);
+                }
+
+                if(returnedCode == Code.SUCCESS) {
+                    entry = recordCheckOut(returnedCode, reader, book);
+                    if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                        LibraryLog.log(LogLevel.INFO, book + " checked out to " + reader.getName() + " from hold.");
+                    }
+                } else {
+                    returnCopy(book, shelves.get(book.getSubject()));
+                }
+            } finally {
+                shelfLock.unlock();
+                readerLock.unlock();
+                locks.catalogReadLock().unlock();
+            }
+            hold.getFuture().complete(awaitRecord(entry, returnedCode));
+        }
+    }
+
+    /**
+     * This method setDueDate() changes the due date of a book a reader has checked out (ex. the date in the
+     * library file or in a journal entry).
+     * @param reader the reader who has the book
+     * @param book the book
+     * @param dueDate the new due date.  Nothing is changed if it is null.
+     */
+    private void setDueDate(Reader reader, Book book, LocalDate dueDate) {
+        Loan loan = reader == null || dueDate == null ? null : loans.get(reader, book);
+        if(loan != null) {
+            loan.getBook().setDueDate(dueDate);
+            loans.add(new Loan(reader, loan.getBook(), dueDate.toEpochDay()));
+        }
+    }
+
+    /**
+     * This method indexLoans() adds the books a reader already has (ex. from a snapshot) to the loan index.
+     * @param reader the reader
+     */
+    private void indexLoans(Reader reader) {
+        for(Book book : reader.getBooks()) {
+            if(book.getDueDate() != null) {
+                loans.add(new Loan(reader, book, book.getDueDate().toEpochDay()));
+            }
+        }
+    }
+
+    /**
+     * This method checkOutBooks() checks out several books for one reader at once (ex. a self-checkout kiosk).  The
+     * reader is checked once and the books are checked out one shelf at a time.  If the reader would go over
+     * LENDING_LIMIT with all of the books, no book is checked out.  Otherwise each book is checked out like
+     * checkOutBook() and can fail on its own (ex. no copies left).
+     * @param reader the reader who is checking out the books
+     * @param books the books being checked out by the reader
+     * @return a Code for each book in the order books lists them.  Code.SUCCESS means that book was checked out.
+     */
+    public Code[] checkOutBooks(Reader reader, Collection<Book> books) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        Code[] returnedCodes = checkOutBooksUntimed(reader, books);
+        metrics.record(LibraryMetrics.Operation.CHECK_OUT_BOOKS, start, firstError(returnedCodes));
+        return returnedCodes;
+    }
+
+    private Code[] checkOutBooksUntimed(Reader reader, Collection<Book> books) {
+        Code[] returnedCodes = new Code[books.size()];
+        Map<String, List<Integer>> subjects = groupBySubject(books);
+        List<Book> batch = new ArrayList<>(books);
+        long entry = 0;
+        for(Book book : batch) {
+            if(book != null) {
+                loadMappedBooks(book.getIsbn());
+            }
+        }
+
+        locks.catalogReadLock().lock();
+        Lock readerLock = reader == null ? null : locks.readerLock(reader.getCardNumber());
+        if(readerLock != null) {
+            readerLock.lock();
+        }
+        int[] shelfStripes = locks.lockShelves(subjects.keySet());
+        try {
+            // Check if reader is invalid
+            if(!hasReader(reader)) {
+                if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                    LibraryLog.log(LogLevel.INFO, "ERROR: " + reader + " doesn't have an account here.");
+                }
+                Arrays.fill(returnedCodes, Code.READER_NOT_IN_LIBRARY_ERROR);
+                return returnedCodes;
+            }
+
+            // Check if reader would exceed lending limit
+            int bookCount = batch.size() - missingBooks(batch, returnedCodes);
+            if(reader.getBookCount() + bookCount > LENDING_LIMIT) {
+                if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                    LibraryLog.log(LogLevel.INFO, "ERROR: " + reader.getName() + " can not check out "
+                            + bookCount + " books without going over the lending limit of " + LENDING_LIMIT);
+                }
+                Arrays.fill(returnedCodes, Code.BOOK_LIMIT_REACHED_ERROR);
+                return returnedCodes;
+            }
+
+            for(Map.Entry<String, List<Integer>> subject : subjects.entrySet()) {
+                Shelf bookShelf = shelves.get(subject.getKey());
+                for(int i : subject.getValue()) {
+                    returnedCodes[i] = checkOutCopy(reader, batch.get(i), bookShelf);
+                    entry = recordCheckOut(returnedCodes[i], reader, batch.get(i));
+                }
+            }
+        } finally {
+            locks.unlockShelves(shelfStripes);
+            if(readerLock != null) {
+                readerLock.unlock();
+            }
+            locks.catalogReadLock().unlock();
         }
+        deliverHolds();
+        return awaitRecords(entry, returnedCodes);
+    }
 
-        // Check if book exists in books
-        if(!books.containsKey(book)) {
-            System.out.println("ERROR: Could not find " + book);
-            return Code.BOOK_NOT_IN_INVENTORY_ERROR;
-        }
+    /**
+     * This method returnBooks() returns several books from one reader at once (ex. the overnight book drop).  The
+     * books are put back one shelf at a time and each book is returned like returnBook(Reader, Book).
+     * @param reader the reader returning the books
+     * @param books the books being returned
+     * @return a Code for each book in the order books lists them.  Code.SUCCESS means that book was returned.
+     */
+    public Code[] returnBooks(Reader reader, Collection<Book> books) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        Code[] returnedCodes = returnBooksUntimed(reader, books);
+        metrics.record(LibraryMetrics.Operation.RETURN_BOOKS, start, firstError(returnedCodes));
+        return returnedCodes;
+    }
 
-        // Check if book has a shelf (subject shelf exists)
-        if(!shelves.containsKey(book.getSubject())) {
-            System.out.println("ERROR: No shelf for " + book.getSubject() + " books.");
-            return Code.SHELF_EXISTS_ERROR;
+    private Code[] returnBooksUntimed(Reader reader, Collection<Book> books) {
+        Code[] returnedCodes = new Code[books.size()];
+        if(reader == null) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "ERROR: " + reader + " doesn't have an account here.");
+            }
+            Arrays.fill(returnedCodes, Code.READER_NOT_IN_LIBRARY_ERROR);
+            return returnedCodes;
         }
-
-        // Check if shelf does have a copy available
-        if(shelves.get(book.getSubject()).getBooks().get(book) < 1) {
-            System.out.println("ERROR: No copies of " + book + " remains.");
-            return Code.BOOK_NOT_IN_INVENTORY_ERROR;
+        Map<String, List<Integer>> subjects = groupBySubject(books);
+        List<Book> batch = new ArrayList<>(books);
+        long entry = 0;
+        for(Book book : batch) {
+            if(book != null) {
+                loadMappedBooks(book.getIsbn());
+            }
         }
 
-        // Remove book from shelf
-        Shelf bookShelf = getShelf(book.getSubject());
-        Code returnedCode = bookShelf.removeBook(book);
-        if(returnedCode == Code.SUCCESS) {
-            // Set due date for book using LOAN_PERIOD constant if one has not already been set
-            if(book.getDueDate() != DEFAULT_DATE) {
-                book.setDueDate(LocalDate.now().plusDays(LOAN_PERIOD));
+        Lock readerLock = locks.readerLock(reader.getCardNumber());
+        locks.catalogReadLock().lock();
+        readerLock.lock();
+        int[] shelfStripes = locks.lockShelves(subjects.keySet());
+        try {
+            missingBooks(batch, returnedCodes);
+            for(Map.Entry<String, List<Integer>> subject : subjects.entrySet()) {
+                Shelf bookShelf = shelves.get(subject.getKey());
+                for(int i : subject.getValue()) {
+                    returnedCodes[i] = returnBookLocked(reader, batch.get(i), bookShelf);
+                    entry = record(Journal.Operation.RETURN, returnedCodes[i], reader, batch.get(i));
+                }
             }
+        } finally {
+            locks.unlockShelves(shelfStripes);
+            readerLock.unlock();
+            locks.catalogReadLock().unlock();
+        }
+        deliverHolds();
+        return awaitRecords(entry, returnedCodes);
+    }
 
-            // Use reader class method addBook()
-            returnedCode = reader.addBook(book);
-            if(returnedCode == Code.SUCCESS) {
-                System.out.println(book + " checked out successfully.");
-            } else {
-                // If a book fails to be added to readers list, the book needs to be returned to the shelf.
-                System.out.println("Couldn't check out " + book + ".");
-                System.out.println(reader.getName() + " already has a copy of " + book.getTitle() + " checked out.");
-                System.out.println("Placing " + book + " back on shelf.");
-                returnBook(book);
+    /**
+     * This method groupBySubject() finds the position of each book in books grouped by the book's subject.  Null
+     * books are left out (see missingBooks).
+     * @param books the books in a batch
+     * @return each subject in the order it is first seen, with the positions of the books that have it
+     */
+    private static Map<String, List<Integer>> groupBySubject(Collection<Book> books) {
+        Map<String, List<Integer>> subjects = new LinkedHashMap<>();
+        int i = 0;
+        for(Book book : books) {
+            if(book != null) {
+                subjects.computeIfAbsent(book.getSubject(), subject -> new ArrayList<>()).add(i);
             }
-        } else {
-            System.out.println("ERROR: Failed to remove " + book + " from " + bookShelf + ".");
+            i++;
         }
+        return subjects;
+    }
 
-        return returnedCode;
+    /**
+     * This method missingBooks() gives each null book in a batch Code.BOOK_NOT_IN_INVENTORY_ERROR, like
+     * checkOutBook() does for a null book.  The other books of the batch go on without it.
+     * @param batch the books in a batch
+     * @param returnedCodes the Code for each book in the batch
+     * @return the number of null books
+     */
+    private static int missingBooks(List<Book> batch, Code[] returnedCodes) {
+        int missing = 0;
+        for(int i = 0; i < batch.size(); i++) {
+            if(batch.get(i) == null) {
+                if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                    LibraryLog.log(LogLevel.INFO, "ERROR: Could not find " + batch.get(i));
+                }
+                returnedCodes[i] = Code.BOOK_NOT_IN_INVENTORY_ERROR;
+                missing++;
+            }
+        }
+        return missing;
     }
 
     /**
-     * This method locates a book in books using the ISBN and returns the found book.  If no book with that ISBN
-     * is found, a message is displayed and null is returned.
+     * This method locates a book in books using the ISBN index and returns the found book.  If more than one book
+     * uses that ISBN, the first one added to the library is returned.  If no book with that ISBN is found, a
+     * message is displayed and null is returned.
      * @param isbn a String isbn that should match a book object's isbn field.
      * @return returns a book that matches the isbn or null if no book with that isbn is found.
      */
     public Book getBookByISBN(String isbn) {
-        String returnedISBN;
-        for(Map.Entry<Book,Integer> book : books.entrySet()) {
-            returnedISBN = book.getKey().getIsbn();
-            if(returnedISBN.equals(isbn)) {
-                return book.getKey();
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        Book book = getBookByISBNUntimed(isbn);
+        metrics.record(LibraryMetrics.Operation.GET_BOOK_BY_ISBN, start,
+                book == null ? Code.BOOK_NOT_IN_INVENTORY_ERROR : Code.SUCCESS);
+        return book;
+    }
+
+    private Book getBookByISBNUntimed(String isbn) {
+        loadMappedBooks(isbn);
+        locks.catalogReadLock().lock();
+        try {
+            List<Book> isbnBooks = isbnIndex.get(isbn);
+            if(isbnBooks == null) {
+                if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                    LibraryLog.log(LogLevel.INFO, "ERROR: Could not find a book with isbn: " + isbn);
+                }
+                return null;
+            }
+            return isbnBooks.get(0);
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    /**
+     * This method getBooksByISBN() returns every book entry that shares the ISBN.  Book.equals() compares more
+     * than the ISBN, so different entries (ex. a different page count) can use the same ISBN.  The books are
+     * in the order they were added to the library.
+     * @param isbn a String isbn that should match a book object's isbn field.
+     * @return an unmodifiable copy of the list of books with that isbn.  The list is empty if no book has that isbn.
+     */
+    public List<Book> getBooksByISBN(String isbn) {
+        loadMappedBooks(isbn);
+        locks.catalogReadLock().lock();
+        try {
+            List<Book> isbnBooks = isbnIndex.get(isbn);
+            if(isbnBooks == null) {
+                return Collections.emptyList();
+            }
+            return List.copyOf(isbnBooks);
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    /**
+     * This method findBook() uses the ISBN index to find the library's entry for the book.
+     * @param book the book being searched for.
+     * @return the library's Book that equals book, or null if the library does not have that book.
+     */
+    private Book findBook(Book book) {
+        List<Book> isbnBooks = isbnIndex.get(book.getIsbn());
+        if(isbnBooks != null) {
+            for(Book isbnBook : isbnBooks) {
+                if(isbnBook.equals(book)) {
+                    return isbnBook;
+                }
             }
         }
-        System.out.println("ERROR: Could not find a book with isbn: " + isbn);
         return null;
     }
 
@@ -586,23 +2314,80 @@ public class Library {
      * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
      */
     public Code listShelves(boolean showBooks) {
-        if(shelves.size() < 1) {
-            System.out.println("No shelves exist.  Nothing to display.");
+        if(showBooks) {
+            loadAllMappedBooks();
+        }
+        locks.catalogReadLock().lock();
+        try {
+            if(shelves.size() < 1) {
+                System.out.println("No shelves exist.  Nothing to display.");
+                return Code.SUCCESS;
+            }
+
+            if(showBooks) {
+                System.out.println("Displaying the " + name
+                        + "'s shelf sections with a list of books on those shelves.");
+            } else {
+                System.out.println("Displaying the " + name + "'s shelf sections.");
+            }
+            listShelvesLocked(System.out, showBooks, 0, Integer.MAX_VALUE);
             return Code.SUCCESS;
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);  // System.out does not throw
+        } finally {
+            locks.catalogReadLock().unlock();
         }
+    }
 
+    /**
+     * This method listShelves() writes one page of the shelves to out.  True writes each shelf with the books on
+     * it, one line at a time.  False writes only the shelf information.
+     * @param out where the listing is written (ex. a Writer)
+     * @param showBooks a boolean toggle for type of display of shelves
+     * @param offset the number of shelves to skip
+     * @param limit the most shelves to write
+     * @return the number of shelves written.  Fewer than limit means it was the last page.
+     * @throws IOException if out cannot be written
+     */
+    public int listShelves(Appendable out, boolean showBooks, int offset, int limit) throws IOException {
+        checkPage(offset, limit);
         if(showBooks) {
-            System.out.println("Displaying the " + name + "'s shelf sections with a list of books on those shelves.");
-            for(Map.Entry<String, Shelf> shelf : shelves.entrySet()) {
-                System.out.print(shelf.getValue().listBooks());
-            }
-        } else {
-            System.out.println("Displaying the " + name + "'s shelf sections.");
-            for(Map.Entry<String, Shelf> shelf : shelves.entrySet()) {
-                System.out.println(shelf.getValue().toString());
+            loadAllMappedBooks();
+        }
+        locks.catalogReadLock().lock();
+        try {
+            return listShelvesLocked(out, showBooks, offset, limit);
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    /**
+     * This method streamShelves() returns one page of the shelves, in the same order as listShelves().
+     * @param offset the number of shelves to skip
+     * @param limit the most shelves in the page
+     * @return the shelves
+     */
+    public Stream<Shelf> streamShelves(int offset, int limit) {
+        checkPage(offset, limit);
+        locks.catalogReadLock().lock();
+        try {
+            return page(shelves.values(), offset, limit).stream();
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    private int listShelvesLocked(Appendable out, boolean showBooks, int offset, int limit) throws IOException {
+        List<Shelf> page = page(shelves.values(), offset, limit);
+        for(Shelf shelf : page) {
+            if(showBooks) {
+                shelf.listBooks(out);
+            } else {
+                out.append(shelf.toString()).append('\n');
             }
         }
-        return Code.SUCCESS;
+        return page.size();
     }
 
     /**
@@ -612,23 +2397,41 @@ public class Library {
      * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
      */
     public Code addShelf(String shelfSubject) {
-        if(shelves.containsKey(shelfSubject)) {
-            System.out.println("ERROR: Shelf subject " + shelfSubject + " already exists.");
-            return Code.SHELF_EXISTS_ERROR;
-        } else {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        return metrics.record(LibraryMetrics.Operation.ADD_SHELF, start, addShelfUntimed(shelfSubject));
+    }
+
+    private Code addShelfUntimed(String shelfSubject) {
+        Code returnedCode;
+        long entry;
+        locks.catalogWriteLock().lock();
+        try {
             Shelf newShelf = new Shelf();
             newShelf.setShelfNumber(shelves.size() + 1);
             newShelf.setSubject(shelfSubject);
 
-            return addShelf(newShelf);
+            if(shelves.containsKey(shelfSubject)) {
+                if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                    LibraryLog.log(LogLevel.INFO, "ERROR: Shelf subject " + shelfSubject + " already exists.");
+                }
+                returnedCode = Code.SHELF_EXISTS_ERROR;
+            } else {
+                returnedCode = addShelfLocked(newShelf);
+            }
+            entry = journal == null ? 0 : journal.append(returnedCode, newShelf);
+        } finally {
+            locks.catalogWriteLock().unlock();
         }
+        return awaitRecord(entry, returnedCode);
     }
 
     /**
      * This method addShelf() that takes a Shelf object parameter creates a new Shelf in shelves(HashMap) if
      * the subject of the newShelf does not already exist in shelves.  This method adds books that have matching
      * subjects onto the shelf.
-     * NOTE: the newShelf passed in MUST already have its subject and shelfNumber set.
+     * NOTE: the newShelf passed in MUST already have its subject and shelfNumber set.  The shelf number is indexed when
+     * the shelf is added, so it should not be changed afterwards.
      * WARNING: DO NOT add books to shelf in initShelves() since this will cause a duplicate book error.  The
      * reason the books are added here is that this is a public method and new shelves can be created using
      * addShelf(String) method that calls this method.
@@ -636,18 +2439,53 @@ public class Library {
      * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
      */
     public Code addShelf(Shelf newShelf) {
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        return metrics.record(LibraryMetrics.Operation.ADD_SHELF, start, addShelfUntimed(newShelf));
+    }
+
+    private Code addShelfUntimed(Shelf newShelf) {
+        Code returnedCode;
+        long entry;
+        locks.catalogWriteLock().lock();
+        try {
+            returnedCode = addShelfLocked(newShelf);
+            entry = journal == null ? 0 : journal.append(returnedCode, newShelf);
+        } finally {
+            locks.catalogWriteLock().unlock();
+        }
+        return awaitRecord(entry, returnedCode);
+    }
+
+    /**
+     * This method addShelfLocked() does the work of addShelf(Shelf).  The caller must hold the catalog write lock.
+     */
+    private Code addShelfLocked(Shelf newShelf) {
         if(shelves.containsKey(newShelf.getSubject())) {
-            System.out.println("ERROR: Shelf [" + newShelf.getSubject() + "] already exists.");
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "ERROR: Shelf [" + newShelf.getSubject() + "] already exists.");
+            }
             return Code.SHELF_EXISTS_ERROR;
         }
+        loadMappedSubjectLocked(newShelf.getSubject());  // Its books wait in unshelved like the others
         shelves.put(newShelf.getSubject(), newShelf);
-
-        // Add books that belong to this shelf
-        for(Map.Entry<Book,Integer> book : books.entrySet()) {
-            if(book.getKey().getSubject().equals(newShelf.getSubject())) {
-                int bookValue = book.getValue();
-                for(int num = 0; num < bookValue; num++) {
-                    addBookToShelf(book.getKey(),newShelf);
+        indexShelfNumber(newShelf);
+        stats.addShelf(newShelf);
+        newShelf.setCountListener(bitmaps::setAvailable);
+
+        // Add books that belong to this shelf.  Only the books waiting for this subject are visited, and all copies
+        // of a book are moved at once.
+        List<CatalogKey> subjectBooks = unshelved.remove(newShelf.getSubject());
+        if(subjectBooks != null) {
+            for(CatalogKey key : subjectBooks) {
+                int copies = books.get(key, 0);
+                if(copies > 0) {
+                    newShelf.setBookCount(new Book(key, null), copies);
+                    if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                        for(int num = 0; num < copies; num++) {
+                            LibraryLog.log(LogLevel.INFO, key + " added to shelf " + newShelf);
+                        }
+                    }
                 }
             }
         }
@@ -661,30 +2499,148 @@ public class Library {
      * @return the shelf with the shelfNumber
      */
     public Shelf getShelf(Integer shelfNumber) {
-        int returnedSelfNumber;
+        Shelf shelf;
+        locks.catalogReadLock().lock();
+        try {
+            shelf = findShelf(shelfNumber);
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+
+        if(shelf == null) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "No shelf number " + shelfNumber + " found.");
+            }
+            return null;
+        }
+        loadMappedSubject(shelf.getSubject());
+        return shelf;
+    }
+
+    /**
+     * This method getShelves() returns the shelves numbered fromNumber through toNumber in shelf number order.
+     * Shelf numbers in the range that are not used are skipped.
+     * @param fromNumber the first shelf number in the range
+     * @param toNumber the last shelf number in the range (inclusive)
+     * @return a list of the shelves in the range.  The list is empty if no shelf is numbered in the range.
+     */
+    public List<Shelf> getShelves(int fromNumber, int toNumber) {
+        List<Shelf> rangeShelves = findShelves(fromNumber, toNumber);
+        if(catalog != null) {
+            for(Shelf shelf : rangeShelves) {
+                loadMappedSubject(shelf.getSubject());
+            }
+        }
+        return rangeShelves;
+    }
+
+    /**
+     * This method findShelves() does the work of getShelves() without loading any books from a mapped catalog.
+     */
+    private List<Shelf> findShelves(int fromNumber, int toNumber) {
+        locks.catalogReadLock().lock();
+        try {
+            List<Shelf> rangeShelves = new ArrayList<>();
+            if(fromNumber < 0) {
+                fromNumber = 0;
+            }
 
-        for(Map.Entry<String,Shelf> shelf : shelves.entrySet()) {
-            returnedSelfNumber = shelf.getValue().getShelfNumber();
-            if(returnedSelfNumber == shelfNumber) {
-                return shelf.getValue();
+            int denseEnd = Math.min(toNumber, shelfNumbers.length - 1);
+            for(int number = fromNumber; number <= denseEnd; number++) {
+                if(shelfNumbers[number] != null) {
+                    rangeShelves.add(shelfNumbers[number]);
+                }
+            }
+
+            // Only large ranges need the sparse shelves
+            if(toNumber > MAX_DENSE_SHELF_NUMBER && !sparseShelfNumbers.isEmpty()) {
+                List<Integer> sparseNumbers = new ArrayList<>(sparseShelfNumbers.keySet());
+                Collections.sort(sparseNumbers);
+                for(int number : sparseNumbers) {
+                    if(number >= fromNumber && number <= toNumber) {
+                        rangeShelves.add(sparseShelfNumbers.get(number));
+                    }
+                }
             }
+            return rangeShelves;
+        } finally {
+            locks.catalogReadLock().unlock();
         }
+    }
 
-        System.out.println("No shelf number " + shelfNumber + " found.");
+    /**
+     * This method findShelf() looks up the shelf number in the shelf number index without displaying anything.
+     * @param shelfNumber the integer shelf number wanted
+     * @return the shelf with the shelfNumber or null if there is no shelf with that number.
+     */
+    private Shelf findShelf(int shelfNumber) {
+        if(shelfNumber < 0) {
+            return null;
+        }
+        if(shelfNumber < shelfNumbers.length) {
+            return shelfNumbers[shelfNumber];
+        }
+        if(shelfNumber > MAX_DENSE_SHELF_NUMBER) {
+            return sparseShelfNumbers.get(shelfNumber);
+        }
         return null;
     }
 
+    /**
+     * This method indexShelfNumber() adds the shelf to the shelf number index.  Shelf numbers up to
+     * MAX_DENSE_SHELF_NUMBER are stored in the shelfNumbers array, and larger numbers in sparseShelfNumbers.
+     * NOTE: If two shelves use the same number, the first shelf added keeps the number.
+     * @param shelf the shelf being added to the library
+     */
+    private void indexShelfNumber(Shelf shelf) {
+        int shelfNumber = shelf.getShelfNumber();
+        if(shelfNumber < 0) {
+            return;
+        }
+
+        Shelf numberedShelf = findShelf(shelfNumber);
+        if(numberedShelf != null) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "WARNING: Shelf number " + shelfNumber + " is already used by shelf "
+                        + numberedShelf + ".");
+            }
+            return;
+        }
+
+        if(shelfNumber > MAX_DENSE_SHELF_NUMBER) {
+            sparseShelfNumbers.put(shelfNumber, shelf);
+            return;
+        }
+
+        if(shelfNumber >= shelfNumbers.length) {
+            int newLength = shelfNumbers.length;
+            while(newLength <= shelfNumber) {
+                newLength = newLength * 2;
+            }
+            shelfNumbers = Arrays.copyOf(shelfNumbers, Math.min(newLength, MAX_DENSE_SHELF_NUMBER + 1));
+        }
+        shelfNumbers[shelfNumber] = shelf;
+    }
+
     /**
      * This method getShelf() uses a shelf subject to find the shelf to return.
      * @param subject the string subject of a shelf being searched for
      * @return the shelf with the matching subject string
      */
     public Shelf getShelf(String subject) {
-        if(!shelves.containsKey(subject)) {
-            System.out.println("No shelf for " + subject + " books.");
-            return null;
+        loadMappedSubject(subject);
+        locks.catalogReadLock().lock();
+        try {
+            if(!shelves.containsKey(subject)) {
+                if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                    LibraryLog.log(LogLevel.INFO, "No shelf for " + subject + " books.");
+                }
+                return null;
+            }
+            return shelves.get(subject);
+        } finally {
+            locks.catalogReadLock().unlock();
         }
-        return shelves.get(subject);
     }
 
     /**
@@ -703,20 +2659,104 @@ public class Library {
      * @return the integer number of readers in the list
      */
     public int listReaders(boolean showBooks) {
-        if(showBooks) {
-            for(int i = 0; i < readers.size(); i++) {
-                System.out.println(readers.get(i));
+        locks.catalogReadLock().lock();
+        try {
+            listReadersLocked(System.out, showBooks, 0, Integer.MAX_VALUE);
+
+            if(readers.size() == 0) {
+                System.out.println("No readers to display.");
             }
-        } else {
-            for(int i = 0; i < readers.size(); i++) {
-                System.out.println(readers.get(i).getName() + " (#" + readers.get(i).getCardNumber() + ")");
+            return readers.size();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);  // System.out does not throw
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    /**
+     * This method listReaders() writes one page of the readers to out, in the order they were added.  If showBooks
+     * is true, each reader is written with the books they have checked out.  If false, only their names and
+     * library card numbers are written.
+     * @param out where the listing is written (ex. a Writer)
+     * @param showBooks a boolean toggle for type of display of readers
+     * @param offset the number of readers to skip
+     * @param limit the most readers to write
+     * @return the number of readers written.  Fewer than limit means it was the last page.
+     * @throws IOException if out cannot be written
+     */
+    public int listReaders(Appendable out, boolean showBooks, int offset, int limit) throws IOException {
+        checkPage(offset, limit);
+        locks.catalogReadLock().lock();
+        try {
+            return listReadersLocked(out, showBooks, offset, limit);
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    /**
+     * This method streamReaders() returns one page of the readers, in the order they were added.
+     * @param offset the number of readers to skip
+     * @param limit the most readers in the page
+     * @return the readers
+     */
+    public Stream<Reader> streamReaders(int offset, int limit) {
+        checkPage(offset, limit);
+        locks.catalogReadLock().lock();
+        try {
+            return page(readers, offset, limit).stream();
+        } finally {
+            locks.catalogReadLock().unlock();
+        }
+    }
+
+    private int listReadersLocked(Appendable out, boolean showBooks, int offset, int limit) throws IOException {
+        List<Reader> page = page(readers, offset, limit);
+        for(Reader reader : page) {
+            if(showBooks) {
+                // A reader's books can change during a checkout, so the reader is locked while it is displayed.
+                Lock readerLock = locks.readerLock(reader.getCardNumber());
+                readerLock.lock();
+                try {
+                    out.append(reader.toString()).append('\n');
+                } finally {
+                    readerLock.unlock();
+                }
+            } else {
+                out.append(reader.getName() + " (#" + reader.getCardNumber() + ")\n");
+            }
+        }
+        return page.size();
+    }
+
+    /**
+     * This method page() copies one page of items, skipping offset items and keeping at most limit.
+     * @param items the items in listing order
+     * @param offset the number of items to skip
+     * @param limit the most items to keep
+     * @return the page
+     */
+    private static <T> List<T> page(Iterable<T> items, int offset, int limit) {
+        List<T> page = new ArrayList<>();
+        int skipped = 0;
+        for(T item : items) {
+            if(page.size() == limit) {
+                break;
+            }
+            if(skipped < offset) {
+                skipped++;
+            } else {
+                page.add(item);
             }
         }
+        return page;
+    }
 
-        if(readers.size() == 0) {
-            System.out.println("No readers to display.");
+    private static void checkPage(int offset, int limit) {
+        if(offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative: " + offset + ", " + limit);
         }
-        return readers.size();
     }
 
     /**
@@ -727,13 +2767,34 @@ public class Library {
      * @return the reader object that matches the cardNumber account.
      */
     public Reader getReaderByCard(int cardNumber) {
-        for (Reader reader : readers) {
-            if (reader.getCardNumber() == cardNumber) {
-                return reader;
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        Reader reader = getReaderByCardUntimed(cardNumber);
+        metrics.record(LibraryMetrics.Operation.GET_READER_BY_CARD, start,
+                reader == null ? Code.READER_NOT_IN_LIBRARY_ERROR : Code.SUCCESS);
+        return reader;
+    }
+
+    private Reader getReaderByCardUntimed(int cardNumber) {
+        locks.catalogReadLock().lock();
+        try {
+            Reader reader = readers.get(cardNumber);
+            if(reader == null && LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "Could not find a reader with card #" + cardNumber);
             }
+            return reader;
+        } finally {
+            locks.catalogReadLock().unlock();
         }
-        System.out.println("Could not find a reader with card #" + cardNumber);
-        return null;
+    }
+
+    /**
+     * This method hasReader() checks if an equal reader is registered under the reader's card number.
+     * @param reader the reader being checked
+     * @return True if the reader is registered to the library or false if it is not.
+     */
+    private boolean hasReader(Reader reader) {
+        return reader != null && reader.equals(readers.get(reader.getCardNumber()));
     }
 
     /**
@@ -745,26 +2806,50 @@ public class Library {
      * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
      */
     public Code addReader(Reader reader) {
-        if(readers.contains(reader)) {
-            System.out.println("Error: " + reader.getName() + " already has an account!");
-            return Code.READER_ALREADY_EXISTS_ERROR;
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        return metrics.record(LibraryMetrics.Operation.ADD_READER, start, addReaderUntimed(reader));
+    }
+
+    private Code addReaderUntimed(Reader reader) {
+        Code returnedCode;
+        long entry;
+        locks.catalogWriteLock().lock();
+        try {
+            returnedCode = addReaderLocked(reader);
+            entry = journal == null ? 0 : journal.append(returnedCode, reader);
+        } finally {
+            locks.catalogWriteLock().unlock();
         }
+        return awaitRecord(entry, returnedCode);
+    }
 
-        for (Reader value : readers) {
-            if (reader.getCardNumber() == value.getCardNumber()) {
-                System.out.println("ERROR: " + value.getName() + " and " + reader.getName()
+    /**
+     * This method addReaderLocked() does the work of addReader().  The caller must hold the catalog write lock.
+     */
+    private Code addReaderLocked(Reader reader) {
+        Reader cardHolder = readers.get(reader.getCardNumber());
+        if(cardHolder != null) {
+            if(cardHolder.equals(reader)) {
+                if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                    LibraryLog.log(LogLevel.INFO, "Error: " + reader.getName() + " already has an account!");
+                }
+                return Code.READER_ALREADY_EXISTS_ERROR;
+            }
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "ERROR: " + cardHolder.getName() + " and " + reader.getName()
                         + " have the same card number!");
-                return Code.READER_CARD_NUMBER_ERROR;
             }
+            return Code.READER_CARD_NUMBER_ERROR;
         }
 
-        readers.add(reader);
+        readers.put(reader.getCardNumber(), reader);
 //        System.out.println(reader.getName() + " added to the reader's list!");
 
         // updates the libraryCard number, which is the last used card number
-        if(reader.getCardNumber() > libraryCard) {
-            libraryCard = reader.getCardNumber();
-        }
+        libraryCard.accumulateAndGet(reader.getCardNumber(), Math::max);
+        indexLoans(reader);
+        stats.addReader(reader.getBookCount());
 
         return Code.SUCCESS;
     }
@@ -777,23 +2862,126 @@ public class Library {
      * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
      */
     public Code removeReader(Reader reader) {
-        for (Reader r : readers) {
-            if (r == reader) {
-                if(reader.getBookCount() > 0) {
-                    System.out.println(reader.getName() + " must return all books before removing reader.");
-                    return Code.READER_STILL_HAS_BOOKS_ERROR;
-                } else {
-                    readers.remove(reader);
-                    System.out.println(reader.getName() + "(#" + reader.getCardNumber()
+        LibraryMetrics metrics = this.metrics;
+        long start = metrics.start();
+        return metrics.record(LibraryMetrics.Operation.REMOVE_READER, start, removeReaderUntimed(reader));
+    }
+
+    private Code removeReaderUntimed(Reader reader) {
+        Code returnedCode;
+        long entry;
+        locks.catalogWriteLock().lock();
+        try {
+            returnedCode = removeReaderLocked(reader);
+            entry = record(Journal.Operation.REMOVE_READER, returnedCode, reader, null);
+        } finally {
+            locks.catalogWriteLock().unlock();
+        }
+        return awaitRecord(entry, returnedCode);
+    }
+
+    /**
+     * This method removeReaderLocked() does the work of removeReader().  The caller must hold the catalog write lock.
+     */
+    private Code removeReaderLocked(Reader reader) {
+        if(readers.get(reader.getCardNumber()) == reader) {
+            if(reader.getBookCount() > 0) {
+                if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                    LibraryLog.log(LogLevel.INFO,
+                            reader.getName() + " must return all books before removing reader.");
+                }
+                return Code.READER_STILL_HAS_BOOKS_ERROR;
+            } else {
+                readers.remove(reader.getCardNumber());
+                stats.removeReader(0);
+                if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                    LibraryLog.log(LogLevel.INFO, reader.getName() + "(#" + reader.getCardNumber()
                             + ") has been removed from " + name + " library.");
-                    return Code.SUCCESS;
                 }
+                return Code.SUCCESS;
             }
         }
-        System.out.println(reader.getName() + " is not a reader of " + name + " library.");
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, reader.getName() + " is not a reader of " + name + " library.");
+        }
         return Code.READER_NOT_IN_LIBRARY_ERROR;
     }
 
+    /**
+     * This method getStats() returns the running totals of the library.  They are kept up to date as the library
+     * changes, so they can be read at any time by any thread without locking the library.
+     * @return the library's statistics
+     */
+    public LibraryStats getStats() {
+        return stats;
+    }
+
+    /**
+     * This method setMetrics() starts counting the calls to each public operation by the Code returned and
+     * timing them (see LibraryMetrics).  The same metrics may be given to several libraries (ex. the shards of
+     * a ShardedLibrary) to add up their calls.
+     * @param metrics the metrics to record into, or LibraryMetrics.none() to stop recording
+     */
+    public void setMetrics(LibraryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public LibraryMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * This method isJournaled() checks if a journal is open (see openJournal).
+     * @return True if changes are being recorded in a journal
+     */
+    boolean isJournaled() {
+        return journal != null;
+    }
+
+    /**
+     * This method isMapped() checks if the books with an ISBN are still in the mapped catalog and not created yet
+     * (see openCatalog).
+     * @param isbn the ISBN of the books
+     * @return True if the books have not been loaded
+     */
+    boolean isMapped(String isbn) {
+        MappedCatalog mapped = catalog;
+        if(mapped == null) {
+            return false;
+        }
+        int first = mapped.find(isbn);
+        return first >= 0 && !mapped.isLoaded(first);
+    }
+
+    /**
+     * This method firstError() returns the Code a batch call is counted under in the metrics.
+     * @return the first Code that is not Code.SUCCESS, or Code.SUCCESS if every book succeeded
+     */
+    private static Code firstError(Code[] returnedCodes) {
+        for(Code returnedCode : returnedCodes) {
+            if(returnedCode != Code.SUCCESS) {
+                return returnedCode;
+            }
+        }
+        return Code.SUCCESS;
+    }
+
+    /**
+     * This method holdCode() returns the Code a placeHold() call is counted under in the metrics.  A hold still
+     * waiting in line is counted as Code.SUCCESS.
+     */
+    private static Code holdCode(CompletableFuture<Code> hold) {
+        return hold.isDone() && !hold.isCompletedExceptionally() ? hold.join() : Code.SUCCESS;
+    }
+
+    /**
+     * This method isConcurrent() checks if the library was created to be used by several threads.
+     * @return True if the library locks its readers and shelves during checkouts and returns.
+     */
+    public boolean isConcurrent() {
+        return locks.isConcurrent();
+    }
+
     /**
      * This static method getLibraryCardNumber() returns the next library card value available for adding a new
      * reader.
@@ -801,7 +2989,7 @@ public class Library {
      * @return integer value of the next library card number available
      */
     public static int getLibraryCardNumber() {
-        return libraryCard + 1;
+        return libraryCard.get() + 1;
     }
 
     /**
@@ -817,15 +3005,19 @@ public class Library {
         try {
             recordCount = Integer.parseInt(recordCountString);
         } catch(NumberFormatException e) {
-            System.out.println("   INVALID integer input: " + recordCountString);
+            if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+                LibraryLog.log(LogLevel.WARNING, "   INVALID integer input: " + recordCountString);
+            }
             switch (code) {
-                case BOOK_COUNT_ERROR -> System.out.println("ERROR: Could not read number of books.");
-                case PAGE_COUNT_ERROR -> System.out.println("ERROR: Could not parse page count.");
-                case DATE_CONVERSION_ERROR -> System.out.println("ERROR: Could not parse date component.");
-                case SHELF_COUNT_ERROR -> System.out.println("ERROR: Could not read number of shelves.");
-                case READER_COUNT_ERROR -> System.out.println("ERROR: Could not read number of readers.");
+                case BOOK_COUNT_ERROR -> LibraryLog.log(LogLevel.WARNING, "ERROR: Could not read number of books.");
+                case PAGE_COUNT_ERROR -> LibraryLog.log(LogLevel.WARNING, "ERROR: Could not parse page count.");
+                case DATE_CONVERSION_ERROR -> LibraryLog.log(LogLevel.WARNING,
+                        "ERROR: Could not parse date component.");
+                case SHELF_COUNT_ERROR -> LibraryLog.log(LogLevel.WARNING, "ERROR: Could not read number of shelves.");
+                case READER_COUNT_ERROR -> LibraryLog.log(LogLevel.WARNING,
+                        "ERROR: Could not read number of readers.");
                 default -> {
-                    System.out.println("ERROR: Unknown conversion error.");
+                    LibraryLog.log(LogLevel.WARNING, "ERROR: Unknown conversion error.");
                     return -666; // Evil code.
                 }
             }
@@ -857,22 +3049,28 @@ public class Library {
 
             int year = convertInt(dateFields.get(0).trim(), Code.DATE_CONVERSION_ERROR);
             if(year < 0) {
-                System.out.println("ERROR: Invalid year entry " + dateFields.get(0).trim());
-                System.out.println("Using default date (YYYY-MM-DD): " + DEFAULT_DATE);
+                if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+                    LibraryLog.log(LogLevel.WARNING, "ERROR: Invalid year entry " + dateFields.get(0).trim());
+                    LibraryLog.log(LogLevel.WARNING, "Using default date (YYYY-MM-DD): " + DEFAULT_DATE);
+                }
                 return DEFAULT_DATE;
             }
 
             int month = convertInt(dateFields.get(1).trim(), Code.DATE_CONVERSION_ERROR);
             if(month < 0) {
-                System.out.println("ERROR: Invalid month entry " + dateFields.get(1).trim());
-                System.out.println("Using default date (YYYY-MM-DD): " + DEFAULT_DATE);
+                if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+                    LibraryLog.log(LogLevel.WARNING, "ERROR: Invalid month entry " + dateFields.get(1).trim());
+                    LibraryLog.log(LogLevel.WARNING, "Using default date (YYYY-MM-DD): " + DEFAULT_DATE);
+                }
                 return DEFAULT_DATE;
             }
 
             int day = convertInt(dateFields.get(2).trim(), Code.DATE_CONVERSION_ERROR);
             if(day < 0) {
-                System.out.println("ERROR: Invalid day entry " + dateFields.get(2).trim());
-                System.out.println("Using default date (YYYY-MM-DD): " + DEFAULT_DATE);
+                if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+                    LibraryLog.log(LogLevel.WARNING, "ERROR: Invalid day entry " + dateFields.get(2).trim());
+                    LibraryLog.log(LogLevel.WARNING, "Using default date (YYYY-MM-DD): " + DEFAULT_DATE);
+                }
                 return DEFAULT_DATE;
             }
 
@@ -881,18 +3079,26 @@ public class Library {
                 return LocalDate.of(year, month, day);
             } catch (DateTimeException e) {
                 if(year < 0) {
-                    System.out.println("ERROR: Cannot convert Year [" + year + "]");
+                    if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+                        LibraryLog.log(LogLevel.WARNING, "ERROR: Cannot convert Year [" + year + "]");
+                    }
                 }
 
                 if(month < 0 || month > 12) {
-                    System.out.println("ERROR: Cannot convert Month [" + month + "]");
+                    if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+                        LibraryLog.log(LogLevel.WARNING, "ERROR: Cannot convert Month [" + month + "]");
+                    }
                 }
 
                 if(day < 0 || day > 31) {
-                    System.out.println("   ERROR: Cannot convert Day [" + day + "]");
+                    if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+                        LibraryLog.log(LogLevel.WARNING, "   ERROR: Cannot convert Day [" + day + "]");
+                    }
                 }
 
-                System.out.println("   Using default date (YYYY-MM-DD): " + DEFAULT_DATE);
+                if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+                    LibraryLog.log(LogLevel.WARNING, "   Using default date (YYYY-MM-DD): " + DEFAULT_DATE);
+                }
 //                e.printStackTrace();
 
                 // invalid date cannot be converted, so return default date
@@ -900,8 +3106,10 @@ public class Library {
             } // end try/catch block
         } // end if(dateFields.size() == 3) block
 
-        System.out.println("ERROR: " + code.getCode() + ", could not parse " + date);
-        System.out.println("Using default date (YYYY-MM-DD): " + DEFAULT_DATE);
+        if(LibraryLog.isEnabled(LogLevel.WARNING)) {
+            LibraryLog.log(LogLevel.WARNING, "ERROR: " + code.getCode() + ", could not parse " + date);
+            LibraryLog.log(LogLevel.WARNING, "Using default date (YYYY-MM-DD): " + DEFAULT_DATE);
+        }
         // date parameter passed in was not in the correct format of YYYY-MM-DD
         return DEFAULT_DATE;
     }
@@ -0,0 +1,171 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * title: LibraryFileReader.java
+ * abstract: This class LibraryFileReader reads a library .csv file one line at a time for Library.init().  The file
+ * is read in large blocks through a FileChannel instead of a Scanner, and each line is split into fields by a
+ * reused FieldTokenizer.  The reader also counts lines so init() can report how fast the file was parsed.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: Lines can end with \n, \r\n, or \r like Scanner.nextLine().  The file is expected to be UTF-8 (or ASCII).
+ */
+
+public class LibraryFileReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;  // Bytes read from the file at a time
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final FieldTokenizer tokenizer = new FieldTokenizer();
+    private byte[] lineBytes = new byte[256];  // Bytes of the line being read, reused for every line
+    private String line;                       // Current line with whitespace trimmed
+    private boolean tokenized;                 // True once the current line has been given to the tokenizer
+    private boolean skipLineFeed;              // True if the last line ended with \r, so a \n after it is skipped
+    private boolean endOfFile;
+    private long lineCount;
+    private final long startTime;
+
+    public LibraryFileReader(String filename) throws IOException {
+        channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.flip();  // Starts empty
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * This method nextLine() reads the next line of the file.  The line is available from getLine() and its
+     * fields from fields().
+     * @return True if a line was read or false if the end of the file has been reached.
+     * @throws IOException if the file could not be read.
+     */
+    public boolean nextLine() throws IOException {
+        int lineLength = 0;
+        boolean foundLine = false;
+
+        while(true) {
+            if(!buffer.hasRemaining()) {
+                if(endOfFile || !fill()) {
+                    break;
+                }
+            }
+
+            byte[] bytes = buffer.array();
+            int position = buffer.position();
+            int limit = buffer.limit();
+
+            if(skipLineFeed) {
+                skipLineFeed = false;
+                if(bytes[position] == '\n') {
+                    buffer.position(++position);
+                    continue;
+                }
+            }
+
+            int end = position;
+            while(end < limit && bytes[end] != '\n' && bytes[end] != '\r') {
+                end++;
+            }
+
+            int length = end - position;
+            if(lineLength + length > lineBytes.length) {
+                lineBytes = Arrays.copyOf(lineBytes, Math.max(lineBytes.length * 2, lineLength + length));
+            }
+            System.arraycopy(bytes, position, lineBytes, lineLength, length);
+            lineLength += length;
+            foundLine = true;
+
+            if(end < limit) {
+                skipLineFeed = bytes[end] == '\r';
+                buffer.position(end + 1);
+                setLine(lineLength);
+                return true;
+            }
+            buffer.position(end);
+        }
+
+        // The last line of a file does not need a line ending.
+        if(foundLine && lineLength > 0) {
+            setLine(lineLength);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method getLine() returns the current line with the whitespace trimmed from both ends.
+     * @return the current line
+     */
+    public String getLine() {
+        return line;
+    }
+
+    /**
+     * This method fields() returns the fields of the current line.  The tokenizer is reused, so the fields are
+     * only valid until nextLine() is called again.
+     * @return the tokenizer for the current line
+     */
+    public FieldTokenizer fields() {
+        if(!tokenized) {
+            tokenizer.reset(line);
+            tokenized = true;
+        }
+        return tokenizer;
+    }
+
+    /**
+     * This method getLineCount() returns how many lines have been read so far.
+     * @return the number of lines read
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * This method getLinesPerSecond() returns the number of lines read per second since the file was opened.
+     * @return lines read per second
+     */
+    public long getLinesPerSecond() {
+        long elapsed = Math.max(System.nanoTime() - startTime, 1);
+        return lineCount * 1_000_000_000L / elapsed;
+    }
+
+    /**
+     * This method getElapsedMillis() returns the number of milliseconds since the file was opened.
+     * @return elapsed milliseconds
+     */
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startTime) / 1_000_000L;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int read = channel.read(buffer);
+        while(read == 0) {
+            read = channel.read(buffer);
+        }
+        buffer.flip();
+        if(read < 0) {
+            endOfFile = true;
+            return false;
+        }
+        return true;
+    }
+
+    private void setLine(int lineLength) {
+        line = new String(lineBytes, 0, lineLength, StandardCharsets.UTF_8).trim();
+        tokenized = false;
+        lineCount++;
+    }
+}
@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: LibraryFileReaderTest.java
+ * abstract: This class LibraryFileReaderTest() is a jUnit test for LibraryFileReader.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class LibraryFileReaderTest {
+    private static final int BUFFER_SIZE = 1 << 16;  // Same as LibraryFileReader.BUFFER_SIZE
+
+    @TempDir
+    Path directory;
+
+    private List<String> readLines(String text) throws IOException {
+        Path file = directory.resolve("library.csv");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        List<String> lines = new ArrayList<>();
+        try(LibraryFileReader reader = new LibraryFileReader(file.toString())) {
+            while(reader.nextLine()) {
+                lines.add(reader.getLine());
+            }
+            assertEquals(lines.size(), reader.getLineCount());
+        }
+        return lines;
+    }
+
+    @Test
+    void lineEndings() throws IOException {
+        assertEquals(List.of("1", "a,b", "c"), readLines("1\na,b\nc\n"));
+        assertEquals(List.of("1", "a,b", "c"), readLines("1\r\na,b\r\nc\r\n"));
+        assertEquals(List.of("1", "a,b", "c"), readLines("1\ra,b\rc\r"));
+        assertEquals(List.of("1", "a,b", "c", "d"), readLines("1\r\na,b\rc\nd"));  // mixed
+        assertEquals(List.of("1", "", "c"), readLines("1\n\nc\n"));  // an empty line is still a line
+        assertEquals(List.of("1", "", "c"), readLines("1\r\n\r\nc"));
+    }
+
+    @Test
+    void lastLineWithoutNewline() throws IOException {
+        assertEquals(List.of("1", "last"), readLines("1\nlast"));
+        assertEquals(List.of("only"), readLines("only"));
+        assertEquals(List.of(), readLines(""));
+        assertEquals(List.of("trimmed"), readLines("  trimmed \t"));
+    }
+
+    @Test
+    void lineAcrossTheBuffer() throws IOException {
+        String first = "x".repeat(BUFFER_SIZE - 10);
+        String second = "1337,Headfirst Java,education,1337,Grady Booch,0000";  // starts 9 bytes before the end
+        String third = "\u00e9".repeat(BUFFER_SIZE);  // longer than the buffer, 2-byte characters split across it
+        assertEquals(List.of(first, second, third, "end"), readLines(first + "\n" + second + "\n" + third
+                + "\nend"));
+    }
+
+    @Test
+    void crlfAcrossTheBuffer() throws IOException {
+        String first = "x".repeat(BUFFER_SIZE - 1);  // the \r ends the buffer and the \n starts the next one
+        assertEquals(List.of(first, "next"), readLines(first + "\r\nnext\r\n"));
+        assertEquals(List.of(first, "", "next"), readLines(first + "\r\r\nnext"));
+    }
+
+    @Test
+    void fieldsOfEachLine() throws IOException {
+        Path file = directory.resolve("library.csv");
+        Files.writeString(file, "2\r\n1337, Headfirst Java ,education\r\n,,\r\n");
+        try(LibraryFileReader reader = new LibraryFileReader(file.toString())) {
+            assertTrue(reader.nextLine());
+            assertEquals(1, reader.fields().size());
+            assertTrue(reader.nextLine());
+            assertEquals(3, reader.fields().size());
+            assertEquals("Headfirst Java", reader.fields().get(1));
+            assertTrue(reader.nextLine());
+            assertEquals(0, reader.fields().size());  // ",,".split(",") has no fields
+            assertFalse(reader.nextLine());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * title: LibraryLocks.java
+ * abstract: This class LibraryLocks holds the locks a Library uses when several threads (ex. branch terminals) use
+ * it at the same time.  Checkouts and returns only lock the reader and the subject shelf they use, so work on
+ * different shelves runs in parallel.  Changes to what the library holds (adding books, shelves, or readers) lock
+ * the whole catalog.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * LOCK ORDER: Locks MUST be taken in this order to avoid deadlock:
+ *      (1) the catalog lock (read lock for circulation, write lock for adding/removing books, shelves, readers)
+ *      (2) reader locks, in increasing stripe order
+ *      (3) shelf locks, in increasing stripe order
+ * Readers and shelves are locked by stripe: several readers (or subjects) can share one lock.  The locks are
+ * reentrant, so a thread that already holds a lock can call methods that take it again.
+ */
+
+public class LibraryLocks {
+    public static final int DEFAULT_STRIPES = 64;  // Number of reader locks and of shelf locks
+
+    private static final Lock NO_LOCK = new NoLock();
+    private static final LibraryLocks NONE = new LibraryLocks();
+
+    private final Lock catalogReadLock;
+    private final Lock catalogWriteLock;
+    private final Lock[] readerLocks;
+    private final Lock[] shelfLocks;
+    private final int mask;
+
+    /**
+     * This constructor creates the locks for a concurrent library.
+     * @param stripes the number of reader locks and of shelf locks.  Rounded up to a power of 2.
+     */
+    public LibraryLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1;
+        ReadWriteLock catalogLock = new ReentrantReadWriteLock();
+        catalogReadLock = catalogLock.readLock();
+        catalogWriteLock = catalogLock.writeLock();
+        readerLocks = new Lock[size];
+        shelfLocks = new Lock[size];
+        for(int i = 0; i < size; i++) {
+            readerLocks[i] = new ReentrantLock();
+            shelfLocks[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    // Used by none(): every lock does nothing.
+    private LibraryLocks() {
+        catalogReadLock = NO_LOCK;
+        catalogWriteLock = NO_LOCK;
+        readerLocks = new Lock[] {NO_LOCK};
+        shelfLocks = new Lock[] {NO_LOCK};
+        mask = 0;
+    }
+
+    /**
+     * This method none() returns locks that do nothing.  It is used by a Library that is only used by one thread.
+     * @return LibraryLocks whose locks do nothing
+     */
+    public static LibraryLocks none() {
+        return NONE;
+    }
+
+    /**
+     * This method isConcurrent() checks if these locks really lock.
+     * @return False if these are the do-nothing locks from none().
+     */
+    public boolean isConcurrent() {
+        return this != NONE;
+    }
+
+    public Lock catalogReadLock() {
+        return catalogReadLock;
+    }
+
+    public Lock catalogWriteLock() {
+        return catalogWriteLock;
+    }
+
+    /**
+     * This method readerStripe() returns the index of the lock used for a card number.
+     * @param cardNumber a reader's card number
+     * @return the reader lock stripe
+     */
+    public int readerStripe(int cardNumber) {
+        return spread(cardNumber) & mask;
+    }
+
+    /**
+     * This method shelfStripe() returns the index of the lock used for a shelf subject.
+     * @param subject a shelf's subject
+     * @return the shelf lock stripe
+     */
+    public int shelfStripe(String subject) {
+        return spread(subject.hashCode()) & mask;
+    }
+
+    public Lock readerLock(int cardNumber) {
+        return readerLocks[readerStripe(cardNumber)];
+    }
+
+    public Lock shelfLock(String subject) {
+        return shelfLocks[shelfStripe(subject)];
+    }
+
+    /**
+     * This method lockShelves() locks the shelf locks for several subjects in increasing stripe order.
+     * @param subjects the subjects of the shelves being used
+     * @return the stripes that were locked.  Pass them to unlockShelves() when done.
+     */
+    public int[] lockShelves(Collection<String> subjects) {
+        int[] stripes = subjects.stream().mapToInt(this::shelfStripe).distinct().sorted().toArray();
+        for(int stripe : stripes) {
+            shelfLocks[stripe].lock();
+        }
+        return stripes;
+    }
+
+    /**
+     * This method unlockShelves() unlocks the shelf locks locked by lockShelves().
+     * @param stripes the value returned by lockShelves()
+     */
+    public void unlockShelves(int[] stripes) {
+        for(int i = stripes.length - 1; i >= 0; i--) {
+            shelfLocks[stripes[i]].unlock();
+        }
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * This class NoLock is a Lock that does nothing.
+     */
+    private static class NoLock implements Lock {
+        @Override
+        public void lock() {
+        }
+
+        @Override
+        public void lockInterruptibly() {
+        }
+
+        @Override
+        public boolean tryLock() {
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("NoLock does not support conditions");
+        }
+    }
+}
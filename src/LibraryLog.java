@@ -0,0 +1,76 @@
+/**
+ * title: LibraryLog.java
+ * abstract: This class LibraryLog sends the messages of Library, Shelf, and the parsing methods to one EventSink.
+ * By default the sink only keeps the latest warnings and errors in memory (RingBufferSink), so the library does
+ * not display anything.  setVerbose(true) displays every message on the console like before.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: Build a message only after isEnabled() returns true, ex.
+ *       if(LibraryLog.isEnabled(LogLevel.INFO)) {
+ *           LibraryLog.log(LogLevel.INFO, book + " checked out successfully.");
+ *       }
+ *       That way a message nobody wants costs no String building.
+ */
+
+public class LibraryLog {
+    public static final int DEFAULT_CAPACITY = 1024;  // Messages kept by the default sink
+
+    private static volatile EventSink sink = defaultSink();
+
+    private LibraryLog() {
+    }
+
+    /**
+     * This method isEnabled() checks if the current sink wants messages at level.
+     * @param level the level of the message about to be built
+     * @return True if the message should be built and logged.
+     */
+    public static boolean isEnabled(LogLevel level) {
+        return sink.isEnabled(level);
+    }
+
+    /**
+     * This method log() sends a message to the current sink.
+     * @param level the level of the message
+     * @param message the message
+     */
+    public static void log(LogLevel level, String message) {
+        sink.publish(level, message);
+    }
+
+    public static EventSink getSink() {
+        return sink;
+    }
+
+    /**
+     * This method setSink() replaces the current sink.  The old sink is flushed first.
+     * @param newSink the sink that receives messages from now on.  null is the same as EventSink.SILENT.
+     */
+    public static void setSink(EventSink newSink) {
+        EventSink oldSink = sink;
+        sink = newSink == null ? EventSink.SILENT : newSink;
+        oldSink.flush();
+    }
+
+    /**
+     * This method setVerbose() turns verbose mode on or off.  Verbose mode displays every message on the console.
+     * Turning it off goes back to the default sink.
+     * @param verbose True to display every message
+     */
+    public static void setVerbose(boolean verbose) {
+        setSink(verbose ? new ConsoleSink(LogLevel.DEBUG) : defaultSink());
+    }
+
+    /**
+     * This method isVerbose() checks if every message is being displayed on the console.
+     * @return True if verbose mode is on.
+     */
+    public static boolean isVerbose() {
+        return sink instanceof ConsoleSink && sink.isEnabled(LogLevel.DEBUG);
+    }
+
+    private static EventSink defaultSink() {
+        return new RingBufferSink(LogLevel.WARNING, DEFAULT_CAPACITY);
+    }
+}
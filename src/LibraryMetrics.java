@@ -0,0 +1,179 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * title: LibraryMetrics.java
+ * abstract: This class LibraryMetrics counts the calls to each public Library operation by the Code they returned,
+ * and keeps a histogram of how long the calls took.  The histogram has fixed buckets (250 ns up to 10 s in steps
+ * of 1, 2.5, and 5), so recording a call is a bucket search and two LongAdder increments, which threads on
+ * different cores do not contend on.  snapshot() copies the totals for reports (see MetricsSnapshot).
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: A Library starts with the metrics from none(), which record nothing and never read the clock.  Calls the
+ *       library makes to itself (ex. the addBook() for each line read by init()) are counted too.
+ */
+
+public class LibraryMetrics {
+
+    /**
+     * This enum Operation is each public Library operation that is measured.
+     */
+    public enum Operation {
+        INIT("init"),
+        LOAD_SNAPSHOT("loadSnapshot"),
+        SAVE_SNAPSHOT("saveSnapshot"),
+        ADD_BOOK("addBook"),
+        ADD_SHELF("addShelf"),
+        ADD_READER("addReader"),
+        REMOVE_READER("removeReader"),
+        CHECK_OUT_BOOK("checkOutBook"),
+        RETURN_BOOK("returnBook"),
+        CHECK_OUT_BOOKS("checkOutBooks"),
+        RETURN_BOOKS("returnBooks"),
+        PLACE_HOLD("placeHold"),
+        CANCEL_HOLD("cancelHold"),
+        GET_BOOK_BY_ISBN("getBookByISBN"),
+        GET_READER_BY_CARD("getReaderByCard"),
+        SEARCH_BOOKS("searchBooks"),
+        FIND_BOOKS("findBooks");
+
+        private final String methodName;
+
+        Operation(String methodName) {
+            this.methodName = methodName;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+    }
+
+    private static final long[] BUCKET_BOUNDS = {   // Upper bound (inclusive) of each bucket in nanoseconds
+            250L, 500L, 1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L, 100_000_000L,
+            250_000_000L, 500_000_000L, 1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L};
+    private static final LibraryMetrics NONE = new LibraryMetrics(false);
+
+    private final boolean enabled;
+    private final LongAdder[][] codeCounts;     // Calls of each operation by Code ordinal
+    private final LongAdder[][] buckets;        // Calls of each operation by histogram bucket.  The last is overflow.
+    private final LongAdder[] totalNanos;       // Time of all calls of each operation
+
+    /**
+     * This constructor makes metrics that record every call.  Pass them to Library.setMetrics().
+     */
+    public LibraryMetrics() {
+        this(true);
+    }
+
+    private LibraryMetrics(boolean enabled) {
+        this.enabled = enabled;
+        int operations = enabled ? Operation.values().length : 0;
+        codeCounts = new LongAdder[operations][];
+        buckets = new LongAdder[operations][];
+        totalNanos = new LongAdder[operations];
+        for(int i = 0; i < operations; i++) {
+            codeCounts[i] = adders(Code.values().length);
+            buckets[i] = adders(BUCKET_BOUNDS.length + 1);
+            totalNanos[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * This method none() returns metrics that record nothing.  It is used by a Library that is not measured.
+     * @return LibraryMetrics that record nothing
+     */
+    public static LibraryMetrics none() {
+        return NONE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method getBucketBounds() returns the upper bound of each histogram bucket.  A call is counted in the
+     * first bucket whose bound it is at or under, and calls over the last bound are counted in one more bucket.
+     * @return the bounds in nanoseconds, smallest first
+     */
+    public static long[] getBucketBounds() {
+        return BUCKET_BOUNDS.clone();
+    }
+
+    /**
+     * This method start() reads the clock at the start of a call.
+     * @return the start time to pass to record(), or 0 if these metrics record nothing
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * This method record() counts a call that returned code and adds its time to the histogram.
+     * @param operation the operation called
+     * @param start the time returned by start()
+     * @param code the Code the call returned
+     * @return code, so a call can return record(...)
+     */
+    public Code record(Operation operation, long start, Code code) {
+        if(enabled) {
+            long nanos = System.nanoTime() - start;
+            int index = Arrays.binarySearch(BUCKET_BOUNDS, nanos);
+            int operationIndex = operation.ordinal();
+            codeCounts[operationIndex][code.ordinal()].increment();
+            buckets[operationIndex][index < 0 ? -index - 1 : index].increment();
+            totalNanos[operationIndex].add(nanos);
+        }
+        return code;
+    }
+
+    /**
+     * This method snapshot() copies the totals so far.  Calls that finish while it copies may be in some totals
+     * and not yet in others.
+     * @return the totals, which no longer change
+     */
+    public MetricsSnapshot snapshot() {
+        int operations = Operation.values().length;
+        long[][] codes = new long[operations][Code.values().length];
+        long[][] bucketCounts = new long[operations][BUCKET_BOUNDS.length + 1];
+        long[] nanos = new long[operations];
+        if(enabled) {
+            for(int i = 0; i < operations; i++) {
+                sum(codeCounts[i], codes[i]);
+                sum(buckets[i], bucketCounts[i]);
+                nanos[i] = totalNanos[i].sum();
+            }
+        }
+        return new MetricsSnapshot(codes, bucketCounts, nanos, BUCKET_BOUNDS);
+    }
+
+    /**
+     * This method reset() sets every total back to 0 (ex. after a warmup).
+     */
+    public void reset() {
+        for(int i = 0; i < codeCounts.length; i++) {
+            for(LongAdder adder : codeCounts[i]) {
+                adder.reset();
+            }
+            for(LongAdder adder : buckets[i]) {
+                adder.reset();
+            }
+            totalNanos[i].reset();
+        }
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for(int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static void sum(LongAdder[] adders, long[] sums) {
+        for(int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+    }
+}
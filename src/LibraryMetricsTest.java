@@ -0,0 +1,76 @@
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: LibraryMetricsTest.java
+ * abstract: This class LibraryMetricsTest() is a jUnit test for LibraryMetrics.java and MetricsSnapshot.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class LibraryMetricsTest {
+    Reader reader = new Reader(1, "Drew Clinkenbeard", "831-582-4007");
+    Book testBook = new Book("1337", "Headfirst Java", "education", 1337, "Grady Booch", null);
+
+    @Test
+    void countsCallsByCode() {
+        LibraryLog.setVerbose(false);
+        Library library = new Library("Metrics Library");
+        LibraryMetrics metrics = new LibraryMetrics();
+        library.setMetrics(metrics);
+        library.addShelf("education");
+        library.addBook(testBook);
+        library.addBook(testBook);
+        library.addReader(reader);
+        assertEquals(Code.SUCCESS, library.checkOutBook(reader, testBook));
+        assertEquals(Code.BOOK_ALREADY_CHECKED_OUT_ERROR, library.checkOutBook(reader, testBook));
+        assertNull(library.getBookByISBN("nope"));
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.getCount(LibraryMetrics.Operation.CHECK_OUT_BOOK));
+        assertEquals(1, snapshot.getCount(LibraryMetrics.Operation.CHECK_OUT_BOOK, Code.SUCCESS));
+        assertEquals(1, snapshot.getCount(LibraryMetrics.Operation.CHECK_OUT_BOOK,
+                Code.BOOK_ALREADY_CHECKED_OUT_ERROR));
+        assertEquals(1, snapshot.getCount(LibraryMetrics.Operation.GET_BOOK_BY_ISBN,
+                Code.BOOK_NOT_IN_INVENTORY_ERROR));
+        assertEquals(2, Arrays.stream(snapshot.getBucketCounts(LibraryMetrics.Operation.CHECK_OUT_BOOK)).sum());
+        assertTrue(snapshot.getPercentileNanos(LibraryMetrics.Operation.CHECK_OUT_BOOK, 0.99) > 0);
+        assertEquals(0, snapshot.getCount(LibraryMetrics.Operation.RETURN_BOOK));
+
+        String text = snapshot.toString();
+        assertTrue(text.contains("library_calls_total{operation=\"checkOutBook\",code=\"SUCCESS\"} 1\n"));
+        assertTrue(text.contains("library_call_seconds_count{operation=\"checkOutBook\"} 2\n"));
+        assertTrue(text.contains("library_call_seconds_bucket{operation=\"checkOutBook\",le=\"+Inf\"} 2\n"));
+        assertFalse(text.contains("returnBook"));
+
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().getCount(LibraryMetrics.Operation.CHECK_OUT_BOOK));
+    }
+
+    @Test
+    void noneRecordsNothing() {
+        LibraryLog.setVerbose(false);
+        Library library = new Library("Metrics Library");
+        assertFalse(library.getMetrics().isEnabled());
+        library.addBook(testBook);
+        assertEquals(0, library.getMetrics().start());
+        assertEquals(0, library.getMetrics().snapshot().getCount(LibraryMetrics.Operation.ADD_BOOK));
+        assertEquals("", library.getMetrics().snapshot().toString().replaceAll("#.*\n", ""));
+    }
+
+    @Test
+    void percentileIsBucketBound() {
+        LibraryMetrics metrics = new LibraryMetrics();
+        long[] bounds = LibraryMetrics.getBucketBounds();
+        for(int i = 0; i < 99; i++) {
+            metrics.record(LibraryMetrics.Operation.ADD_BOOK, System.nanoTime(), Code.SUCCESS);
+        }
+        metrics.record(LibraryMetrics.Operation.ADD_BOOK, System.nanoTime() - bounds[bounds.length - 1] - 1,
+                Code.SUCCESS);
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertTrue(snapshot.getPercentileNanos(LibraryMetrics.Operation.ADD_BOOK, 0.5) <= bounds[10]);
+        assertEquals(Long.MAX_VALUE, snapshot.getPercentileNanos(LibraryMetrics.Operation.ADD_BOOK, 1.0));
+        assertEquals(1, snapshot.getBucketCounts(LibraryMetrics.Operation.ADD_BOOK)[bounds.length]);
+    }
+}
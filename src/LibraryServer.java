@@ -0,0 +1,358 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * title: LibraryServer.java
+ * abstract: This class LibraryServer lets branch terminals use one Library over a socket.  The protocol is one
+ * request per line and one response per request, in order, so a terminal can send many requests before reading
+ * the responses (pipelining).  Responses are flushed when no more requests are waiting, so a pipelined batch goes
+ * back in a few writes.  Each connection is handled on its own thread: a virtual thread when the Java runtime has
+ * them (Java 21 and up), otherwise a pooled platform thread.  It needs nothing but the JDK.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * Requests (words are separated by one space, the last field is the rest of the line):
+ *      PING                                    OK PONG
+ *      BOOK [isbn]                             OK [book]
+ *      SEARCH [limit] [words]                  OK [count], then one book per line
+ *      CHECKOUT [cardNumber] [isbn]            OK
+ *      RETURN [cardNumber] [isbn]              OK
+ *      READER [cardNumber]                     OK [reader]
+ *      ADDREADER [cardNumber] [phone] [name]   OK
+ *      BOOKS [offset] [limit]                  OK [count], then one line per book
+ *      SHELVES [offset] [limit]                OK [count], then one line per shelf
+ *      READERS [offset] [limit]                OK [count], then one line per reader
+ *      METRICS                                 OK [count], then the library's metrics (see MetricsSnapshot)
+ *      QUIT                                    OK BYE, then the connection is closed
+ * A request that fails gets "ERR [code] [message]" (ex. ERR BOOK_LIMIT_REACHED_ERROR Book limit reached).
+ */
+
+public class LibraryServer implements Closeable {
+    public static final int DEFAULT_PORT = 7338;
+    public static final int MAX_PAGE = 1000;        // Most lines a listing or search returns at once
+
+    private final Library library;
+    private final InetSocketAddress address;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private ServerSocket serverSocket;
+    private ExecutorService connectionThreads;
+    private Thread acceptThread;
+
+    /**
+     * This constructor makes a server for library.  Nothing is opened until start() is called.
+     * @param library the library every connection uses
+     * @param address the address and port to listen on.  Port 0 picks a free port.
+     */
+    public LibraryServer(Library library, InetSocketAddress address) {
+        this.library = library;
+        this.address = address;
+    }
+
+    /**
+     * This method start() opens the server socket and starts accepting connections.
+     * @return the port the server is listening on
+     * @throws IOException if the socket cannot be opened (ex. the port is in use)
+     */
+    public int start() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(address, 512);
+        connectionThreads = newConnectionExecutor();
+        acceptThread = new Thread(this::acceptConnections, "library-server-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, "Library server listening on " + serverSocket.getLocalSocketAddress());
+        }
+        return serverSocket.getLocalPort();
+    }
+
+    public int getPort() {
+        return serverSocket == null ? -1 : serverSocket.getLocalPort();
+    }
+
+    /**
+     * This method close() stops accepting connections and closes the open ones.
+     */
+    @Override
+    public void close() throws IOException {
+        if(serverSocket == null) {
+            return;
+        }
+        serverSocket.close();
+        for(Socket connection : connections) {
+            connection.close();
+        }
+        connectionThreads.shutdown();
+        try {
+            connectionThreads.awaitTermination(5, TimeUnit.SECONDS);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method newConnectionExecutor() returns an executor that runs each connection on a new virtual thread
+     * when the runtime has them.  Older runtimes get a cached pool of daemon platform threads.
+     */
+    static ExecutorService newConnectionExecutor() {
+        try {
+            Method virtualThreads = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtualThreads.invoke(null);
+        } catch(ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "library-server-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void acceptConnections() {
+        while(!serverSocket.isClosed()) {
+            try {
+                Socket connection = serverSocket.accept();
+                connection.setTcpNoDelay(true);
+                connections.add(connection);
+                connectionThreads.execute(() -> serve(connection));
+            } catch(IOException e) {
+                if(!serverSocket.isClosed() && LibraryLog.isEnabled(LogLevel.ERROR)) {
+                    LibraryLog.log(LogLevel.ERROR, "ERROR: Could not accept a connection. " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * This method serve() answers the requests of one connection until it sends QUIT or closes.
+     */
+    private void serve(Socket connection) {
+        try(connection;
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new BufferedWriter(
+                    new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+            String request;
+            while((request = in.readLine()) != null) {
+                boolean open = handle(request, out);
+                if(!open) {
+                    out.flush();
+                    break;
+                }
+                // Pipelined requests already read are answered before the responses are sent.
+                if(!in.ready()) {
+                    out.flush();
+                }
+            }
+        } catch(SocketException e) {
+            // The terminal went away or the server was closed.
+        } catch(IOException e) {
+            if(LibraryLog.isEnabled(LogLevel.ERROR)) {
+                LibraryLog.log(LogLevel.ERROR, "ERROR: Connection failed. " + e.getMessage());
+            }
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    /**
+     * This method handle() answers one request.
+     * @param request the request line
+     * @param out where the response is written
+     * @return True to keep reading requests or false if the connection should be closed.
+     */
+    boolean handle(String request, Writer out) throws IOException {
+        String[] fields = request.trim().split(" ", 2);
+        String command = fields[0].toUpperCase(Locale.ROOT);
+        String arguments = fields.length > 1 ? fields[1] : "";
+        try {
+            switch(command) {
+                case "PING":
+                    out.write("OK PONG\n");
+                    break;
+                case "BOOK":
+                    bookResponse(arguments, out);
+                    break;
+                case "SEARCH":
+                    searchResponse(arguments, out);
+                    break;
+                case "CHECKOUT":
+                case "RETURN":
+                    circulationResponse(command, arguments, out);
+                    break;
+                case "READER":
+                    readerResponse(arguments, out);
+                    break;
+                case "ADDREADER":
+                    addReaderResponse(arguments, out);
+                    break;
+                case "BOOKS":
+                case "SHELVES":
+                case "READERS":
+                    listingResponse(command, arguments, out);
+                    break;
+                case "METRICS":
+                    metricsResponse(out);
+                    break;
+                case "QUIT":
+                    out.write("OK BYE\n");
+                    return false;
+                default:
+                    badRequest("unknown request " + fields[0], out);
+            }
+        } catch(NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            badRequest("could not read " + request, out);
+        }
+        return true;
+    }
+
+    private void bookResponse(String isbn, Writer out) throws IOException {
+        Book book = findBook(isbn);
+        if(book == null) {
+            error(Code.BOOK_NOT_IN_INVENTORY_ERROR, out);
+        } else {
+            out.write("OK " + book + "\n");
+        }
+    }
+
+    private void searchResponse(String arguments, Writer out) throws IOException {
+        String[] fields = arguments.split(" ", 2);
+        int limit = Math.min(Integer.parseInt(fields[0]), MAX_PAGE);
+        List<Book> found = library.searchBooks(fields.length > 1 ? fields[1] : "", limit);
+        StringBuilder lines = new StringBuilder();
+        for(Book book : found) {
+            lines.append(book).append('\n');
+        }
+        out.write("OK " + found.size() + "\n");
+        out.append(lines);
+    }
+
+    private void circulationResponse(String command, String arguments, Writer out) throws IOException {
+        String[] fields = arguments.split(" ", 2);
+        Reader reader = library.getReaderByCard(Integer.parseInt(fields[0]));
+        Book book = findBook(fields[1]);
+        Code returnedCode;
+        if(reader == null) {
+            returnedCode = Code.READER_NOT_IN_LIBRARY_ERROR;
+        } else if(book == null) {
+            returnedCode = Code.BOOK_NOT_IN_INVENTORY_ERROR;
+        } else if(command.equals("CHECKOUT")) {
+            returnedCode = library.checkOutBook(reader, book);
+        } else {
+            returnedCode = library.returnBook(reader, book);
+        }
+        result(returnedCode, out);
+    }
+
+    private void readerResponse(String cardNumber, Writer out) throws IOException {
+        Reader reader = library.getReaderByCard(Integer.parseInt(cardNumber));
+        if(reader == null) {
+            error(Code.READER_NOT_IN_LIBRARY_ERROR, out);
+        } else {
+            out.write("OK " + reader + "\n");
+        }
+    }
+
+    private void addReaderResponse(String arguments, Writer out) throws IOException {
+        String[] fields = arguments.split(" ", 3);
+        result(library.addReader(new Reader(Integer.parseInt(fields[0]), fields[2], fields[1])), out);
+    }
+
+    private void listingResponse(String command, String arguments, Writer out) throws IOException {
+        String[] fields = arguments.split(" ", 2);
+        int offset = Integer.parseInt(fields[0]);
+        int limit = Math.min(Integer.parseInt(fields[1]), MAX_PAGE);
+        if(offset < 0 || limit < 0) {
+            badRequest("offset and limit must not be negative", out);
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        int count;
+        if(command.equals("BOOKS")) {
+            count = library.listBooks(lines, offset, limit);
+        } else if(command.equals("SHELVES")) {
+            count = library.listShelves(lines, false, offset, limit);
+        } else {
+            count = library.listReaders(lines, false, offset, limit);
+        }
+        out.write("OK " + count + "\n");
+        out.append(lines);
+    }
+
+    /**
+     * This method metricsResponse() writes the call counts and latency histograms of the library in the text
+     * format monitoring tools scrape.  They are empty unless the library has metrics (see Library.setMetrics).
+     */
+    private void metricsResponse(Writer out) throws IOException {
+        String text = library.getMetrics().snapshot().toString();
+        int count = 0;
+        for(int i = 0; i < text.length(); i++) {
+            if(text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        out.write("OK " + count + "\n");
+        out.write(text);
+    }
+
+    private Book findBook(String isbn) {
+        List<Book> isbnBooks = library.getBooksByISBN(isbn);
+        return isbnBooks.isEmpty() ? null : isbnBooks.get(0);
+    }
+
+    private static void result(Code code, Writer out) throws IOException {
+        if(code == Code.SUCCESS) {
+            out.write("OK\n");
+        } else {
+            error(code, out);
+        }
+    }
+
+    private static void error(Code code, Writer out) throws IOException {
+        out.write("ERR " + code + " " + code.getMessage() + "\n");
+    }
+
+    private static void badRequest(String message, Writer out) throws IOException {
+        out.write("ERR BAD_REQUEST " + message + "\n");
+    }
+
+    /**
+     * This main() method starts a server for a library file.
+     *      java LibraryServer [libraryFile] [port] [address]
+     * The port defaults to DEFAULT_PORT and the address to the loopback address (this machine only).
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LibraryLog.setVerbose(false);
+        Library library = new Library("Library Server", true);
+        library.setMetrics(new LibraryMetrics());
+        if(args.length > 0 && library.init(args[0]) != Code.SUCCESS) {
+            System.out.println("Could not load " + args[0]);
+            return;
+        }
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+        InetAddress host = args.length > 2 ? InetAddress.getByName(args[2]) : InetAddress.getLoopbackAddress();
+
+        LibraryServer server = new LibraryServer(library, new InetSocketAddress(host, port));
+        System.out.println("Library server listening on " + host.getHostAddress() + ":" + server.start());
+        Thread.currentThread().join();  // Runs until the process is stopped
+    }
+}
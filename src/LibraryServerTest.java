@@ -0,0 +1,141 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: LibraryServerTest.java
+ * abstract: This class LibraryServerTest() is a jUnit test for LibraryServer.java.  The load tests run terminals
+ * against a server on the loopback address.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class LibraryServerTest {
+    private static final int TERMINALS = 16;
+    private static final int ROUNDS = 200;
+
+    Book failBook = new Book("34-w-34", "Dune", "sci-fi", 235, "Frank Herbert", null);
+    Library library;
+    LibraryServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        LibraryLog.setVerbose(false);
+        library = new Library("Server Library", true);
+        Shelf shelf = new Shelf();
+        shelf.setShelfNumber(1);
+        shelf.setSubject("sci-fi");
+        library.addShelf(shelf);
+        for(int i = 0; i < TERMINALS / 2; i++) {
+            library.addBook(failBook);
+        }
+        server = new LibraryServer(library, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.close();
+    }
+
+    /**
+     * This method send() writes every request at once (pipelined) and then reads the responses.
+     * @param extraLines the number of listing lines that follow the responses
+     */
+    private List<String> send(List<String> requests, int extraLines) throws IOException {
+        try(Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write((String.join("\n", requests) + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            List<String> responses = new ArrayList<>();
+            for(int i = 0; i < requests.size() + extraLines; i++) {
+                responses.add(in.readLine());
+            }
+            return responses;
+        }
+    }
+
+    @Test
+    void requests() throws IOException {
+        List<String> responses = send(List.of("PING", "ADDREADER 4001 831-582-4007 Drew Clinkenbeard",
+                "CHECKOUT 4001 34-w-34", "READER 4001", "BOOK nope", "RETURN 4001 34-w-34", "SHELVES 0 10",
+                "FROB", "CHECKOUT x", "QUIT"), 1);
+        assertEquals("OK PONG", responses.get(0));
+        assertEquals("OK", responses.get(1));
+        assertEquals("OK", responses.get(2));
+        assertTrue(responses.get(3).startsWith("OK Drew Clinkenbeard (#4001)"));
+        assertTrue(responses.get(4).startsWith("ERR BOOK_NOT_IN_INVENTORY_ERROR"));
+        assertEquals("OK", responses.get(5));
+        assertEquals("OK 1", responses.get(6));
+        assertEquals("1 : sci-fi", responses.get(7));
+        assertTrue(responses.get(8).startsWith("ERR BAD_REQUEST"));
+        assertTrue(responses.get(9).startsWith("ERR BAD_REQUEST"));
+        assertEquals("OK BYE", responses.get(10));
+    }
+
+    @Test
+    void metrics() throws IOException {
+        library.setMetrics(new LibraryMetrics());
+        send(List.of("ADDREADER 4002 831-582-4007 Drew Clinkenbeard", "CHECKOUT 4002 34-w-34"), 0);
+        List<String> responses = send(List.of("METRICS"), 1);
+        assertTrue(responses.get(0).startsWith("OK "));
+        assertTrue(Integer.parseInt(responses.get(0).substring(3)) > 1);
+        assertTrue(responses.get(1).startsWith("# HELP library_calls_total"));
+        String text = library.getMetrics().snapshot().toString();
+        assertTrue(text.contains("library_calls_total{operation=\"checkOutBook\",code=\"SUCCESS\"} 1\n"));
+    }
+
+    @Test
+    void loopbackLoad() throws Exception {
+        ExecutorService terminals = Executors.newFixedThreadPool(TERMINALS);
+        List<Future<List<String>>> results = new ArrayList<>();
+        for(int terminal = 0; terminal < TERMINALS; terminal++) {
+            int cardNumber = 5000 + terminal;
+            results.add(terminals.submit(() -> {
+                List<String> requests = new ArrayList<>();
+                requests.add("ADDREADER " + cardNumber + " 831-555-0000 Terminal " + cardNumber);
+                for(int round = 0; round < ROUNDS; round++) {
+                    requests.add("CHECKOUT " + cardNumber + " 34-w-34");
+                    requests.add("RETURN " + cardNumber + " 34-w-34");
+                }
+                return send(requests, 0);
+            }));
+        }
+
+        int checkedOut = 0;
+        for(Future<List<String>> result : results) {
+            List<String> responses = result.get();
+            assertEquals("OK", responses.get(0));
+            for(int i = 1; i < responses.size(); i += 2) {
+                if(responses.get(i).equals("OK")) {
+                    checkedOut++;
+                    assertEquals("OK", responses.get(i + 1));
+                } else {
+                    assertTrue(responses.get(i).startsWith("ERR BOOK_NOT_IN_INVENTORY_ERROR"), responses.get(i));
+                    assertTrue(responses.get(i + 1).startsWith("ERR READER_DOESNT_HAVE_BOOK_ERROR"));
+                }
+            }
+        }
+        terminals.shutdown();
+
+        assertTrue(checkedOut > 0);
+        assertEquals(TERMINALS / 2, library.getShelf("sci-fi").getBookCount(failBook));  // every copy came back
+        assertEquals(0, library.getStats().getCheckedOutCopies());
+    }
+}
@@ -0,0 +1,443 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * title: LibrarySnapshot.java
+ * abstract: This class LibrarySnapshot saves everything a Library holds (books with their number of copies,
+ * shelves with the copies on each shelf, and readers with the books they have checked out) to a binary file and
+ * reads it back.  Loading a snapshot is much faster than parsing a .csv file with init() because the copies of a
+ * book are stored as one count and nothing has to be checked out again.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * FILE FORMAT: All numbers are big-endian.  Strings are an int length in bytes (-1 for null) and UTF-8 bytes.
+ *      header: int MAGIC, int VERSION, long body length, long CRC32 of the body
+ *      body:   long journal sequence (the last Journal entry included in the snapshot, added in VERSION 2)
+ *              int book count, then for each book: isbn, title, subject, int pageCount, author,
+ *                  long dueDate (epoch day or NO_DATE), int copies in the library (-1 if not in the library)
+ *              int shelf count, then for each shelf: int shelfNumber, subject, int entry count,
+ *                  then for each entry: int book index, int copies on the shelf
+ *              int reader count, then for each reader: int cardNumber, name, phone, int book count,
+ *                  then for each book: int book index, long dueDate
+ * Shelves and readers refer to books by their index in the book list.  A file is written to a temporary file
+ * first and then moved over the old snapshot, so a crash while saving leaves the old snapshot.
+ */
+
+public class LibrarySnapshot {
+    public static final int MAGIC = 0x4C494253;  // "LIBS"
+    public static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 24;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long NO_DATE = Long.MIN_VALUE;  // Stored for a null due date
+
+    private final List<Book> books;
+    private final CopyCounter<CatalogKey> copies;
+    private final List<Shelf> shelves;
+    private final List<Reader> readers;
+    private final long journalSequence;
+
+    /**
+     * This constructor creates a snapshot of a library's contents.
+     * @param books the books in the library.  Books with the same ISBN must be in the order they were added.
+     * @param copies the number of copies of each book in the library
+     * @param shelves the library's shelves
+     * @param readers the library's readers
+     * @param journalSequence the sequence number of the last Journal entry the library holds (0 if none)
+     */
+    public LibrarySnapshot(List<Book> books, CopyCounter<CatalogKey> copies, List<Shelf> shelves, List<Reader> readers,
+                           long journalSequence) {
+        this.books = books;
+        this.copies = copies;
+        this.shelves = shelves;
+        this.readers = readers;
+        this.journalSequence = journalSequence;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    public CopyCounter<CatalogKey> getCopies() {
+        return copies;
+    }
+
+    public List<Shelf> getShelves() {
+        return shelves;
+    }
+
+    public List<Reader> getReaders() {
+        return readers;
+    }
+
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    /**
+     * This method write() saves the snapshot to a file.  An existing file is replaced.
+     * @param filename the snapshot file
+     * @throws IOException if the file could not be written.
+     */
+    public void write(String filename) throws IOException {
+        Path file = Paths.get(filename);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        // Every book a shelf or reader uses gets an index.  Books not in the library are added after the others.
+        List<Book> table = new ArrayList<>(books);
+        HashMap<Book, Integer> bookIndex = new HashMap<>();
+        for(Book book : books) {
+            bookIndex.putIfAbsent(book, bookIndex.size());
+        }
+        List<HashMap<Book, Integer>> shelfBooks = new ArrayList<>(shelves.size());
+        for(Shelf shelf : shelves) {
+            HashMap<Book, Integer> shelfCounts = shelf.getBooks();
+            shelfBooks.add(shelfCounts);
+            for(Book book : shelfCounts.keySet()) {
+                addToTable(book, table, bookIndex);
+            }
+        }
+        for(Reader reader : readers) {
+            for(Book book : reader.getBooks()) {
+                addToTable(book, table, bookIndex);
+            }
+        }
+
+        try(Output out = new Output(temporary)) {
+            out.putLong(journalSequence);
+            out.putInt(table.size());
+            for(Book book : table) {
+                out.putString(book.getIsbn());
+                out.putString(book.getTitle());
+                out.putString(book.getSubject());
+                out.putInt(book.getPageCount());
+                out.putString(book.getAuthor());
+                out.putLong(toDay(book.getDueDate()));
+                out.putInt(copies.get(book.getKey(), -1));
+            }
+
+            out.putInt(shelves.size());
+            for(int i = 0; i < shelves.size(); i++) {
+                Shelf shelf = shelves.get(i);
+                out.putInt(shelf.getShelfNumber());
+                out.putString(shelf.getSubject());
+                out.putInt(shelfBooks.get(i).size());
+                for(Map.Entry<Book, Integer> book : shelfBooks.get(i).entrySet()) {
+                    out.putInt(bookIndex.get(book.getKey()));
+                    out.putInt(book.getValue());
+                }
+            }
+
+            out.putInt(readers.size());
+            for(Reader reader : readers) {
+                out.putInt(reader.getCardNumber());
+                out.putString(reader.getName());
+                out.putString(reader.getPhone());
+                out.putInt(reader.getBooks().size());
+                for(Book book : reader.getBooks()) {
+                    out.putInt(bookIndex.get(book));
+                    out.putLong(toDay(book.getDueDate()));
+                }
+            }
+        }
+
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * This method read() loads a snapshot written by write().
+     * @param filename the snapshot file
+     * @return the snapshot
+     * @throws java.nio.file.NoSuchFileException if the file does not exist.
+     * @throws StreamCorruptedException if the file is not a snapshot, has a newer VERSION, or is damaged.
+     * @throws IOException if the file could not be read.
+     */
+    public static LibrarySnapshot read(String filename) throws IOException {
+        try(Input in = new Input(Paths.get(filename))) {
+            long journalSequence = in.getVersion() >= 2 ? in.getLong() : 0;
+            int bookCount = in.getCount();
+            Book[] table = new Book[bookCount];
+            List<Book> books = new ArrayList<>(bookCount);
+            CopyCounter<CatalogKey> copies = new CopyCounter<>();
+            for(int i = 0; i < bookCount; i++) {
+                table[i] = new Book(in.getString(), in.getString(), in.getString(), in.getInt(), in.getString(),
+                        toDate(in.getLong()));
+                int bookCopies = in.getInt();
+                if(bookCopies >= 0) {
+                    books.add(table[i]);
+                    copies.set(table[i].getKey(), bookCopies);
+                }
+            }
+
+            int shelfCount = in.getCount();
+            List<Shelf> shelves = new ArrayList<>(shelfCount);
+            for(int i = 0; i < shelfCount; i++) {
+                Shelf shelf = new Shelf();
+                shelf.setShelfNumber(in.getInt());
+                shelf.setSubject(in.getString());
+                int entryCount = in.getCount();
+                for(int entry = 0; entry < entryCount; entry++) {
+                    shelf.setBookCount(in.getBook(table), in.getInt());
+                }
+                shelves.add(shelf);
+            }
+
+            int readerCount = in.getCount();
+            List<Reader> readers = new ArrayList<>(readerCount);
+            for(int i = 0; i < readerCount; i++) {
+                Reader reader = new Reader(in.getInt(), in.getString(), in.getString());
+                int loanCount = in.getCount();
+                for(int loan = 0; loan < loanCount; loan++) {
+                    // The reader has a copy with its own due date.
+                    Book book = new Book(in.getBook(table).getKey(), toDate(in.getLong()));
+                    reader.getBooks().add(book);
+                }
+                readers.add(reader);
+            }
+
+            in.finish();
+            return new LibrarySnapshot(books, copies, shelves, readers, journalSequence);
+        }
+    }
+
+    private static void addToTable(Book book, List<Book> table, HashMap<Book, Integer> bookIndex) {
+        if(bookIndex.putIfAbsent(book, table.size()) == null) {
+            table.add(book);
+        }
+    }
+
+    private static long toDay(LocalDate date) {
+        return date == null ? NO_DATE : date.toEpochDay();
+    }
+
+    private static LocalDate toDate(long day) {
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    /**
+     * This class Output writes the body of a snapshot through a buffer and writes the header when it is closed.
+     */
+    private static class Output implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CRC32 crc = new CRC32();
+        private long length;
+
+        Output(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(HEADER_SIZE);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putString(String value) throws IOException {
+            if(value == null) {
+                putInt(-1);
+                return;
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            for(int offset = 0; offset < bytes.length; ) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if(buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            length += buffer.remaining();
+            crc.update(buffer.duplicate());
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+                buffer.putInt(MAGIC).putInt(VERSION).putLong(length).putLong(crc.getValue()).flip();
+                while(buffer.hasRemaining()) {
+                    channel.write(buffer, buffer.position());  // The header starts at file position 0
+                }
+                channel.force(true);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * This class Input reads the body of a snapshot through a buffer after checking the header.  finish() checks
+     * that the whole body was read and that its CRC32 matches the header.
+     */
+    private static class Input implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CRC32 crc = new CRC32();
+        private final long expectedCrc;
+        private final int version;
+        private long unread;  // Body bytes not read from the file yet
+        private byte[] stringBytes = new byte[256];
+
+        Input(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                while(header.hasRemaining() && channel.read(header) >= 0) {
+                    // Keep reading until the header is full or the file ends.
+                }
+                header.flip();
+                if(header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                    throw new StreamCorruptedException(file + " is not a library snapshot");
+                }
+                version = header.getInt();
+                if(version < 1 || version > VERSION) {
+                    throw new StreamCorruptedException(file + " is snapshot version " + version + ", expected "
+                            + VERSION);
+                }
+                unread = header.getLong();
+                expectedCrc = header.getLong();
+                if(unread != channel.size() - HEADER_SIZE) {
+                    throw new StreamCorruptedException(file + " has the wrong length");
+                }
+                buffer.flip();  // Starts empty
+            } catch(IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        int getVersion() {
+            return version;
+        }
+
+        int getInt() throws IOException {
+            ensure(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        long getLong() throws IOException {
+            ensure(Long.BYTES);
+            return buffer.getLong();
+        }
+
+        /**
+         * This method getCount() reads a count of entries, which can not be negative or larger than the file.
+         */
+        int getCount() throws IOException {
+            int count = getInt();
+            if(count < 0 || count > buffer.remaining() + unread) {
+                throw new StreamCorruptedException("Bad entry count " + count);
+            }
+            return count;
+        }
+
+        Book getBook(Book[] table) throws IOException {
+            int index = getInt();
+            if(index < 0 || index >= table.length) {
+                throw new StreamCorruptedException("Bad book index " + index);
+            }
+            return table[index];
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            if(length == -1) {
+                return null;
+            }
+            if(length < 0 || length > buffer.remaining() + unread) {
+                throw new StreamCorruptedException("Bad string length " + length);
+            }
+
+            if(length > stringBytes.length) {
+                stringBytes = new byte[Math.max(length, stringBytes.length * 2)];
+            }
+            for(int offset = 0; offset < length; ) {
+                ensure(1);
+                int part = Math.min(buffer.remaining(), length - offset);
+                buffer.get(stringBytes, offset, part);
+                offset += part;
+            }
+            return new String(stringBytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        void finish() throws IOException {
+            if(buffer.hasRemaining() || unread > 0) {
+                throw new StreamCorruptedException("Snapshot has data after the readers");
+            }
+            if(crc.getValue() != expectedCrc) {
+                throw new StreamCorruptedException("Snapshot checksum does not match");
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if(buffer.remaining() >= bytes) {
+                return;
+            }
+
+            buffer.compact();
+            while(buffer.position() < bytes) {
+                if(unread == 0) {
+                    throw new StreamCorruptedException("Snapshot ends too soon");
+                }
+                int start = buffer.position();
+                if(buffer.remaining() > unread) {
+                    buffer.limit(start + (int) unread);
+                }
+                int read = channel.read(buffer);
+                if(read < 0) {
+                    throw new StreamCorruptedException("Snapshot ends too soon");
+                }
+                unread -= read;
+                crc.update(buffer.duplicate().flip().position(start));
+                buffer.limit(buffer.capacity());
+            }
+            buffer.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: LibrarySnapshotTest.java
+ * abstract: This class LibrarySnapshotTest() is a jUnit test for LibrarySnapshot.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class LibrarySnapshotTest {
+    private static final LocalDate DUE_DATE = LocalDate.of(2021, 11, 1);
+
+    @TempDir
+    Path directory;
+
+    Book testBook = new Book("1337", "Headfirst Java", "education", 1337, "Grady Booch", DUE_DATE);
+    Book failBook = new Book("34-w-34", "Dune", "sci-fi", 235, "Frank Herbert", null);
+
+    private LibrarySnapshot testSnapshot() {
+        CopyCounter<CatalogKey> copies = new CopyCounter<>();
+        copies.set(testBook.getKey(), 3);
+        copies.set(failBook.getKey(), 1);
+
+        Shelf shelf = new Shelf();
+        shelf.setShelfNumber(1);
+        shelf.setSubject("education");
+        shelf.setBookCount(testBook, 2);
+
+        Reader reader = new Reader(1, "Drew Clinkenbeard", "831-582-4007");
+        reader.addBook(testBook);
+
+        List<Shelf> shelves = new ArrayList<>();
+        shelves.add(shelf);
+        List<Reader> readers = new ArrayList<>();
+        readers.add(reader);
+        return new LibrarySnapshot(List.of(testBook, failBook), copies, shelves, readers, 42);
+    }
+
+    @Test
+    void writeAndRead() throws IOException {
+        String filename = directory.resolve("library.snapshot").toString();
+        testSnapshot().write(filename);
+
+        LibrarySnapshot snapshot = LibrarySnapshot.read(filename);
+        assertEquals(42, snapshot.getJournalSequence());
+        assertEquals(List.of(testBook, failBook), snapshot.getBooks());
+        assertEquals(3, snapshot.getCopies().get(testBook.getKey(), -1));
+        assertEquals(1, snapshot.getCopies().get(failBook.getKey(), -1));
+        assertNull(snapshot.getBooks().get(1).getDueDate());
+
+        Shelf shelf = snapshot.getShelves().get(0);
+        assertEquals("1 : education", shelf.toString());
+        assertEquals(2, shelf.getBookCount(testBook));
+
+        Reader reader = snapshot.getReaders().get(0);
+        assertEquals("Drew Clinkenbeard", reader.getName());
+        assertTrue(reader.hasBook(testBook));
+        assertEquals(DUE_DATE, reader.getBooks().get(0).getDueDate());
+    }
+
+    @Test
+    void damagedSnapshot() throws IOException {
+        Path file = directory.resolve("library.snapshot");
+        testSnapshot().write(file.toString());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;  // change one bit of the body
+        Files.write(file, bytes);
+        assertThrows(StreamCorruptedException.class, () -> LibrarySnapshot.read(file.toString()));
+
+        Files.write(file, new byte[] {1, 2, 3});
+        assertThrows(StreamCorruptedException.class, () -> LibrarySnapshot.read(file.toString()));
+    }
+}
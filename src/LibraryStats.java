@@ -0,0 +1,168 @@
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * title: LibraryStats.java
+ * abstract: This class LibraryStats holds running totals for a Library: copies in the stacks, copies on each
+ * subject's shelf, copies checked out, readers, and how many readers have each number of loans.  The Library
+ * updates them as it changes, so reading them never walks the books, shelves, or readers and never takes a
+ * library lock.  A dashboard can poll them as often as it likes.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: The totals are updated one at a time, so a reader of several totals during a checkout may see one total
+ *       changed and another not yet.  Each total on its own is exact once the change returns.
+ */
+
+public class LibraryStats {
+    private final LongAdder totalCopies = new LongAdder();      // Copies in the stacks (on shelves or checked out)
+    private final LongAdder checkedOutCopies = new LongAdder();
+    private final LongAdder readerCount = new LongAdder();
+    private final AtomicLongArray readersByLoans = new AtomicLongArray(Library.LENDING_LIMIT + 1);
+                                                                // Readers with each number of loans
+    private final ConcurrentHashMap<String, Shelf> shelves = new ConcurrentHashMap<>();
+                                                                // Subject key with the shelf (its copies are counted
+                                                                // by the shelf itself)
+    private final ConcurrentHashMap<String, LongAdder> mappedShelfCopies = new ConcurrentHashMap<>();
+                                                                // Subject key with the copies on its shelf whose
+                                                                // books are not loaded from a MappedCatalog yet
+
+    /**
+     * This method getTotalCopies() returns the number of copies the library owns, on shelves or checked out.
+     * @return the number of copies
+     */
+    public long getTotalCopies() {
+        return totalCopies.sum();
+    }
+
+    public long getCheckedOutCopies() {
+        return checkedOutCopies.sum();
+    }
+
+    /**
+     * This method getShelvedCopies() returns the number of copies on one subject's shelf.
+     * @param subject the subject of the shelf
+     * @return the number of copies, or 0 if there is no shelf for the subject
+     */
+    public long getShelvedCopies(String subject) {
+        Shelf shelf = shelves.get(subject);
+        return shelf == null ? 0 : shelf.getBookTotal() + getMappedShelfCopies(subject);
+    }
+
+    /**
+     * This method getShelvedCopies() returns the number of copies on each subject's shelf.
+     * @return the subjects in order with their number of copies
+     */
+    public Map<String, Long> getShelvedCopies() {
+        TreeMap<String, Long> subjects = new TreeMap<>();
+        shelves.forEach((subject, shelf) -> subjects.put(subject,
+                shelf.getBookTotal() + getMappedShelfCopies(subject)));
+        return subjects;
+    }
+
+    public long getReaderCount() {
+        return readerCount.sum();
+    }
+
+    /**
+     * This method getReadersWithLoans() returns how many readers have a number of books checked out.
+     * @param loans the number of books checked out.  Library.LENDING_LIMIT also counts readers above the limit.
+     * @return the number of readers
+     */
+    public long getReadersWithLoans(int loans) {
+        return readersByLoans.get(Math.min(loans, Library.LENDING_LIMIT));
+    }
+
+    /**
+     * This method getLoansPerReader() returns the average number of books each reader has checked out.
+     * @return the average, or 0 if there are no readers
+     */
+    public double getLoansPerReader() {
+        long readers = getReaderCount();
+        return readers == 0 ? 0 : (double) getCheckedOutCopies() / readers;
+    }
+
+    @Override
+    public String toString() {
+        return "copies=" + getTotalCopies() + " checkedOut=" + getCheckedOutCopies() + " readers="
+                + getReaderCount() + " shelved=" + getShelvedCopies();
+    }
+
+    // The methods below are called by Library when it changes.
+
+    void addCopies(long copies) {
+        totalCopies.add(copies);
+    }
+
+    void addShelf(Shelf shelf) {
+        shelves.put(shelf.getSubject(), shelf);
+    }
+
+    /**
+     * This method addMappedShelfCopies() counts copies that are on a subject's shelf in a MappedCatalog before
+     * their books are loaded onto the shelf.  Loading them takes them off again (negative copies).
+     * @param subject the subject of the shelf
+     * @param copies the number of copies
+     */
+    void addMappedShelfCopies(String subject, long copies) {
+        mappedShelfCopies.computeIfAbsent(subject, key -> new LongAdder()).add(copies);
+    }
+
+    void addReader(int loans) {
+        readerCount.increment();
+        readersByLoans.incrementAndGet(Math.min(loans, Library.LENDING_LIMIT));
+        checkedOutCopies.add(loans);
+    }
+
+    void removeReader(int loans) {
+        readerCount.decrement();
+        readersByLoans.decrementAndGet(Math.min(loans, Library.LENDING_LIMIT));
+        checkedOutCopies.add(-loans);
+    }
+
+    /**
+     * This method startLoan() counts a checkout.
+     * @param loans the number of books the reader has after the checkout
+     */
+    void startLoan(int loans) {
+        checkedOutCopies.increment();
+        moveReader(loans - 1, loans);
+    }
+
+    /**
+     * This method endLoan() counts a return.
+     * @param loans the number of books the reader has after the return
+     */
+    void endLoan(int loans) {
+        checkedOutCopies.decrement();
+        moveReader(loans + 1, loans);
+    }
+
+    void clear() {
+        totalCopies.reset();
+        checkedOutCopies.reset();
+        readerCount.reset();
+        for(int i = 0; i < readersByLoans.length(); i++) {
+            readersByLoans.set(i, 0);
+        }
+        shelves.clear();
+        mappedShelfCopies.clear();
+    }
+
+    private long getMappedShelfCopies(String subject) {
+        LongAdder copies = mappedShelfCopies.get(subject);
+        return copies == null ? 0 : copies.sum();
+    }
+
+    private void moveReader(int fromLoans, int toLoans) {
+        int from = Math.min(fromLoans, Library.LENDING_LIMIT);
+        int to = Math.min(toLoans, Library.LENDING_LIMIT);
+        if(from != to) {
+            readersByLoans.decrementAndGet(from);
+            readersByLoans.incrementAndGet(to);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: LibraryStatsTest.java
+ * abstract: This class LibraryStatsTest() is a jUnit test for LibraryStats.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class LibraryStatsTest {
+    Reader reader = new Reader(1, "Drew Clinkenbeard", "831-582-4007");
+    Book testBook = new Book("1337", "Headfirst Java", "education", 1337, "Grady Booch", null);
+    Book failBook = new Book("34-w-34", "Dune", "sci-fi", 235, "Frank Herbert", null);
+
+    @Test
+    void followsLibraryChanges() {
+        Library library = new Library("Stats Library");
+        LibraryStats stats = library.getStats();
+        library.addBook(testBook);
+        library.addBook(testBook);
+        library.addBook(failBook);
+        Shelf shelf = new Shelf();
+        shelf.setShelfNumber(1);
+        shelf.setSubject("education");
+        library.addShelf(shelf);
+        library.addReader(reader);
+        assertEquals(3, stats.getTotalCopies());
+        assertEquals(2, stats.getShelvedCopies("education"));
+        assertEquals(0, stats.getShelvedCopies("sci-fi"));
+        assertEquals(1, stats.getReaderCount());
+        assertEquals(1, stats.getReadersWithLoans(0));
+
+        assertEquals(Code.SUCCESS, library.checkOutBook(reader, testBook));
+        assertEquals(1, stats.getCheckedOutCopies());
+        assertEquals(1, stats.getShelvedCopies("education"));
+        assertEquals(0, stats.getReadersWithLoans(0));
+        assertEquals(1, stats.getReadersWithLoans(1));
+        assertEquals(1.0, stats.getLoansPerReader());
+
+        assertEquals(Code.SUCCESS, library.returnBook(reader, testBook));
+        assertEquals(0, stats.getCheckedOutCopies());
+        assertEquals(2, stats.getShelvedCopies("education"));
+        assertEquals(Code.SUCCESS, library.removeReader(reader));
+        assertEquals(0, stats.getReaderCount());
+        assertEquals(0, stats.getReadersWithLoans(0));
+    }
+}
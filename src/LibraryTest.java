@@ -0,0 +1,317 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: LibraryTest.java
+ * abstract: This class LibraryTest() is a jUnit test for Library.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class LibraryTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 5000;
+    private static final int COPIES = 2;
+    @TempDir
+    Path directory;
+
+    Book testBook = new Book("1337", "Headfirst Java", "education", 1337, "Grady Booch", null);
+    Book failBook = new Book("34-w-34", "Dune", "sci-fi", 235, "Frank Herbert", null);
+    Book shelflessBook = new Book("42-w-87", "Hitchhikers Guide To the Galaxy", "humor", 42, "Douglas Adams", null);
+
+    /**
+     * This method batchLibrary() makes a library with shelves for education and sci-fi (but not humor), two
+     * copies of each book, and reader 1.
+     */
+    private Library batchLibrary() {
+        LibraryLog.setVerbose(false);
+        Library library = new Library("Batch Library", true);
+        library.addShelf("education");
+        library.addShelf("sci-fi");
+        for(Book book : List.of(testBook, testBook, failBook, failBook, shelflessBook, shelflessBook)) {
+            library.addBook(book);
+        }
+        library.addReader(new Reader(1, "Drew Clinkenbeard", "831-582-4007"));
+        return library;
+    }
+
+    private String write(String name, String text) throws IOException {
+        Path file = directory.resolve(name);
+        Files.writeString(file, text);
+        return file.toString();
+    }
+
+    @Test
+    void isbnIndex() {
+        Library library = new Library("Index Library");
+        Book secondEdition = new Book("1337", "Headfirst Java 2", "education", 1400, "Grady Booch", null);
+        Reader reader = new Reader(1, "Drew Clinkenbeard", "831-582-4007");
+        library.addShelf("education");
+        library.addBook(testBook);
+        library.addBook(secondEdition);
+        library.addBook(testBook);
+        library.addReader(reader);
+
+        assertEquals(testBook, library.getBookByISBN("1337"));  // the first one added
+        assertEquals(List.of(testBook, secondEdition), library.getBooksByISBN("1337"));
+        assertNull(library.getBookByISBN("nope"));
+        assertTrue(library.getBooksByISBN("nope").isEmpty());
+
+        assertEquals(Code.BOOK_NOT_IN_INVENTORY_ERROR, library.checkOutBook(reader, failBook));
+        assertEquals(Code.SUCCESS, library.checkOutBook(reader, secondEdition));
+        assertEquals(0, library.getShelf("education").getBookCount(secondEdition));
+        assertEquals(Code.SUCCESS, library.returnBook(reader, secondEdition));
+        assertEquals(1, library.getShelf("education").getBookCount(secondEdition));
+        assertEquals(Code.BOOK_NOT_IN_INVENTORY_ERROR, library.returnBook(failBook));  // not this library's book
+    }
+
+    @Test
+    void initReaderWithMissingBook() throws IOException {
+        LibraryLog.setVerbose(false);
+        String filename = write("missing.csv", "1\n"
+                + "1337,Headfirst Java,education,1337,Grady Booch,0000\n"
+                + "1\n"
+                + "1,education\n"
+                + "1\n"
+                + "1,Drew Clinkenbeard,831-582-4007,2,1337,2026-11-01,42-w-87,2026-11-01\n");
+        Library library = new Library("Init Library");
+        assertEquals(Code.SUCCESS, library.init(filename));
+        Reader reader = library.getReaderByCard(1);
+        assertNotNull(reader);
+        assertEquals(1, reader.getBookCount());
+        assertEquals(Code.BOOK_NOT_IN_INVENTORY_ERROR, library.checkOutBook(reader, null));
+    }
+
+    @Test
+    void initModesMatchOnMalformedBooks() throws IOException {
+        LibraryLog.setVerbose(false);
+        String filename = write("malformed.csv", "4\n"
+                + "1337,Headfirst Java,education,1337,Grady Booch,0000\n"
+                + "42-w-87,Hitchhikers Guide To the Galaxy,sci-fi,many,Douglas Adams,0000\n"
+                + "34-w-34,Dune,sci-fi\n"
+                + "1337,Headfirst Java,education,1337,Grady Booch,0000\n"
+                + "1\n"
+                + "1,education\n"
+                + "1\n"
+                + "1,Drew Clinkenbeard,831-582-4007,1,1337,2026-11-01\n");
+        Library sequential = new Library("Sequential Library");
+        Library parallel = new Library("Parallel Library");
+        Code sequentialCode = sequential.init(filename, false);
+        assertEquals(sequentialCode, parallel.init(filename, true));
+        assertEquals(Code.SHELF_COUNT_ERROR, sequentialCode);
+        assertEquals(listing(sequential), listing(parallel));
+        assertEquals(sequential.getStats().toString(), parallel.getStats().toString());
+    }
+
+    private static String listing(Library library) throws IOException {
+        StringBuilder out = new StringBuilder();
+        library.listBooks(out, 0, Integer.MAX_VALUE);
+        library.listShelves(out, true, 0, Integer.MAX_VALUE);
+        library.listReaders(out, true, 0, Integer.MAX_VALUE);
+        return out.toString();
+    }
+
+    @Test
+    void checkOutBooksOverLimit() {
+        Library library = batchLibrary();
+        Reader reader = library.getReaderByCard(1);
+        for(int i = 0; i < Library.LENDING_LIMIT - 1; i++) {
+            Book book = new Book("isbn" + i, "Book " + i, "sci-fi", 100, "Author", null);
+            library.addBook(book);
+            assertEquals(Code.SUCCESS, library.checkOutBook(reader, book));
+        }
+        Code[] returnedCodes = library.checkOutBooks(reader, List.of(testBook, failBook));
+        assertArrayEquals(new Code[] {Code.BOOK_LIMIT_REACHED_ERROR, Code.BOOK_LIMIT_REACHED_ERROR},
+                returnedCodes);
+        assertFalse(reader.hasBook(testBook));  // all or nothing
+        assertFalse(reader.hasBook(failBook));
+        assertEquals(2, library.getShelf("education").getBookCount(testBook));
+        assertEquals(Library.LENDING_LIMIT - 1, reader.getBookCount());
+    }
+
+    @Test
+    void checkOutBooksEachBookOnItsOwn() {
+        Library library = batchLibrary();
+        Reader reader = library.getReaderByCard(1);
+        Book unknownBook = new Book("0000", "Unknown", "sci-fi", 1, "Nobody", null);
+        Code[] returnedCodes = library.checkOutBooks(reader, List.of(testBook, shelflessBook, unknownBook,
+                failBook));
+        assertArrayEquals(new Code[] {Code.SUCCESS, Code.SHELF_EXISTS_ERROR, Code.BOOK_NOT_IN_INVENTORY_ERROR,
+                Code.SUCCESS}, returnedCodes);
+        assertEquals(2, reader.getBookCount());
+        assertEquals(1, library.getShelf("education").getBookCount(testBook));
+        assertEquals(1, library.getShelf("sci-fi").getBookCount(failBook));
+
+        returnedCodes = library.returnBooks(reader, List.of(failBook, shelflessBook, testBook));
+        assertEquals(Code.SUCCESS, returnedCodes[0]);
+        assertEquals(Code.READER_DOESNT_HAVE_BOOK_ERROR, returnedCodes[1]);
+        assertEquals(Code.SUCCESS, returnedCodes[2]);
+        assertEquals(0, reader.getBookCount());
+        assertEquals(2, library.getShelf("education").getBookCount(testBook));
+        assertEquals(2, library.getShelf("sci-fi").getBookCount(failBook));
+    }
+
+    @Test
+    void checkOutBooksDuplicateBook() {
+        Library library = batchLibrary();
+        Reader reader = library.getReaderByCard(1);
+        Code[] returnedCodes = library.checkOutBooks(reader, List.of(testBook, testBook));
+        assertEquals(Code.SUCCESS, returnedCodes[0]);
+        assertEquals(Code.BOOK_ALREADY_CHECKED_OUT_ERROR, returnedCodes[1]);  // one copy of a book per reader
+        assertEquals(1, reader.getBookCount());
+        assertEquals(1, library.getShelf("education").getBookCount(testBook));  // the second copy stays
+
+        returnedCodes = library.returnBooks(reader, List.of(testBook, testBook));
+        assertEquals(Code.SUCCESS, returnedCodes[0]);
+        assertEquals(Code.READER_DOESNT_HAVE_BOOK_ERROR, returnedCodes[1]);
+        assertEquals(2, library.getShelf("education").getBookCount(testBook));
+    }
+
+    @Test
+    void batchesWithoutReader() {
+        Library library = batchLibrary();
+        assertArrayEquals(new Code[] {Code.READER_NOT_IN_LIBRARY_ERROR, Code.READER_NOT_IN_LIBRARY_ERROR},
+                library.checkOutBooks(null, List.of(testBook, failBook)));
+        assertArrayEquals(new Code[] {Code.READER_NOT_IN_LIBRARY_ERROR, Code.READER_NOT_IN_LIBRARY_ERROR},
+                library.returnBooks(null, List.of(testBook, failBook)));
+        assertEquals(2, library.getShelf("education").getBookCount(testBook));
+    }
+
+    @Test
+    void batchesWithNullBook() {
+        Library library = batchLibrary();
+        Reader reader = library.getReaderByCard(1);
+        assertArrayEquals(new Code[] {Code.SUCCESS, Code.BOOK_NOT_IN_INVENTORY_ERROR, Code.SUCCESS},
+                library.checkOutBooks(reader, Arrays.asList(testBook, null, failBook)));
+        assertEquals(2, reader.getBookCount());
+        assertArrayEquals(new Code[] {Code.BOOK_NOT_IN_INVENTORY_ERROR, Code.SUCCESS, Code.SUCCESS},
+                library.returnBooks(reader, Arrays.asList(null, testBook, failBook)));
+        assertEquals(0, reader.getBookCount());
+        assertEquals(2, library.getShelf("education").getBookCount(testBook));
+    }
+
+    private static Shelf shelf(int shelfNumber, String subject) {
+        Shelf shelf = new Shelf();
+        shelf.setShelfNumber(shelfNumber);
+        shelf.setSubject(subject);
+        return shelf;
+    }
+
+    @Test
+    void shelfNumbersPastTheDenseLimit() {
+        LibraryLog.setVerbose(false);
+        Library library = new Library("Shelf Library");
+        Shelf first = shelf(1, "education");
+        Shelf lastDense = shelf(4096, "sci-fi");
+        Shelf firstSparse = shelf(4097, "humor");
+        Shelf sparse = shelf(10000, "Adventure");
+        Shelf farSparse = shelf(1000000, "poetry");
+        for(Shelf shelf : List.of(sparse, first, farSparse, firstSparse, lastDense)) {
+            assertEquals(Code.SUCCESS, library.addShelf(shelf));
+        }
+
+        assertSame(first, library.getShelf(1));
+        assertSame(lastDense, library.getShelf(4096));
+        assertSame(firstSparse, library.getShelf(4097));
+        assertSame(farSparse, library.getShelf(1000000));
+        assertNull(library.getShelf(5000));
+        assertNull(library.getShelf(-1));
+
+        assertEquals(List.of(lastDense, firstSparse, sparse), library.getShelves(4000, 20000));  // crosses the limit
+        assertEquals(List.of(firstSparse, sparse), library.getShelves(4097, 10000));
+        assertEquals(List.of(first, lastDense, firstSparse, sparse, farSparse),
+                library.getShelves(-5, Integer.MAX_VALUE));
+        assertTrue(library.getShelves(5000, 9999).isEmpty());
+        assertTrue(library.getShelves(10, 5).isEmpty());
+    }
+
+    @Test
+    void duplicateShelfNumberKeepsTheFirstShelf() {
+        LibraryLog.setVerbose(false);
+        Library library = new Library("Shelf Library");
+        Shelf dense = shelf(2, "education");
+        Shelf sparse = shelf(5000, "sci-fi");
+        assertEquals(Code.SUCCESS, library.addShelf(dense));
+        assertEquals(Code.SUCCESS, library.addShelf(sparse));
+        assertEquals(Code.SUCCESS, library.addShelf(shelf(2, "humor")));
+        assertEquals(Code.SUCCESS, library.addShelf(shelf(5000, "Adventure")));
+
+        assertSame(dense, library.getShelf(2));
+        assertSame(sparse, library.getShelf(5000));
+        assertEquals(List.of(dense, sparse), library.getShelves(0, 6000));
+        assertEquals(2, library.getShelf("humor").getShelfNumber());  // still found by subject
+    }
+
+    @Test
+    void concurrentCheckOutsAndReturns() throws Exception {
+        LibraryLog.setVerbose(false);
+        Library library = new Library("Concurrent Library", true);
+        String[] subjects = {"education", "sci-fi", "humor"};
+        for(String subject : subjects) {
+            library.addShelf(subject);
+        }
+        List<Book> books = new ArrayList<>();
+        for(int i = 0; i < 12; i++) {
+            Book book = new Book("isbn" + i, "Book " + i, subjects[i % subjects.length], 100, "Author", null);
+            books.add(book);
+            for(int copy = 0; copy < COPIES; copy++) {
+                library.addBook(book);
+            }
+        }
+        List<Reader> readers = new ArrayList<>();
+        for(int i = 1; i <= 4; i++) {
+            Reader reader = new Reader(i, "Reader " + i, "831-555-000" + i);
+            readers.add(reader);
+            library.addReader(reader);
+        }
+
+        // Every thread checks out and returns random books for the same few readers, so readers hit the lending
+        // limit and books run out of copies while other threads are using them.
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        for(int t = 0; t < THREADS; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            results.add(threads.submit(() -> {
+                for(int round = 0; round < ROUNDS; round++) {
+                    Reader reader = readers.get(random.nextInt(readers.size()));
+                    Book book = books.get(random.nextInt(books.size()));
+                    if(random.nextBoolean()) {
+                        library.checkOutBook(reader, book);
+                    } else {
+                        library.returnBook(reader, book);
+                    }
+                }
+            }));
+        }
+        for(Future<?> result : results) {
+            result.get();
+        }
+        threads.shutdown();
+
+        long loaned = 0;
+        for(Reader reader : readers) {
+            assertTrue(reader.getBookCount() <= Library.LENDING_LIMIT, reader + " is over the lending limit");
+            loaned += reader.getBookCount();
+        }
+        for(Book book : books) {
+            int onLoan = 0;
+            for(Reader reader : readers) {
+                onLoan += reader.hasBook(book) ? 1 : 0;
+            }
+            assertEquals(COPIES, library.getShelf(book.getSubject()).getBookCount(book) + onLoan, book.toString());
+        }
+        assertEquals(loaned, library.getStats().getCheckedOutCopies());
+        assertEquals(books.size() * COPIES, library.getStats().getTotalCopies());
+    }
+}
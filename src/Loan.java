@@ -0,0 +1,56 @@
+import java.time.LocalDate;
+
+/**
+ * title: Loan.java
+ * abstract: This class Loan is one checkout: the reader, the copy of the book the reader has, and the day the copy
+ * is due back.  The due day is stored as an epoch day (days since 1970-01-01) so loans can be ordered and compared
+ * without LocalDate objects.  A Loan does not change.  When a due date changes, the LoanIndex gets a new Loan.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+public final class Loan {
+    private final Reader reader;
+    private final Book book;
+    private final long dueDay;
+
+    public Loan(Reader reader, Book book, long dueDay) {
+        this.reader = reader;
+        this.book = book;
+        this.dueDay = dueDay;
+    }
+
+    public Reader getReader() {
+        return reader;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+
+    public long getDueDay() {
+        return dueDay;
+    }
+
+    public LocalDate getDueDate() {
+        return LocalDate.ofEpochDay(dueDay);
+    }
+
+    /**
+     * This method isOverdue() checks if the loan was due before a date.
+     * @param date the date to check against (ex. today)
+     * @return True if the book was due before date
+     */
+    public boolean isOverdue(LocalDate date) {
+        return dueDay < date.toEpochDay();
+    }
+
+    @Override
+    /**
+     * This toString() method returns the below formatted String:
+     *      [title] by [author] ISBN: [isbn] due [dueDate] (#[cardNumber])
+     */
+    public String toString() {
+        return book + " due " + getDueDate() + " (#" + reader.getCardNumber() + ")";
+    }
+}
@@ -0,0 +1,159 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * title: LoanIndex.java
+ * abstract: This class LoanIndex keeps every Loan of a Library ordered by due day.  Loans due on the same day share
+ * one bucket in a TreeMap, so "overdue as of a date" and "due in the next N days" only visit the days that have
+ * loans in the range and the loans in them, instead of every reader's list of books.  Each loan can also be found
+ * by its reader and book, so a return removes it in constant time.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: Checkouts on different shelves run at the same time (see LibraryLocks), so the index has its own lock.
+ *       It is only held for a map update or while a query copies its result.
+ */
+
+public class LoanIndex {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeMap<Long, LinkedHashSet<Loan>> dueDays = new TreeMap<>();  // Due day with the loans due then
+    private final IntHashMap<HashMap<CatalogKey, Loan>> readerLoans = new IntHashMap<>();  // Card number key
+    private int size;
+
+    /**
+     * This method add() adds a loan.  A loan the reader already has for the same book is replaced (ex. when the
+     * due date changes).
+     * @param loan the loan
+     */
+    public void add(Loan loan) {
+        lock.lock();
+        try {
+            HashMap<CatalogKey, Loan> loans = readerLoans.get(loan.getReader().getCardNumber());
+            if(loans == null) {
+                loans = new HashMap<>(8);
+                readerLoans.put(loan.getReader().getCardNumber(), loans);
+            }
+            Loan replaced = loans.put(loan.getBook().getKey(), loan);
+            if(replaced != null) {
+                removeFromDay(replaced);
+            } else {
+                size++;
+            }
+            dueDays.computeIfAbsent(loan.getDueDay(), day -> new LinkedHashSet<>()).add(loan);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method remove() removes the loan of a book by a reader.
+     * @param reader the reader who has the book
+     * @param book the book
+     * @return the loan removed, or null if the reader has no loan for the book
+     */
+    public Loan remove(Reader reader, Book book) {
+        lock.lock();
+        try {
+            HashMap<CatalogKey, Loan> loans = readerLoans.get(reader.getCardNumber());
+            Loan loan = loans == null ? null : loans.remove(book.getKey());
+            if(loan != null) {
+                if(loans.isEmpty()) {
+                    readerLoans.remove(reader.getCardNumber());
+                }
+                removeFromDay(loan);
+                size--;
+            }
+            return loan;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method get() finds the loan of a book by a reader.
+     * @param reader the reader who has the book
+     * @param book the book
+     * @return the loan, or null if the reader has no loan for the book
+     */
+    public Loan get(Reader reader, Book book) {
+        lock.lock();
+        try {
+            HashMap<CatalogKey, Loan> loans = readerLoans.get(reader.getCardNumber());
+            return loans == null ? null : loans.get(book.getKey());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method getOverdue() lists the loans due before a date, the most overdue first.
+     * @param date the date to check against (ex. today)
+     * @return the overdue loans
+     */
+    public List<Loan> getOverdue(LocalDate date) {
+        lock.lock();
+        try {
+            return collect(dueDays.headMap(date.toEpochDay(), false));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method getDueWithin() lists the loans due from a date through the next days, ordered by due day.
+     * @param date the first due date included (ex. today)
+     * @param days the number of days after date that are included
+     * @return the loans due in the range
+     */
+    public List<Loan> getDueWithin(LocalDate date, int days) {
+        long first = date.toEpochDay();
+        lock.lock();
+        try {
+            return collect(dueDays.subMap(first, true, first + days, true));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            dueDays.clear();
+            readerLoans.clear();
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeFromDay(Loan loan) {
+        LinkedHashSet<Loan> dayLoans = dueDays.get(loan.getDueDay());
+        dayLoans.remove(loan);
+        if(dayLoans.isEmpty()) {
+            dueDays.remove(loan.getDueDay());
+        }
+    }
+
+    private static List<Loan> collect(Map<Long, LinkedHashSet<Loan>> days) {
+        List<Loan> loans = new ArrayList<>();
+        for(LinkedHashSet<Loan> dayLoans : days.values()) {
+            loans.addAll(dayLoans);
+        }
+        return loans;
+    }
+}
@@ -0,0 +1,61 @@
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: LoanIndexTest.java
+ * abstract: This class LoanIndexTest() is a jUnit test for LoanIndex.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class LoanIndexTest {
+    private static final LocalDate TODAY = LocalDate.of(2021, 11, 1);
+
+    Reader reader = new Reader(1, "Drew Clinkenbeard", "831-582-4007");
+    Reader otherReader = new Reader(2, "Jennifer Clinkenbeard", "831-555-6284");
+    Book testBook = new Book("1337", "Headfirst Java", "education", 1337, "Grady Booch", null);
+    Book failBook = new Book("34-w-34", "Dune", "sci-fi", 235, "Frank Herbert", null);
+
+    private Loan loan(Reader loanReader, Book book, LocalDate dueDate) {
+        return new Loan(loanReader, new Book(book.getKey(), dueDate), dueDate.toEpochDay());
+    }
+
+    @Test
+    void overdueAndDueWithin() {
+        LoanIndex index = new LoanIndex();
+        Loan late = loan(reader, testBook, TODAY.minusDays(10));
+        Loan lateToo = loan(otherReader, testBook, TODAY.minusDays(1));
+        Loan dueToday = loan(reader, failBook, TODAY);
+        Loan dueLater = loan(otherReader, failBook, TODAY.plusDays(8));
+        index.add(dueLater);
+        index.add(lateToo);
+        index.add(dueToday);
+        index.add(late);
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(late, lateToo), index.getOverdue(TODAY));  // the most overdue first
+        assertEquals(List.of(dueToday), index.getDueWithin(TODAY, 7));
+        assertEquals(List.of(dueToday, dueLater), index.getDueWithin(TODAY, 8));
+    }
+
+    @Test
+    void removeAndReplace() {
+        LoanIndex index = new LoanIndex();
+        Loan late = loan(reader, testBook, TODAY.minusDays(10));
+        index.add(late);
+        assertSame(late, index.get(reader, testBook));
+        assertNull(index.get(otherReader, testBook));
+
+        Loan renewed = loan(reader, testBook, TODAY.plusDays(21));
+        index.add(renewed);  // the same reader and book replace the old loan
+        assertEquals(1, index.size());
+        assertTrue(index.getOverdue(TODAY).isEmpty());
+
+        assertSame(renewed, index.remove(reader, testBook));
+        assertNull(index.remove(reader, testBook));
+        assertEquals(0, index.size());
+        assertTrue(index.getDueWithin(TODAY, 30).isEmpty());
+    }
+}
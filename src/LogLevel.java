@@ -0,0 +1,27 @@
+/**
+ * title: LogLevel.java
+ * abstract: This enum LogLevel is the importance of a library message.  An EventSink only receives messages at or
+ * above the levels it has enabled.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: A request that is turned down (ex. no copies left, lending limit reached) is INFO, not ERROR.  The caller
+ *       already gets the reason from the returned Code.  ERROR and WARNING are for problems with the library's
+ *       data or files.
+ */
+
+public enum LogLevel {
+    ERROR,      // The library could not do its work (ex. a file could not be read)
+    WARNING,    // Bad input data that was discarded or replaced with a default (ex. a bad page count)
+    INFO,       // What the library did (ex. a book was checked out or a checkout was turned down)
+    DEBUG;      // Step by step parsing details
+
+    /**
+     * This method includes() checks if this level is as important or more important than level.
+     * @param level the level of a message
+     * @return True if a sink with this level enabled should receive a message at level.
+     */
+    public boolean includes(LogLevel level) {
+        return level.ordinal() <= this.ordinal();
+    }
+}
@@ -10,6 +10,7 @@ import java.util.HashMap;
 
 public class Main {
     public static void main(String[] args) {
+        LibraryLog.setVerbose(true);  // Display every library message
 
         Library csumb = new Library("CSUMB");
         csumb.init("Library01.csv");
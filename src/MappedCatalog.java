@@ -0,0 +1,562 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * title: MappedCatalog.java
+ * abstract: This class MappedCatalog is a read-only catalog file that a Library maps into memory with
+ * FileChannel.map() instead of reading it.  Opening a catalog only reads the header, the copy counts, the shelves,
+ * the readers, and where each subject's books are, so a library with a large catalog can start working right away.
+ * A Book is created from the mapped file the first time its ISBN is used (see getBook()), and an on-disk hash table
+ * finds the books with an ISBN without reading the others.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * FILE FORMAT: All numbers are big-endian.  Strings are an int length in bytes (-1 for null) and UTF-8 bytes.
+ *      header:  int MAGIC, int VERSION, long journal sequence, int book count, int table size,
+ *               int records offset, int extra offset
+ *      counts:  for each book: int copies in the library, int copies on its subject's shelf (-1 if not on it)
+ *      offsets: for each book: int offset of its record from the records offset
+ *      table:   for each slot: int index + 1 of the first book with an ISBN (0 if the slot is empty).  The slot
+ *               is found from the ISBN's hashCode() with linear probing.
+ *      records: for each book: isbn, title, subject, int pageCount, author, long dueDate (epoch day or NO_DATE)
+ *      extra:   int shelf count, then for each shelf: int shelfNumber, subject
+ *               int reader count, then for each reader: int cardNumber, name, phone, int book count, then a
+ *               record for each book
+ *               int subject count, then for each subject: subject, long copies on its shelf, int ISBN count,
+ *               then for each ISBN with a book of the subject: int index of its first book
+ * Books with the same ISBN are stored next to each other in the order they were added.
+ *
+ * NOTE: The file is not checksummed like a LibrarySnapshot because that would mean reading all of it.  A file
+ *       larger than 2 GB can not be mapped with one buffer and is refused.
+ */
+
+public class MappedCatalog {
+    public static final int MAGIC = 0x4C494243;  // "LIBC"
+    public static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 32;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long NO_DATE = Long.MIN_VALUE;  // Stored for a null due date
+
+    private final MappedByteBuffer file;
+    private final long journalSequence;
+    private final int bookCount;
+    private final int tableSize;
+    private final int offsetsOffset;
+    private final int tableOffset;
+    private final int recordsOffset;
+    private final int[] copies;         // Copies of each book in the library
+    private final int[] shelfCopies;    // Copies of each book on its subject's shelf, -1 if not on the shelf
+    private final long totalCopies;     // Copies of all books
+    private final AtomicLongArray loaded;  // One bit for each book, set by setLoaded()
+    private final List<Shelf> shelves;
+    private final List<Reader> readers;
+    private final HashMap<String, int[]> subjectBooks;  // Subject with the first index of each ISBN that has a
+                                                        // book of the subject
+    private final HashMap<String, Long> shelvedCopies;  // Subject with the copies that were on its shelf
+
+    private MappedCatalog(Path path, MappedByteBuffer file) throws IOException {
+        this.file = file;
+        if(file.capacity() < HEADER_SIZE || file.getInt(0) != MAGIC) {
+            throw new StreamCorruptedException(path + " is not a library catalog");
+        }
+        int version = file.getInt(4);
+        if(version != VERSION) {
+            throw new StreamCorruptedException(path + " is catalog version " + version + ", expected " + VERSION);
+        }
+        journalSequence = file.getLong(8);
+        bookCount = file.getInt(16);
+        tableSize = file.getInt(20);
+        recordsOffset = file.getInt(24);
+        int extraOffset = file.getInt(28);
+        if(bookCount < 0 || bookCount > file.capacity() / (3 * Integer.BYTES) || tableSize < 0
+                || tableSize > file.capacity() / Integer.BYTES) {
+            throw new StreamCorruptedException(path + " has a damaged header");
+        }
+        offsetsOffset = HEADER_SIZE + 2 * Integer.BYTES * bookCount;
+        tableOffset = offsetsOffset + Integer.BYTES * bookCount;
+        if(tableSize <= bookCount || Integer.bitCount(tableSize) != 1
+                || recordsOffset != tableOffset + Integer.BYTES * tableSize || extraOffset < recordsOffset
+                || extraOffset > file.capacity()) {
+            throw new StreamCorruptedException(path + " has a damaged header");
+        }
+
+        copies = new int[bookCount];
+        shelfCopies = new int[bookCount];
+        IntBuffer counts = file.slice(HEADER_SIZE, offsetsOffset - HEADER_SIZE).asIntBuffer();
+        long total = 0;
+        for(int i = 0; i < bookCount; i++) {
+            copies[i] = counts.get();
+            shelfCopies[i] = counts.get();
+            total += copies[i];
+        }
+        totalCopies = total;
+        loaded = new AtomicLongArray((bookCount + 63) / 64);
+
+        try {
+            ByteBuffer extra = file.slice(extraOffset, file.capacity() - extraOffset);
+            int shelfCount = extra.getInt();
+            shelves = new ArrayList<>(Math.max(0, Math.min(shelfCount, extra.remaining())));
+            for(int i = 0; i < shelfCount; i++) {
+                Shelf shelf = new Shelf();
+                shelf.setShelfNumber(extra.getInt());
+                shelf.setSubject(getString(extra));
+                shelves.add(shelf);
+            }
+
+            int readerCount = extra.getInt();
+            readers = new ArrayList<>(Math.max(0, Math.min(readerCount, extra.remaining())));
+            for(int i = 0; i < readerCount; i++) {
+                Reader reader = new Reader(extra.getInt(), getString(extra), getString(extra));
+                int loanCount = extra.getInt();
+                for(int loan = 0; loan < loanCount; loan++) {
+                    reader.getBooks().add(getBook(extra));
+                }
+                readers.add(reader);
+            }
+
+            int subjectCount = extra.getInt();
+            subjectBooks = new HashMap<>();
+            shelvedCopies = new HashMap<>();
+            for(int i = 0; i < subjectCount; i++) {
+                String subject = getString(extra);
+                shelvedCopies.put(subject, extra.getLong());
+                int[] firsts = new int[extra.getInt()];
+                for(int first = 0; first < firsts.length; first++) {
+                    firsts[first] = extra.getInt();
+                    if(firsts[first] < 0 || firsts[first] >= bookCount) {
+                        throw new IndexOutOfBoundsException(firsts[first]);
+                    }
+                }
+                subjectBooks.put(subject, firsts);
+            }
+        } catch(RuntimeException e) {
+            throw new StreamCorruptedException(path + " has damaged shelves or readers");
+        }
+    }
+
+    /**
+     * This method open() maps a catalog file written by write().
+     * @param filename the catalog file
+     * @return the catalog
+     * @throws java.nio.file.NoSuchFileException if the file does not exist.
+     * @throws StreamCorruptedException if the file is not a catalog, has a newer VERSION, or is damaged.
+     * @throws IOException if the file could not be mapped.
+     */
+    public static MappedCatalog open(String filename) throws IOException {
+        Path path = Paths.get(filename);
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if(channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(path + " is too large to map");
+            }
+            // The mapping stays valid after the channel is closed.
+            return new MappedCatalog(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * This method write() saves a library's books, shelves, and readers as a catalog file.  The file is written to
+     * a temporary file first and then moved over the old catalog, so a library that has the old one mapped keeps
+     * working.
+     * @param filename the catalog file.  An existing file is replaced.
+     * @param books the books in the library.  Books with the same ISBN must be next to each other, in the order
+     *              they were added.
+     * @param copies the number of copies of each book in the library
+     * @param shelves the library's shelves
+     * @param readers the library's readers
+     * @param journalSequence the sequence number of the last Journal entry the library holds (0 if none)
+     * @throws IOException if the file could not be written.
+     */
+    public static void write(String filename, List<Book> books, CopyCounter<CatalogKey> copies, List<Shelf> shelves,
+                             List<Reader> readers, long journalSequence) throws IOException {
+        Path path = Paths.get(filename);
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        int tableSize = Integer.highestOneBit(Math.max(books.size(), 1) * 2) * 2;
+        int tableOffset = HEADER_SIZE + 3 * Integer.BYTES * books.size();
+        long recordsOffset = tableOffset + (long) Integer.BYTES * tableSize;
+        if(recordsOffset > Integer.MAX_VALUE) {
+            throw new IOException("Too many books for one catalog file");
+        }
+        HashMap<String, Shelf> subjectShelves = new HashMap<>();
+        for(Shelf shelf : shelves) {
+            subjectShelves.put(shelf.getSubject(), shelf);
+        }
+        int[] shelfCopies = new int[books.size()];
+        for(int i = 0; i < books.size(); i++) {
+            Shelf shelf = subjectShelves.get(books.get(i).getSubject());
+            shelfCopies[i] = shelf == null ? -1 : shelf.getBookCount(books.get(i));
+        }
+
+        try(Output out = new Output(temporary)) {
+            // The records go first so their offsets are known when the tables in front of them are written.
+            int[] recordOffsets = new int[books.size()];
+            int[] table = new int[tableSize];
+            out.seek(recordsOffset);
+            for(int i = 0; i < books.size(); i++) {
+                Book book = books.get(i);
+                recordOffsets[i] = (int) (out.position() - recordsOffset);
+                out.putBook(book);
+                if(i == 0 || !book.getIsbn().equals(books.get(i - 1).getIsbn())) {
+                    int slot = slot(book.getIsbn(), tableSize);
+                    while(table[slot] != 0) {
+                        slot = (slot + 1) & (tableSize - 1);
+                    }
+                    table[slot] = i + 1;
+                }
+            }
+
+            long extraOffset = out.position();
+            out.putInt(shelves.size());
+            for(Shelf shelf : shelves) {
+                out.putInt(shelf.getShelfNumber());
+                out.putString(shelf.getSubject());
+            }
+            out.putInt(readers.size());
+            for(Reader reader : readers) {
+                out.putInt(reader.getCardNumber());
+                out.putString(reader.getName());
+                out.putString(reader.getPhone());
+                out.putInt(reader.getBooks().size());
+                for(Book book : reader.getBooks()) {
+                    out.putBook(book);
+                }
+            }
+            writeSubjects(out, books, shelfCopies);
+            if(out.position() > Integer.MAX_VALUE) {
+                throw new IOException("The catalog is too large to map");
+            }
+
+            out.seek(0);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(journalSequence);
+            out.putInt(books.size());
+            out.putInt(tableSize);
+            out.putInt((int) recordsOffset);
+            out.putInt((int) extraOffset);
+            for(int i = 0; i < books.size(); i++) {
+                out.putInt(copies.get(books.get(i).getKey(), 0));
+                out.putInt(shelfCopies[i]);
+            }
+            for(int recordOffset : recordOffsets) {
+                out.putInt(recordOffset);
+            }
+            for(int slot : table) {
+                out.putInt(slot);
+            }
+        }
+
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * This method writeSubjects() writes the books of each subject: the copies that are on the subject's shelf and
+     * the first index of each ISBN that has a book of the subject.
+     * @param out the catalog being written
+     * @param books the books in the library, with the same ISBN next to each other
+     * @param shelfCopies the copies of each book on its subject's shelf, -1 if not on it
+     * @throws IOException if the file could not be written.
+     */
+    private static void writeSubjects(Output out, List<Book> books, int[] shelfCopies) throws IOException {
+        LinkedHashMap<String, Long> subjectCopies = new LinkedHashMap<>();
+        LinkedHashMap<String, List<Integer>> subjectFirsts = new LinkedHashMap<>();
+        int first = 0;
+        for(int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            if(i > 0 && !book.getIsbn().equals(books.get(i - 1).getIsbn())) {
+                first = i;
+            }
+            subjectCopies.merge(book.getSubject(), (long) Math.max(shelfCopies[i], 0), Long::sum);
+            List<Integer> firsts = subjectFirsts.computeIfAbsent(book.getSubject(), subject -> new ArrayList<>());
+            if(firsts.isEmpty() || firsts.get(firsts.size() - 1) != first) {
+                firsts.add(first);
+            }
+        }
+
+        out.putInt(subjectFirsts.size());
+        for(Map.Entry<String, List<Integer>> subject : subjectFirsts.entrySet()) {
+            out.putString(subject.getKey());
+            out.putLong(subjectCopies.get(subject.getKey()));
+            out.putInt(subject.getValue().size());
+            for(int index : subject.getValue()) {
+                out.putInt(index);
+            }
+        }
+    }
+
+    public int size() {
+        return bookCount;
+    }
+
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    /**
+     * This method getShelves() returns the shelves of the catalog without any books on them.
+     * @return the shelves
+     */
+    public List<Shelf> getShelves() {
+        return shelves;
+    }
+
+    public List<Reader> getReaders() {
+        return readers;
+    }
+
+    /**
+     * This method find() looks up an ISBN in the on-disk hash table.  No Book is created.
+     * @param isbn the ISBN wanted
+     * @return the index of the first book with the ISBN, or -1 if the catalog has none.  The other books with the
+     *         ISBN follow it up to findEnd().
+     */
+    public int find(String isbn) {
+        byte[] isbnBytes = isbn.getBytes(StandardCharsets.UTF_8);
+        for(int slot = slot(isbn, tableSize); ; slot = (slot + 1) & (tableSize - 1)) {
+            int index = file.getInt(tableOffset + Integer.BYTES * slot) - 1;
+            if(index < 0) {
+                return -1;
+            }
+            if(isbnEquals(recordOffset(index), isbnBytes)) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * This method findEnd() finds the end of the books that have the same ISBN as the book at first.
+     * @param first the index of the first book with an ISBN
+     * @return the index after the last book with that ISBN
+     */
+    public int findEnd(int first) {
+        int record = recordOffset(first);
+        int end = first + 1;
+        while(end < bookCount && sameIsbn(record, recordOffset(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * This method getBook() creates the Book stored at index from the mapped file.  Each call creates a new Book.
+     * @param index the index of the book
+     * @return the book
+     */
+    public Book getBook(int index) {
+        return getBook(file.slice(recordOffset(index), file.capacity() - recordOffset(index)));
+    }
+
+    public int getCopies(int index) {
+        return copies[index];
+    }
+
+    public long getTotalCopies() {
+        return totalCopies;
+    }
+
+    /**
+     * This method getShelfCopies() returns the copies of a book that were on its subject's shelf.
+     * @param index the index of the book
+     * @return the number of copies, or -1 if the book was not on a shelf
+     */
+    public int getShelfCopies(int index) {
+        return shelfCopies[index];
+    }
+
+    /**
+     * This method getSubjectBooks() returns where the books of a subject are, so a shelf can be loaded without
+     * loading the other subjects.
+     * @param subject the subject wanted
+     * @return the index of the first book of each ISBN that has a book of the subject (empty if there are none)
+     */
+    public int[] getSubjectBooks(String subject) {
+        int[] firsts = subjectBooks.get(subject);
+        return firsts == null ? new int[0] : firsts.clone();
+    }
+
+    /**
+     * This method getShelvedCopies() returns the copies that were on each subject's shelf when the catalog was
+     * saved.
+     * @return the subjects with their number of copies
+     */
+    public Map<String, Long> getShelvedCopies() {
+        return Collections.unmodifiableMap(shelvedCopies);
+    }
+
+    public boolean isLoaded(int index) {
+        return (loaded.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * This method setLoaded() marks a book as loaded into the library.  Library marks the first book of each ISBN
+     * once all the books with that ISBN have been created.
+     * @param index the index of the book
+     */
+    public void setLoaded(int index) {
+        long bit = 1L << index;
+        loaded.getAndAccumulate(index >>> 6, bit, (word, mask) -> word | mask);
+    }
+
+    private int recordOffset(int index) {
+        return recordsOffset + file.getInt(offsetsOffset + Integer.BYTES * index);
+    }
+
+    private boolean isbnEquals(int record, byte[] isbnBytes) {
+        if(file.getInt(record) != isbnBytes.length) {
+            return false;
+        }
+        for(int i = 0; i < isbnBytes.length; i++) {
+            if(file.get(record + Integer.BYTES + i) != isbnBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameIsbn(int record, int other) {
+        int length = file.getInt(record);
+        if(file.getInt(other) != length) {
+            return false;
+        }
+        for(int i = Integer.BYTES; i < Integer.BYTES + length; i++) {
+            if(file.get(record + i) != file.get(other + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int slot(String isbn, int tableSize) {
+        int hash = isbn.hashCode();
+        return (hash ^ (hash >>> 16)) & (tableSize - 1);
+    }
+
+    private static Book getBook(ByteBuffer record) {
+        return new Book(getString(record), getString(record), getString(record), record.getInt(),
+                getString(record), toDate(record.getLong()));
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if(length == -1) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toDay(LocalDate date) {
+        return date == null ? NO_DATE : date.toEpochDay();
+    }
+
+    private static LocalDate toDate(long day) {
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    /**
+     * This class Output writes a catalog through a buffer.  seek() moves to another part of the file.
+     */
+    private static class Output implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        Output(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        long position() throws IOException {
+            return channel.position() + buffer.position();
+        }
+
+        void seek(long position) throws IOException {
+            drain();
+            channel.position(position);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putString(String value) throws IOException {
+            if(value == null) {
+                putInt(-1);
+                return;
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            for(int offset = 0; offset < bytes.length; ) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void putBook(Book book) throws IOException {
+            putString(book.getIsbn());
+            putString(book.getTitle());
+            putString(book.getSubject());
+            putInt(book.getPageCount());
+            putString(book.getAuthor());
+            putLong(toDay(book.getDueDate()));
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if(buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+                channel.force(true);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: MappedCatalogTest.java
+ * abstract: This class MappedCatalogTest() is a jUnit test for MappedCatalog.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class MappedCatalogTest {
+    private static final LocalDate DUE_DATE = LocalDate.of(2021, 11, 1);
+
+    @TempDir
+    Path directory;
+
+    Book testBook = new Book("1337", "Headfirst Java", "education", 1337, "Grady Booch", DUE_DATE);
+    Book secondEdition = new Book("1337", "Headfirst Java 2", "education", 1400, "Grady Booch", null);
+    Book failBook = new Book("34-w-34", "Dune", "sci-fi", 235, "Frank Herbert", null);
+
+    private String writeCatalog() throws IOException {
+        CopyCounter<CatalogKey> copies = new CopyCounter<>();
+        copies.set(testBook.getKey(), 3);
+        copies.set(secondEdition.getKey(), 1);
+        copies.set(failBook.getKey(), 2);
+
+        Shelf shelf = new Shelf();
+        shelf.setShelfNumber(1);
+        shelf.setSubject("education");
+        shelf.setBookCount(testBook, 2);
+        shelf.setBookCount(secondEdition, 1);
+
+        Reader reader = new Reader(1, "Drew Clinkenbeard", "831-582-4007");
+        reader.addBook(testBook);
+
+        String filename = directory.resolve("library.catalog").toString();
+        MappedCatalog.write(filename, List.of(testBook, secondEdition, failBook), copies, List.of(shelf),
+                List.of(reader), 42);
+        return filename;
+    }
+
+    @Test
+    void writeAndOpen() throws IOException {
+        MappedCatalog catalog = MappedCatalog.open(writeCatalog());
+        assertEquals(3, catalog.size());
+        assertEquals(42, catalog.getJournalSequence());
+
+        int first = catalog.find("1337");
+        assertEquals(0, first);
+        assertEquals(2, catalog.findEnd(first));  // both editions share the ISBN
+        assertEquals(secondEdition, catalog.getBook(1));
+        assertEquals(DUE_DATE, catalog.getBook(0).getDueDate());
+        assertEquals(2, catalog.find("34-w-34"));
+        assertEquals(-1, catalog.find("nope"));
+
+        assertEquals(3, catalog.getCopies(0));
+        assertEquals(2, catalog.getShelfCopies(0));
+        assertEquals(-1, catalog.getShelfCopies(2));  // no sci-fi shelf
+
+        assertEquals("1 : education", catalog.getShelves().get(0).toString());
+        assertTrue(catalog.getReaders().get(0).hasBook(testBook));
+
+        assertFalse(catalog.isLoaded(0));
+        catalog.setLoaded(0);
+        assertTrue(catalog.isLoaded(0));
+    }
+
+    @Test
+    void libraryLoadsBooksWhenUsed() throws IOException {
+        Library library = new Library("Mapped Library");
+        assertEquals(Code.SUCCESS, library.openCatalog(writeCatalog()));
+
+        assertEquals(2, library.getBooksByISBN("1337").size());
+        Reader reader = library.getReaderByCard(1);
+        assertEquals(Code.SUCCESS, library.checkOutBook(reader, secondEdition));
+        assertEquals(0, library.getShelf("education").getBookCount(secondEdition));
+        assertEquals(Code.SUCCESS, library.returnBook(reader, testBook));
+        assertEquals(3, library.getShelf("education").getBookCount(testBook));
+    }
+
+    @Test
+    void openedCatalogCountsShelvesAndLoadsOneSubject() {
+        LibraryLog.setVerbose(false);
+        Library library = new Library("Saved Library");
+        library.addShelf("education");
+        library.addShelf("sci-fi");
+        for(Book book : List.of(testBook, testBook, secondEdition, failBook, failBook)) {
+            library.addBook(book);
+        }
+        Book humorBook = new Book("42-w-87", "Hitchhikers Guide To the Galaxy", "humor", 42, "Douglas Adams", null);
+        library.addBook(humorBook);
+        Reader reader = new Reader(1, "Drew Clinkenbeard", "831-582-4007");
+        library.addReader(reader);
+        assertEquals(Code.SUCCESS, library.checkOutBook(reader, failBook));
+        String filename = directory.resolve("library.catalog").toString();
+        assertEquals(Code.SUCCESS, library.saveCatalog(filename));
+
+        Library mapped = new Library("Mapped Library");
+        assertEquals(Code.SUCCESS, mapped.openCatalog(filename));
+        assertEquals(library.getStats().getShelvedCopies(), mapped.getStats().getShelvedCopies());
+        assertEquals(3, mapped.getStats().getShelvedCopies("education"));
+        assertEquals(1, mapped.getStats().getShelvedCopies("sci-fi"));
+        assertTrue(mapped.isMapped("1337"));
+
+        Shelf education = mapped.getShelf("education");
+        assertEquals(2, education.getBookCount(testBook));
+        assertFalse(mapped.isMapped("1337"));
+        assertTrue(mapped.isMapped("34-w-34"));  // Only the shelf's subject is loaded
+        assertTrue(mapped.isMapped("42-w-87"));
+        assertEquals(3, mapped.getStats().getShelvedCopies("education"));
+
+        assertEquals(1, mapped.getShelf(2).getBookCount(failBook));
+        assertFalse(mapped.isMapped("34-w-34"));
+        assertEquals(Map.of("education", 3L, "sci-fi", 1L), mapped.getStats().getShelvedCopies());
+
+        assertEquals(Code.SUCCESS, mapped.addShelf("humor"));  // Its books are loaded onto the new shelf
+        assertEquals(1, mapped.getStats().getShelvedCopies("humor"));
+        assertEquals(1, mapped.getShelf("humor").getBookCount(humorBook));
+    }
+
+    @Test
+    void notACatalog() throws IOException {
+        Path file = directory.resolve("library.catalog");
+        Files.write(file, new byte[] {1, 2, 3});
+        assertThrows(StreamCorruptedException.class, () -> MappedCatalog.open(file.toString()));
+    }
+}
@@ -0,0 +1,168 @@
+import java.io.IOException;
+
+/**
+ * title: MetricsSnapshot.java
+ * abstract: This class MetricsSnapshot holds the totals LibraryMetrics had at one moment: the calls of each
+ * operation by the Code they returned, and the latency histogram of each operation.  It does not change, so a
+ * report can read it as often as it likes.  writeText() writes it in the plain text format monitoring tools
+ * scrape (the Prometheus text format).
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+public class MetricsSnapshot {
+    private final long[][] codeCounts;      // Calls of each operation by Code ordinal
+    private final long[][] bucketCounts;    // Calls of each operation by histogram bucket.  The last is overflow.
+    private final long[] totalNanos;        // Time of all calls of each operation
+    private final long[] bucketBounds;      // Upper bound of each bucket in nanoseconds
+
+    MetricsSnapshot(long[][] codeCounts, long[][] bucketCounts, long[] totalNanos, long[] bucketBounds) {
+        this.codeCounts = codeCounts;
+        this.bucketCounts = bucketCounts;
+        this.totalNanos = totalNanos;
+        this.bucketBounds = bucketBounds;
+    }
+
+    /**
+     * This method getCount() returns the number of calls of an operation.
+     * @param operation the operation
+     * @return the number of calls, whatever they returned
+     */
+    public long getCount(LibraryMetrics.Operation operation) {
+        long count = 0;
+        for(long codeCount : codeCounts[operation.ordinal()]) {
+            count += codeCount;
+        }
+        return count;
+    }
+
+    /**
+     * This method getCount() returns the number of calls of an operation that returned code.
+     * @param operation the operation
+     * @param code the Code returned (ex. Code.SUCCESS)
+     * @return the number of calls
+     */
+    public long getCount(LibraryMetrics.Operation operation, Code code) {
+        return codeCounts[operation.ordinal()][code.ordinal()];
+    }
+
+    /**
+     * This method getBucketCounts() returns the latency histogram of an operation.
+     * @param operation the operation
+     * @return the calls in each bucket of LibraryMetrics.getBucketBounds(), and one more for the calls over the
+     *         last bound
+     */
+    public long[] getBucketCounts(LibraryMetrics.Operation operation) {
+        return bucketCounts[operation.ordinal()].clone();
+    }
+
+    public long getTotalNanos(LibraryMetrics.Operation operation) {
+        return totalNanos[operation.ordinal()];
+    }
+
+    /**
+     * This method getMeanNanos() returns the average time of a call of an operation.
+     * @param operation the operation
+     * @return the average in nanoseconds, or 0 if there were no calls
+     */
+    public double getMeanNanos(LibraryMetrics.Operation operation) {
+        long count = getHistogramCount(operation);
+        return count == 0 ? 0 : (double) getTotalNanos(operation) / count;
+    }
+
+    /**
+     * This method getPercentileNanos() returns the time that at least the given share of the calls took no longer
+     * than.  The histogram only knows the bucket of each call, so it is the upper bound of the bucket.
+     * @param operation the operation
+     * @param percentile the share of calls, from 0 to 1 (ex. 0.99)
+     * @return the bucket bound in nanoseconds, Long.MAX_VALUE if it is over the last bound, or 0 if there were
+     *         no calls
+     */
+    public long getPercentileNanos(LibraryMetrics.Operation operation, double percentile) {
+        long[] buckets = bucketCounts[operation.ordinal()];
+        long count = getHistogramCount(operation);
+        if(count == 0) {
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(percentile * count), 1);
+        long seen = 0;
+        for(int i = 0; i < bucketBounds.length; i++) {
+            seen += buckets[i];
+            if(seen >= rank) {
+                return bucketBounds[i];
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * This method writeText() writes every operation that was called in the Prometheus text format: a
+     * library_calls_total counter for each Code returned and a library_call_seconds histogram.
+     * @param out where the text is written (ex. a Writer)
+     * @throws IOException if out cannot be written
+     */
+    public void writeText(Appendable out) throws IOException {
+        LibraryMetrics.Operation[] operations = LibraryMetrics.Operation.values();
+        Code[] codes = Code.values();
+
+        out.append("# HELP library_calls_total Calls of each Library operation by the Code returned.\n");
+        out.append("# TYPE library_calls_total counter\n");
+        for(LibraryMetrics.Operation operation : operations) {
+            for(Code code : codes) {
+                long count = getCount(operation, code);
+                if(count > 0) {
+                    out.append("library_calls_total{operation=\"").append(operation.getMethodName())
+                            .append("\",code=\"").append(code.name()).append("\"} ")
+                            .append(Long.toString(count)).append('\n');
+                }
+            }
+        }
+
+        out.append("# HELP library_call_seconds How long calls of each Library operation took.\n");
+        out.append("# TYPE library_call_seconds histogram\n");
+        for(LibraryMetrics.Operation operation : operations) {
+            long count = getHistogramCount(operation);
+            if(count == 0) {
+                continue;
+            }
+            String labels = "{operation=\"" + operation.getMethodName() + "\"";
+            long[] buckets = bucketCounts[operation.ordinal()];
+            long cumulative = 0;
+            for(int i = 0; i < bucketBounds.length; i++) {
+                cumulative += buckets[i];
+                out.append("library_call_seconds_bucket").append(labels).append(",le=\"")
+                        .append(seconds(bucketBounds[i])).append("\"} ").append(Long.toString(cumulative))
+                        .append('\n');
+            }
+            out.append("library_call_seconds_bucket").append(labels).append(",le=\"+Inf\"} ")
+                    .append(Long.toString(count)).append('\n');
+            out.append("library_call_seconds_sum").append(labels).append("} ")
+                    .append(seconds(getTotalNanos(operation))).append('\n');
+            out.append("library_call_seconds_count").append(labels).append("} ")
+                    .append(Long.toString(count)).append('\n');
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        try {
+            writeText(text);
+        } catch(IOException e) {
+            throw new IllegalStateException(e);  // StringBuilder does not throw
+        }
+        return text.toString();
+    }
+
+    private long getHistogramCount(LibraryMetrics.Operation operation) {
+        long count = 0;
+        for(long bucketCount : bucketCounts[operation.ordinal()]) {
+            count += bucketCount;
+        }
+        return count;
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * title: RingBufferSink.java
+ * abstract: This class RingBufferSink keeps the most recent messages in memory instead of displaying them.  Once
+ * the buffer is full, each new message replaces the oldest one, so the sink never grows.  It is the library's
+ * default sink: warnings and errors can be looked at after a problem without paying for console output.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+public class RingBufferSink implements EventSink {
+    private final LogLevel level;      // Least important level kept
+    private final String[] messages;
+    private final LogLevel[] levels;
+    private int next;                  // Index the next message is stored at
+    private long published;            // Total number of messages kept since the sink was created
+
+    public RingBufferSink(LogLevel level, int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        }
+        this.level = level;
+        this.messages = new String[capacity];
+        this.levels = new LogLevel[capacity];
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return this.level.includes(level);
+    }
+
+    @Override
+    public synchronized void publish(LogLevel level, String message) {
+        if(!isEnabled(level)) {
+            return;
+        }
+        messages[next] = message;
+        levels[next] = level;
+        next = (next + 1) % messages.length;
+        published++;
+    }
+
+    /**
+     * This method getMessages() returns the kept messages from oldest to newest.  Each message starts with its
+     * level, ex. "[WARNING] Could not parse book entry due to error. BOOK ENTRY DISCARDED."
+     * @return a list of the kept messages
+     */
+    public synchronized List<String> getMessages() {
+        int count = (int) Math.min(published, messages.length);
+        List<String> kept = new ArrayList<>(count);
+        int index = (next - count + messages.length) % messages.length;
+        for(int i = 0; i < count; i++) {
+            kept.add("[" + levels[index] + "] " + messages[index]);
+            index = (index + 1) % messages.length;
+        }
+        return kept;
+    }
+
+    /**
+     * This method getPublishedCount() returns how many messages were kept since the sink was created, including
+     * the ones that have since been replaced.
+     * @return the number of messages kept
+     */
+    public synchronized long getPublishedCount() {
+        return published;
+    }
+}
@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: RingBufferSinkTest.java
+ * abstract: This class RingBufferSinkTest() is a jUnit test for RingBufferSink.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class RingBufferSinkTest {
+
+    @Test
+    void isEnabled() {
+        RingBufferSink sink = new RingBufferSink(LogLevel.WARNING, 4);
+        assertTrue(sink.isEnabled(LogLevel.ERROR));
+        assertTrue(sink.isEnabled(LogLevel.WARNING));
+        assertFalse(sink.isEnabled(LogLevel.INFO));
+        assertFalse(sink.isEnabled(LogLevel.DEBUG));
+    }
+
+    @Test
+    void publish() {
+        RingBufferSink sink = new RingBufferSink(LogLevel.WARNING, 4);
+        sink.publish(LogLevel.WARNING, "first");
+        sink.publish(LogLevel.INFO, "ignored");  // below the sink's level
+        sink.publish(LogLevel.ERROR, "second");
+        assertEquals(List.of("[WARNING] first", "[ERROR] second"), sink.getMessages());
+        assertEquals(2, sink.getPublishedCount());
+    }
+
+    @Test
+    void oldestMessagesReplaced() {
+        RingBufferSink sink = new RingBufferSink(LogLevel.DEBUG, 3);
+        for(int i = 1; i <= 5; i++) {
+            sink.publish(LogLevel.INFO, "message " + i);
+        }
+        assertEquals(List.of("[INFO] message 3", "[INFO] message 4", "[INFO] message 5"), sink.getMessages());
+        assertEquals(5, sink.getPublishedCount());
+    }
+}
@@ -0,0 +1,365 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * title: ShardedLibrary.java
+ * abstract: This class ShardedLibrary splits one library across several independent Library objects (shards), so
+ * a busy subject only contends with the subjects in its own shard.  A shelf and its books live in the shard picked
+ * by the hash of the subject, and a reader lives in the shard picked by their library card number.  Calls about
+ * one book or one reader are sent to its shard.  Lookups by ISBN and the listings ask every shard and put the
+ * answers together (scatter-gather).
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: When the reader and the book are in different shards, a checkout is two steps.  The reader's shard lends
+ *       the book first (which checks the lending limit and keeps a place for it), then the book's shard takes a
+ *       copy off the shelf.  If no copy can be taken, the loan is cancelled again (compensation).  A return
+ *       cancels the loan and then puts the copy back.  Between the steps the reader may be seen holding a book
+ *       whose copy is still on the shelf, but no step ever needs locks in two shards at once.  The two steps
+ *       hold the reader's lock of the ShardedLibrary, so a return cannot run between them for the same reader.
+ *       The two steps are not journaled, so while either shard has a journal open they are refused with
+ *       Code.JOURNAL_ERROR.  Otherwise replaying the journals would put the copy back on the shelf without
+ *       ending the loan.
+ */
+
+public class ShardedLibrary {
+    private final String name;
+    private final Library[] shards;
+    private final AtomicInteger shelfNumber = new AtomicInteger();  // Last shelf number used in any shard
+    private final LibraryLocks locks = new LibraryLocks(LibraryLocks.DEFAULT_STRIPES);  // Only reader locks used
+
+    /**
+     * This constructor makes a library of shardCount empty shards.  Each shard is safe to share between threads.
+     * @param name the name of the library
+     * @param shardCount the number of shards (at least 1)
+     */
+    public ShardedLibrary(String name, int shardCount) {
+        if(shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be at least 1: " + shardCount);
+        }
+        this.name = name;
+        this.shards = new Library[shardCount];
+        for(int i = 0; i < shardCount; i++) {
+            shards[i] = new Library(name + " #" + i, true);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public Library getShard(int index) {
+        return shards[index];
+    }
+
+    /**
+     * This method getSubjectShard() returns the shard that keeps the shelf and books of a subject.
+     * @param subject the subject of a shelf or book
+     * @return the shard
+     */
+    public Library getSubjectShard(String subject) {
+        return shards[Math.floorMod(subject.hashCode(), shards.length)];
+    }
+
+    /**
+     * This method getReaderShard() returns the shard that keeps a reader.
+     * @param cardNumber the reader's library card number
+     * @return the shard
+     */
+    public Library getReaderShard(int cardNumber) {
+        return shards[Math.floorMod(cardNumber, shards.length)];
+    }
+
+    public Code addBook(Book newBook) {
+        return getSubjectShard(newBook.getSubject()).addBook(newBook);
+    }
+
+    /**
+     * This method addShelf() adds a shelf for a subject to the subject's shard.  Shelf numbers are counted across
+     * all shards, so no two shelves share a number.
+     * @param shelfSubject the subject of the shelf
+     * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
+     */
+    public Code addShelf(String shelfSubject) {
+        Library shard = getSubjectShard(shelfSubject);
+        if(shard.getShelf(shelfSubject) != null) {
+            return Code.SHELF_EXISTS_ERROR;
+        }
+        Shelf newShelf = new Shelf();
+        newShelf.setShelfNumber(shelfNumber.incrementAndGet());
+        newShelf.setSubject(shelfSubject);
+        return shard.addShelf(newShelf);
+    }
+
+    public Code addShelf(Shelf newShelf) {
+        shelfNumber.accumulateAndGet(newShelf.getShelfNumber(), Math::max);
+        return getSubjectShard(newShelf.getSubject()).addShelf(newShelf);
+    }
+
+    public Shelf getShelf(String subject) {
+        return getSubjectShard(subject).getShelf(subject);
+    }
+
+    public Code addReader(Reader reader) {
+        return getReaderShard(reader.getCardNumber()).addReader(reader);
+    }
+
+    public Code removeReader(Reader reader) {
+        return getReaderShard(reader.getCardNumber()).removeReader(reader);
+    }
+
+    public Reader getReaderByCard(int cardNumber) {
+        return getReaderShard(cardNumber).getReaderByCard(cardNumber);
+    }
+
+    /**
+     * This method checkOutBook() checks out a copy of book to the reader.  If the reader and the book are in the
+     * same shard, the shard checks it out.  Otherwise the reader's shard lends it and the book's shard takes a
+     * copy off the shelf, and the loan is cancelled if no copy could be taken.
+     * @param reader the reader who is checking out a book
+     * @param book the book being checked out
+     * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
+     */
+    public Code checkOutBook(Reader reader, Book book) {
+        if(reader == null) {
+            return Code.READER_NOT_IN_LIBRARY_ERROR;
+        }
+        if(book == null) {
+            return Code.BOOK_NOT_IN_INVENTORY_ERROR;
+        }
+        Library readerShard = getReaderShard(reader.getCardNumber());
+        Library bookShard = getSubjectShard(book.getSubject());
+        if(readerShard == bookShard) {
+            return bookShard.checkOutBook(reader, book);
+        }
+        if(isJournaled(readerShard, bookShard)) {
+            return Code.JOURNAL_ERROR;
+        }
+
+        Lock readerLock = locks.readerLock(reader.getCardNumber());
+        readerLock.lock();
+        try {
+            Code returnedCode = readerShard.lendCopy(reader, book);
+            if(returnedCode != Code.SUCCESS) {
+                return returnedCode;
+            }
+            returnedCode = bookShard.takeCopy(book);
+            if(returnedCode != Code.SUCCESS) {
+                readerShard.cancelLoan(reader, book);
+                return returnedCode;
+            }
+        } finally {
+            readerLock.unlock();
+        }
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, book + " checked out successfully.");
+        }
+        return Code.SUCCESS;
+    }
+
+    /**
+     * This method returnBook() takes a book back from the reader and puts the copy back on its shelf.
+     * @param reader the reader returning the book
+     * @param book the book being returned
+     * @return a Code which indicates if there were any errors during processing. If none, Code.SUCCESS is returned.
+     */
+    public Code returnBook(Reader reader, Book book) {
+        if(reader == null) {
+            return Code.READER_NOT_IN_LIBRARY_ERROR;
+        }
+        if(book == null) {
+            return Code.BOOK_NOT_IN_INVENTORY_ERROR;
+        }
+        Library readerShard = getReaderShard(reader.getCardNumber());
+        Library bookShard = getSubjectShard(book.getSubject());
+        if(readerShard == bookShard) {
+            return bookShard.returnBook(reader, book);
+        }
+        if(isJournaled(readerShard, bookShard)) {
+            return Code.JOURNAL_ERROR;
+        }
+
+        Lock readerLock = locks.readerLock(reader.getCardNumber());
+        readerLock.lock();
+        try {
+            Code returnedCode = readerShard.cancelLoan(reader, book);
+            if(returnedCode != Code.SUCCESS) {
+                return returnedCode;
+            }
+            return bookShard.putBackCopy(book);
+        } finally {
+            readerLock.unlock();
+        }
+    }
+
+    /**
+     * This method isJournaled() checks if a two-step checkout or return between two shards must be refused
+     * because one of them has a journal open.
+     */
+    private static boolean isJournaled(Library readerShard, Library bookShard) {
+        if(readerShard.isJournaled() || bookShard.isJournaled()) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "ERROR: Books can not move between shards while a journal is open.");
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method getBookByISBN() asks each shard for a book with the ISBN, since the ISBN does not tell which
+     * subject the book has.
+     * @param isbn a String isbn that should match a book object's isbn field.
+     * @return the first book found with the isbn, or null if no shard has one.
+     */
+    public Book getBookByISBN(String isbn) {
+        for(Library shard : shards) {
+            List<Book> isbnBooks = shard.getBooksByISBN(isbn);
+            if(!isbnBooks.isEmpty()) {
+                return isbnBooks.get(0);
+            }
+        }
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, "ERROR: Could not find a book with isbn: " + isbn);
+        }
+        return null;
+    }
+
+    public List<Book> getBooksByISBN(String isbn) {
+        List<Book> isbnBooks = new ArrayList<>();
+        for(Library shard : shards) {
+            isbnBooks.addAll(shard.getBooksByISBN(isbn));
+        }
+        return isbnBooks;
+    }
+
+    /**
+     * This method findBooks() asks each shard for the books that match every condition given (see
+     * Library.findBooks()).  A subject only has to ask its own shard.
+     * @return the matching books, shard by shard
+     */
+    public List<Book> findBooks(String subject, String author, int minPages, int maxPages, boolean availableOnly) {
+        if(subject != null) {
+            return getSubjectShard(subject).findBooks(subject, author, minPages, maxPages, availableOnly);
+        }
+        List<Book> found = new ArrayList<>();
+        for(Library shard : shards) {
+            found.addAll(shard.findBooks(null, author, minPages, maxPages, availableOnly));
+        }
+        return found;
+    }
+
+    /**
+     * This method getOverdueLoans() gathers the overdue loans of every shard, the most overdue first.
+     * @param date the date to check against (ex. today)
+     * @return the overdue loans
+     */
+    public List<Loan> getOverdueLoans(LocalDate date) {
+        List<Loan> overdue = new ArrayList<>();
+        for(Library shard : shards) {
+            overdue.addAll(shard.getOverdueLoans(date));
+        }
+        overdue.sort(Comparator.comparingLong(Loan::getDueDay));
+        return overdue;
+    }
+
+    /**
+     * This method listBooks() displays all books in every shard.
+     * @return integer number of books total in the library.
+     */
+    public int listBooks() {
+        int bookCounter = 0;
+        for(Library shard : shards) {
+            bookCounter += (int) shard.getStats().getTotalCopies();
+        }
+        System.out.println("Displaying list of books.");
+        try {
+            listBooks(System.out, 0, Integer.MAX_VALUE);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);  // System.out does not throw
+        }
+        if(bookCounter == 0) {
+            System.out.println("NOTE: No books to display.");
+        }
+        return bookCounter;
+    }
+
+    /**
+     * This method listBooks() writes one page of the books to out, shard by shard (see Library.listBooks()).
+     * @param out where the listing is written (ex. a Writer)
+     * @param offset the number of books to skip
+     * @param limit the most books to write
+     * @return the number of books written.  Fewer than limit means it was the last page.
+     * @throws IOException if out cannot be written
+     */
+    public int listBooks(Appendable out, int offset, int limit) throws IOException {
+        int written = 0;
+        for(Library shard : shards) {
+            if(written == limit) {
+                break;
+            }
+            int size = shard.getTitleCount();
+            if(offset >= size) {
+                offset -= size;
+                continue;
+            }
+            written += shard.listBooks(out, offset, limit - written);
+            offset = 0;
+        }
+        return written;
+    }
+
+    /**
+     * This method listShelves() writes one page of the shelves to out, shard by shard (see Library.listShelves()).
+     * @return the number of shelves written.  Fewer than limit means it was the last page.
+     * @throws IOException if out cannot be written
+     */
+    public int listShelves(Appendable out, boolean showBooks, int offset, int limit) throws IOException {
+        int written = 0;
+        for(Library shard : shards) {
+            if(written == limit) {
+                break;
+            }
+            int size = shard.getShelfCount();
+            if(offset >= size) {
+                offset -= size;
+                continue;
+            }
+            written += shard.listShelves(out, showBooks, offset, limit - written);
+            offset = 0;
+        }
+        return written;
+    }
+
+    /**
+     * This method listReaders() writes one page of the readers to out, shard by shard (see Library.listReaders()).
+     * @return the number of readers written.  Fewer than limit means it was the last page.
+     * @throws IOException if out cannot be written
+     */
+    public int listReaders(Appendable out, boolean showBooks, int offset, int limit) throws IOException {
+        int written = 0;
+        for(Library shard : shards) {
+            if(written == limit) {
+                break;
+            }
+            int size = (int) shard.getStats().getReaderCount();
+            if(offset >= size) {
+                offset -= size;
+                continue;
+            }
+            written += shard.listReaders(out, showBooks, offset, limit - written);
+            offset = 0;
+        }
+        return written;
+    }
+}
@@ -0,0 +1,120 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: ShardedLibraryTest.java
+ * abstract: This class ShardedLibraryTest() is a jUnit test for ShardedLibrary.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class ShardedLibraryTest {
+    @TempDir
+    Path directory;
+
+    Book testBook = new Book("1337", "Headfirst Java", "education", 1337, "Grady Booch", null);
+    Book failBook = new Book("34-w-34", "Dune", "sci-fi", 235, "Frank Herbert", null);
+
+    /**
+     * This method readerOutside() makes a reader whose card number puts them in another shard than subject.
+     */
+    private Reader readerOutside(ShardedLibrary library, String subject) {
+        int cardNumber = 1;
+        while(library.getReaderShard(cardNumber) == library.getSubjectShard(subject)) {
+            cardNumber++;
+        }
+        return new Reader(cardNumber, "Drew Clinkenbeard", "831-582-4007");
+    }
+
+    private ShardedLibrary library() {
+        ShardedLibrary library = new ShardedLibrary("Sharded Library", 4);
+        library.addShelf("education");
+        library.addShelf("sci-fi");
+        library.addBook(testBook);
+        library.addBook(failBook);
+        library.addBook(failBook);
+        return library;
+    }
+
+    @Test
+    void crossShardCheckOutAndReturn() {
+        ShardedLibrary library = library();
+        Reader reader = readerOutside(library, "sci-fi");
+        assertEquals(Code.SUCCESS, library.addReader(reader));
+
+        assertEquals(Code.SUCCESS, library.checkOutBook(reader, failBook));
+        assertTrue(reader.hasBook(failBook));
+        assertEquals(1, library.getShelf("sci-fi").getBookCount(failBook));
+        assertEquals(1, library.getReaderShard(reader.getCardNumber()).getStats().getCheckedOutCopies());
+
+        assertEquals(Code.SUCCESS, library.returnBook(reader, failBook));
+        assertFalse(reader.hasBook(failBook));
+        assertEquals(2, library.getShelf("sci-fi").getBookCount(failBook));
+        assertEquals(Code.READER_DOESNT_HAVE_BOOK_ERROR, library.returnBook(reader, failBook));
+    }
+
+    @Test
+    void noCopyCancelsTheLoan() {
+        ShardedLibrary library = library();
+        Reader reader = readerOutside(library, "education");
+        Reader otherReader = new Reader(reader.getCardNumber() + library.getShardCount(), "Jennifer Clinkenbeard",
+                "831-555-6284");
+        library.addReader(reader);
+        library.addReader(otherReader);
+
+        assertEquals(Code.SUCCESS, library.checkOutBook(reader, testBook));
+        assertEquals(Code.BOOK_NOT_IN_INVENTORY_ERROR, library.checkOutBook(otherReader, testBook));
+        assertFalse(otherReader.hasBook(testBook));  // the loan was cancelled
+        assertEquals(0, otherReader.getBookCount());
+    }
+
+    @Test
+    void scatterGather() throws IOException {
+        ShardedLibrary library = library();
+        assertEquals(failBook, library.getBookByISBN("34-w-34"));
+        assertNull(library.getBookByISBN("nope"));
+        assertEquals(1, library.findBooks(null, "Frank Herbert", 0, Integer.MAX_VALUE, true).size());
+
+        StringBuilder page = new StringBuilder();
+        assertEquals(1, library.listBooks(page, 1, 5));
+        assertEquals(1, page.toString().split("\n").length);
+        assertEquals(2, library.listBooks(new StringBuilder(), 0, 5));
+        assertEquals(2, library.listShelves(new StringBuilder(), false, 0, 5));
+        assertEquals(1, library.listShelves(new StringBuilder(), false, 0, 1));
+    }
+
+    @Test
+    void nullReaderOrBook() {
+        ShardedLibrary library = library();
+        Reader reader = readerOutside(library, "sci-fi");
+        library.addReader(reader);
+        assertEquals(Code.READER_NOT_IN_LIBRARY_ERROR, library.checkOutBook(null, failBook));
+        assertEquals(Code.BOOK_NOT_IN_INVENTORY_ERROR, library.checkOutBook(reader, null));
+        assertEquals(Code.READER_NOT_IN_LIBRARY_ERROR, library.returnBook(null, failBook));
+        assertEquals(Code.BOOK_NOT_IN_INVENTORY_ERROR, library.returnBook(reader, null));
+    }
+
+    @Test
+    void crossShardRefusedWhileJournaled() {
+        ShardedLibrary library = library();
+        Reader reader = readerOutside(library, "sci-fi");
+        library.addReader(reader);
+        assertEquals(Code.SUCCESS, library.checkOutBook(reader, failBook));
+
+        Library bookShard = library.getSubjectShard("sci-fi");
+        assertEquals(Code.SUCCESS, bookShard.openJournal(directory.resolve("sci-fi.journal").toString(), false));
+        try {
+            assertEquals(Code.JOURNAL_ERROR, library.checkOutBook(reader, failBook));
+            assertEquals(Code.JOURNAL_ERROR, library.returnBook(reader, failBook));
+            assertTrue(reader.hasBook(failBook));
+            assertEquals(1, library.getShelf("sci-fi").getBookCount(failBook));
+        } finally {
+            bookShard.closeJournal();
+        }
+        assertEquals(Code.SUCCESS, library.returnBook(reader, failBook));
+        assertEquals(2, library.getShelf("sci-fi").getBookCount(failBook));
+    }
+}
@@ -1,5 +1,10 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.ObjIntConsumer;
 
 /**
  * title: Shelf.java
@@ -17,69 +22,154 @@ public class Shelf {
 
     private int shelfNumber;
     private String subject;
-    private HashMap<Book, Integer> books;
+    private CopyCounter<CatalogKey> books;     // Copies of each book on the shelf, counted by CatalogKey
+    private volatile ObjIntConsumer<CatalogKey> countListener;  // Told each book's new count (see setCountListener)
 
     public Shelf() {
         shelfNumber = 0;
         subject = "Not set";
-        books = new HashMap<>();
+        books = new CopyCounter<>();
     }
 
     public int getBookCount(Book book) {
-        if(books.containsKey(book)) {
-            return books.get(book);
-        } else {
-            return -1;
-        }
+        return books.get(book.getKey(), -1);
+    }
+
+    /**
+     * This getBookTotal() method returns the number of copies of all books on the shelf.  The total is kept as
+     * copies are added and removed, so nothing is added up.
+     * @return the number of copies on the shelf
+     */
+    public long getBookTotal() {
+        return books.total();
     }
 
     public Code addBook(Book book) {
-        if(books.containsKey(book)) {
-            books.replace(book, books.get(book), books.get(book) +1);
-            System.out.println(book + " added to shelf " + this);
-            return Code.SUCCESS;
-        } else if (this.subject.equals(book.getSubject())){
-            books.put(book, 1);
-            System.out.println(book + " added to shelf " + this);
-            return Code.SUCCESS;
-        } else {
-            return Code.SHELF_SUBJECT_MISMATCH_ERROR;
+        int count = books.addIfPresent(book.getKey(), 1);
+        if(count < 0) {
+            if(!this.subject.equals(book.getSubject())) {
+                return Code.SHELF_SUBJECT_MISMATCH_ERROR;
+            }
+            count = books.add(book.getKey(), 1);
+        }
+        countChanged(book, count);
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, book + " added to shelf " + this);
         }
+        return Code.SUCCESS;
     }
 
-    public Code removeBook(Book book) {
-        if(books.containsKey(book)) {
-            if(books.get(book) > 0) {
-                books.replace(book, books.get(book) - 1);
-                System.out.println(book + " successfully removed from shelf " + subject);
-                return Code.SUCCESS;
-            } else {
-                System.out.println("No copies of " + book.getTitle() + " remain on shelf " + subject);
-                return Code.BOOK_NOT_IN_INVENTORY_ERROR;
+    /**
+     * This addBook() method puts several copies of a book on the shelf at once.
+     * @param book an object representing a book on the shelf
+     * @param copies the number of copies being added
+     * @return code indicating if this method was successful or not.
+     */
+    public Code addBook(Book book, int copies) {
+        if(copies < 1) {
+            return Code.BOOK_COUNT_ERROR;
+        }
+
+        int count = books.addIfPresent(book.getKey(), copies);
+        if(count < 0) {
+            if(!this.subject.equals(book.getSubject())) {
+                return Code.SHELF_SUBJECT_MISMATCH_ERROR;
             }
+            count = books.add(book.getKey(), copies);
+        }
+        countChanged(book, count);
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, copies + " copies of " + book + " added to shelf " + this);
+        }
+        return Code.SUCCESS;
+    }
 
+    public Code removeBook(Book book) {
+        int count = books.take(book.getKey());
+        if(count > 0) {
+            countChanged(book, count - 1);
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, book + " successfully removed from shelf " + subject);
+            }
+            return Code.SUCCESS;
+        } else if(count == 0) {
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, "No copies of " + book.getTitle() + " remain on shelf " + subject);
+            }
+            return Code.BOOK_NOT_IN_INVENTORY_ERROR;
         } else {
-            System.out.println(book.getTitle() + "is not on the shelf " + subject);
+            if(LibraryLog.isEnabled(LogLevel.INFO)) {
+                LibraryLog.log(LogLevel.INFO, book.getTitle() + "is not on the shelf " + subject);
+            }
             return Code.BOOK_NOT_IN_INVENTORY_ERROR;
         }
     }
 
+    /**
+     * This takeBook() method removes one copy of a book for a checkout.  It works like removeBook(), but nothing is
+     * displayed when no copy is left so the caller can report it.  The copy is taken with a single atomic update.
+     * @param book an object representing a book on the shelf
+     * @return Code.SUCCESS if a copy was taken or Code.BOOK_NOT_IN_INVENTORY_ERROR if none is left.
+     */
+    public Code takeBook(Book book) {
+        int count = books.take(book.getKey());
+        if(count < 1) {
+            return Code.BOOK_NOT_IN_INVENTORY_ERROR;
+        }
+        countChanged(book, count - 1);
+        if(LibraryLog.isEnabled(LogLevel.INFO)) {
+            LibraryLog.log(LogLevel.INFO, book + " successfully removed from shelf " + subject);
+        }
+        return Code.SUCCESS;
+    }
+
+    /**
+     * This setBookCount() method sets the number of copies of a book on the shelf without checking its subject.
+     * It is used when a library is restored from a LibrarySnapshot.
+     * @param book an object representing a book on the shelf
+     * @param count the number of copies on the shelf
+     */
+    public void setBookCount(Book book, int count) {
+        books.set(book.getKey(), count);
+        countChanged(book, count);
+    }
+
     public String listBooks() {
         StringBuilder shelfOutput = new StringBuilder();
-        int numOfBooks = 0; // used to store total number of books on the shelf
-
-        // find total number of books on shelf for output
-        for(Integer i : books.values()) {
-            numOfBooks += i;
+        try {
+            listBooks(shelfOutput);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);  // A StringBuilder does not throw
         }
+        return shelfOutput.toString();
+    }
 
+    /**
+     * This method listBooks() writes the shelf information and every book on the shelf to out, one line at a
+     * time, so a big shelf is never built into one String.
+     * @param out where the listing is written (ex. a Writer or System.out)
+     * @throws IOException if out cannot be written
+     */
+    public void listBooks(Appendable out) throws IOException {
         // Display shelf information and list all books on shelf
-        shelfOutput.append("Shelf #" + this + " (has " + numOfBooks + " books)\n");
-        for(Book book: books.keySet()) {
-            shelfOutput.append(" > " + book.toString() + " (" + books.get(book) + ")\n");
-        }
+        out.append("Shelf #" + this + " (has " + books.total() + " books)\n");
+        listBooks(out, 0, Integer.MAX_VALUE);
+    }
 
-        return shelfOutput.toString();
+    /**
+     * This method listBooks() writes one page of the books on the shelf to out, without the shelf information.
+     * @param out where the listing is written
+     * @param offset the number of books to skip
+     * @param limit the most books to write
+     * @return the number of books written.  Fewer than limit means it was the last page.
+     * @throws IOException if out cannot be written
+     */
+    public int listBooks(Appendable out, int offset, int limit) throws IOException {
+        List<Map.Entry<CatalogKey, Integer>> page = books.entries(offset, limit);
+        for(Map.Entry<CatalogKey, Integer> book : page) {
+            out.append(" > " + book.getKey().toString() + " (" + book.getValue() + ")\n");
+        }
+        return page.size();
     }
 
     public int getShelfNumber() {
@@ -98,12 +188,51 @@ public class Shelf {
         this.subject = subject;
     }
 
+    /**
+     * This method getBooks() returns the books on the shelf with their number of copies.
+     * @return a copy of the counts.  Changing it does not change the shelf.
+     */
     public HashMap<Book, Integer> getBooks() {
-        return books;
+        HashMap<Book, Integer> copy = new HashMap<>();
+        books.forEach((key, count) -> copy.put(new Book(key, null), count));
+        return copy;
     }
 
+    /**
+     * This method setBooks() replaces the books on the shelf.  The counts are copied, so changing the map
+     * afterwards does not change the shelf.
+     * @param books the books with their number of copies
+     */
     public void setBooks(HashMap<Book, Integer> books) {
-        this.books = books;
+        CopyCounter<CatalogKey> counts = new CopyCounter<>();
+        for(Map.Entry<Book, Integer> book : books.entrySet()) {
+            counts.set(book.getKey().getKey(), book.getValue());
+        }
+        this.books = counts;
+        ObjIntConsumer<CatalogKey> listener = countListener;
+        if(listener != null) {
+            counts.forEach(listener);
+        }
+    }
+
+    /**
+     * This method setCountListener() sets who is told the new number of copies of a book each time it changes
+     * (ex. the Library's CatalogBitmaps, which tracks which books are available).  It is told while the change is
+     * made, so it must be quick.  It is also told the count of each book already on the shelf.
+     * @param listener the listener, or null for none
+     */
+    void setCountListener(ObjIntConsumer<CatalogKey> listener) {
+        this.countListener = listener;
+        if(listener != null) {
+            books.forEach(listener);
+        }
+    }
+
+    private void countChanged(Book book, int count) {
+        ObjIntConsumer<CatalogKey> listener = countListener;
+        if(listener != null) {
+            listener.accept(book.getKey(), count);
+        }
     }
 
     @Override
@@ -45,7 +45,7 @@ class ShelfTest {
         s.removeBook(testBook);
         testCount --;
         assertEquals(testCount,s.getBookCount(testBook)); // one book removed and count tested
-        while(testBooks.get(testBook) > 0) {
+        while(s.getBookCount(testBook) > 0) {
             s.removeBook(testBook);
             testCount --;
         }
@@ -65,6 +65,19 @@ class ShelfTest {
         assertEquals(-1, s.getBookCount(failBook));
     }
 
+    @Test
+    void addBookCopies() {
+        Shelf s = new Shelf();
+        s.setSubject(SUBJECT);
+        assertEquals(Code.SUCCESS, s.addBook(testBook, 3));
+        assertEquals(3, s.getBookCount(testBook));
+        assertEquals(Code.SUCCESS, s.addBook(testBook, 2));
+        assertEquals(5, s.getBookCount(testBook));
+        assertEquals(Code.BOOK_COUNT_ERROR, s.addBook(testBook, 0));
+        assertEquals(Code.SHELF_SUBJECT_MISMATCH_ERROR, s.addBook(failBook, 2));
+        assertEquals(-1, s.getBookCount(failBook));
+    }
+
     @Test
     void removeBook() {
         Shelf s = new Shelf();
@@ -0,0 +1,301 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * title: TextIndex.java
+ * abstract: This class TextIndex finds books by the words in their title and author.  Each word (token) has a
+ * posting list of the books that use it, and the words are also kept in a TreeMap so every word starting with a
+ * prefix is one sorted range.  Posting lists are in the order books were added, so a search walks the lists of its
+ * words together, skipping ahead in each to the next book they all share, and stops once it has found enough books
+ * that nothing later can rank above.
+ * name: Juli S
+ * date: 10/17/2026
+ *
+ * NOTE: Books are only added.  The Library changes the index while holding the catalog write lock and searches it
+ *       while holding the catalog read lock, so the index has no lock of its own.
+ */
+
+public class TextIndex {
+    private static final int TITLE_WEIGHT = 2;    // A word in the title counts more than a word in the author
+    private static final int AUTHOR_WEIGHT = 1;
+    private static final int NONE = -1;           // No more books
+
+    private final HashMap<String, Postings> words = new HashMap<>();     // Word key with the books that use it
+    private final TreeMap<String, Postings> sortedWords = new TreeMap<>();  // The same words in order for prefixes
+    private final ArrayList<Book> books = new ArrayList<>();           // Book of each document number
+
+    /**
+     * This class Postings lists the books that use one word, in the order they were added.  Each book also has
+     * the fields (title, author, or both) the word is in.
+     */
+    private static final class Postings {
+        private int[] documents = new int[2];
+        private byte[] weights = new byte[2];
+        private int size;
+        private int fields;     // Every field any book uses the word in
+
+        void add(int document, int weight) {
+            fields |= weight;
+            if(size > 0 && documents[size - 1] == document) {
+                weights[size - 1] |= (byte) weight;  // The word is in the title and the author
+                return;
+            }
+            if(size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            documents[size] = document;
+            weights[size] = (byte) weight;
+            size++;
+        }
+
+        /**
+         * This method seek() finds the first book at or after from that is at or after document.  It gallops
+         * (steps of 1, 2, 4, ...) and then binary searches, so skipping far ahead costs only a few steps.
+         * @param from the position to start at
+         * @param document the book to find
+         * @return the position of the first book at or after document, or size if there is none
+         */
+        int seek(int from, int document) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while(high < size && documents[high] < document) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            int index = Arrays.binarySearch(documents, low, high, document);
+            return index < 0 ? -index - 1 : index;
+        }
+    }
+
+    /**
+     * This class Match is one word of the index that a query word matched, either the whole word or its prefix.
+     */
+    private static final class Match {
+        private final Postings postings;
+        private final boolean wholeWord;
+
+        Match(Postings postings, boolean wholeWord) {
+            this.postings = postings;
+            this.wholeWord = wholeWord;
+        }
+
+        /**
+         * This method score() ranks a book that uses the word: the title over the author, and a whole word over
+         * a prefix.
+         * @param weight the fields the book uses the word in, or 0 if it does not use it
+         * @return the score, or 0 if the book does not use the word
+         */
+        int score(int weight) {
+            if(weight == 0) {
+                return 0;
+            }
+            int score = (weight & TITLE_WEIGHT) != 0 ? TITLE_WEIGHT : AUTHOR_WEIGHT;
+            return wholeWord ? score * 2 : score;
+        }
+    }
+
+    /**
+     * This class Cursor walks the books that use any of the words one query word matched, in the order the books
+     * were added.
+     */
+    private static final class Cursor {
+        private final Match[] matches;
+        private final int[] positions;      // Position in each match's posting list
+        private final long postingCount;    // Books in all the posting lists
+        private final int bestScore;        // The most a book can score for this query word
+
+        Cursor(List<Match> wordMatches) {
+            matches = wordMatches.toArray(new Match[0]);
+            positions = new int[matches.length];
+            long count = 0;
+            int score = 0;
+            for(Match match : matches) {
+                count += match.postings.size;
+                score = Math.max(score, match.score(match.postings.fields));
+            }
+            postingCount = count;
+            bestScore = score;
+        }
+
+        /**
+         * This method seek() moves to the first book at or after document that uses one of the words.
+         * @param document the book to start at.  It must not be before the last book sought.
+         * @return the book, or NONE if there are no more
+         */
+        int seek(int document) {
+            int next = NONE;
+            for(int i = 0; i < matches.length; i++) {
+                Postings postings = matches[i].postings;
+                positions[i] = postings.seek(positions[i], document);
+                if(positions[i] < postings.size && (next == NONE || postings.documents[positions[i]] < next)) {
+                    next = postings.documents[positions[i]];
+                }
+            }
+            return next;
+        }
+
+        /**
+         * This method score() returns the best score of the words a book uses.  The cursor must be on the book.
+         */
+        int score(int document) {
+            int score = 0;
+            for(int i = 0; i < matches.length; i++) {
+                Postings postings = matches[i].postings;
+                if(positions[i] < postings.size && postings.documents[positions[i]] == document) {
+                    score = Math.max(score, matches[i].score(postings.weights[positions[i]]));
+                }
+            }
+            return score;
+        }
+    }
+
+    /**
+     * This method add() indexes the words in the title and author of a book.
+     * @param book the book to be found by search()
+     */
+    public void add(Book book) {
+        int document = books.size();
+        books.add(book);
+        for(String word : tokenize(book.getTitle())) {
+            postings(word).add(document, TITLE_WEIGHT);
+        }
+        for(String word : tokenize(book.getAuthor())) {
+            postings(word).add(document, AUTHOR_WEIGHT);
+        }
+    }
+
+    /**
+     * This method search() finds the books that have every word of the query in their title or author.  Each word
+     * also matches longer words that start with it (ex. "tolk" finds "Tolkien").  Books are ranked by how well
+     * they match: a whole word beats a prefix and the title beats the author.  Books that rank the same are in the
+     * order they were added.
+     * @param query the words to find, in any case and order
+     * @param limit the most books returned
+     * @return the best matching books, best first
+     */
+    public List<Book> search(String query, int limit) {
+        List<String> queryWords = tokenize(query);
+        if(queryWords.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Each query word with the posting lists of the words it matches, the least common word first
+        List<Cursor> cursors = new ArrayList<>();
+        for(String word : queryWords) {
+            List<Match> wordMatches = new ArrayList<>();
+            for(Map.Entry<String, Postings> match : prefixRange(word).entrySet()) {
+                wordMatches.add(new Match(match.getValue(), match.getKey().length() == word.length()));
+            }
+            if(wordMatches.isEmpty()) {
+                return new ArrayList<>();
+            }
+            cursors.add(new Cursor(wordMatches));
+        }
+        cursors.sort(Comparator.comparingLong(cursor -> cursor.postingCount));
+        int bestScore = 0;
+        for(Cursor cursor : cursors) {
+            bestScore += cursor.bestScore;
+        }
+
+        // Walk the books that use every word in the order they were added (leapfrog: each word skips ahead to the
+        // book the others are on).  The worst of the best limit books is on top of the heap so it can be replaced.
+        Comparator<int[]> ranking = Comparator.<int[]>comparingInt(found -> found[1])
+                .thenComparing(Comparator.<int[]>comparingInt(found -> found[0]).reversed());
+        PriorityQueue<int[]> best = new PriorityQueue<>(limit + 1, ranking);
+        int document = cursors.get(0).seek(0);
+        while(document != NONE) {
+            int next = document;
+            for(int i = 1; i < cursors.size() && next == document; i++) {
+                next = cursors.get(i).seek(document);
+            }
+            if(next == NONE) {
+                break;
+            } else if(next != document) {
+                document = cursors.get(0).seek(next);
+                continue;
+            }
+
+            int score = 0;
+            for(Cursor cursor : cursors) {
+                score += cursor.score(document);
+            }
+            best.add(new int[] {document, score});
+            if(best.size() > limit) {
+                best.poll();
+            }
+            if(best.size() == limit && best.peek()[1] == bestScore) {
+                break;  // Books added later cannot rank above the ones found
+            }
+            document = cursors.get(0).seek(document + 1);
+        }
+
+        Book[] found = new Book[best.size()];
+        for(int i = found.length - 1; i >= 0; i--) {
+            found[i] = books.get(best.poll()[0]);
+        }
+        return new ArrayList<>(Arrays.asList(found));
+    }
+
+    public int size() {
+        return books.size();
+    }
+
+    public void clear() {
+        words.clear();
+        sortedWords.clear();
+        books.clear();
+    }
+
+    /**
+     * This method tokenize() splits text into lower case words of letters and digits.
+     * @param text the text to split (ex. a title)
+     * @return the words in the order they appear
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if(text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for(int i = 0; i <= text.length(); i++) {
+            boolean wordCharacter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if(wordCharacter && start < 0) {
+                start = i;
+            } else if(!wordCharacter && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * This method postings() finds the posting list of a word, adding one if the word is new.  Words already
+     * indexed are found by hash, so only new words pay for the sorted map.
+     */
+    private Postings postings(String word) {
+        Postings postings = words.get(word);
+        if(postings == null) {
+            postings = new Postings();
+            words.put(word, postings);
+            sortedWords.put(word, postings);
+        }
+        return postings;
+    }
+
+    private SortedMap<String, Postings> prefixRange(String prefix) {
+        return sortedWords.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+}
@@ -0,0 +1,45 @@
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * title: TextIndexTest.java
+ * abstract: This class TextIndexTest() is a jUnit test for TextIndex.java.
+ * name: Juli S
+ * date: 10/17/2026
+ */
+
+class TextIndexTest {
+    Book testBook = new Book("1337", "Headfirst Java", "education", 1337, "Grady Booch", null);
+    Book javaBook = new Book("42", "Java Concurrency in Practice", "education", 384, "Brian Goetz", null);
+    Book failBook = new Book("34-w-34", "Dune", "sci-fi", 235, "Frank Herbert", null);
+    Book herbertBook = new Book("5", "The Herbert Family Cookbook", "cooking", 90, "Ann Javanovic", null);
+
+    private TextIndex index() {
+        TextIndex index = new TextIndex();
+        index.add(testBook);
+        index.add(javaBook);
+        index.add(failBook);
+        index.add(herbertBook);
+        return index;
+    }
+
+    @Test
+    void tokenize() {
+        assertEquals(List.of("java", "concurrency", "in", "practice"),
+                TextIndex.tokenize("Java: Concurrency-in  PRACTICE!"));
+        assertTrue(TextIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void search() {
+        TextIndex index = index();
+        assertEquals(List.of(testBook, javaBook, herbertBook), index.search("java", 10));  // title, then prefix
+        assertEquals(List.of(herbertBook, failBook), index.search("herbert", 10));      // title before author
+        assertEquals(List.of(javaBook), index.search("CONCURRENCY goetz", 10));
+        assertEquals(List.of(javaBook), index.search("java conc", 10));
+        assertEquals(List.of(testBook), index.search("java", 1));
+        assertTrue(index.search("java dune", 10).isEmpty());  // every word must match
+        assertTrue(index.search("", 10).isEmpty());
+    }
+}